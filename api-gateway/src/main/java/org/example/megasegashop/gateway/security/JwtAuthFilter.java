@@ -36,21 +36,18 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         }
 
         String token = header.substring(7);
-        if (!jwtTokenService.isValid(token)) {
+        VerifiedClaims claims = jwtTokenService.verify(token);
+        if (claims == null) {
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
-        String email = jwtTokenService.extractSubject(token);
-        String role = jwtTokenService.extractRole(token);
-        Long userId = jwtTokenService.extractUserId(token);
-
         var requestBuilder = exchange.getRequest().mutate()
-                .header("X-User-Email", email)
-                .header("X-User-Role", role);
+                .header("X-User-Email", claims.subject())
+                .header("X-User-Role", claims.role());
         
-        if (userId != null) {
-            requestBuilder.header("X-User-Id", userId.toString());
+        if (claims.userId() != null) {
+            requestBuilder.header("X-User-Id", claims.userId().toString());
         }
 
         return chain.filter(exchange.mutate()
@@ -73,8 +70,12 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
     }
 
     private boolean isPublicProductRead(ServerWebExchange exchange) {
-        return exchange.getRequest().getMethod() == HttpMethod.GET
-                && exchange.getRequest().getURI().getPath().startsWith("/api/products");
+        String path = exchange.getRequest().getURI().getPath();
+        if (exchange.getRequest().getMethod() == HttpMethod.POST) {
+            // Batch lookup is a read that only uses POST to carry the id list
+            return "/api/products/batch".equals(path);
+        }
+        return exchange.getRequest().getMethod() == HttpMethod.GET && path.startsWith("/api/products");
     }
 
     private boolean isPublicImageRead(ServerWebExchange exchange) {
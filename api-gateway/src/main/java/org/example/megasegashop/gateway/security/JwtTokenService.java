@@ -1,34 +1,138 @@
 package org.example.megasegashop.gateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import org.example.megasegashop.shared.security.JwtTokenUtil;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenService {
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "userId";
+    /**
+     * Cache time in epoch nanoseconds, so that entry lifetimes can be compared with token expiry times.
+     */
+    private static final Ticker WALL_CLOCK = () -> TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+
     private final SecretKey key;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedClaims> verifiedClaimsCache;
 
+    @Autowired
     public JwtTokenService(SecurityProperties securityProperties) {
+        this(securityProperties, WALL_CLOCK);
+    }
+
+    JwtTokenService(SecurityProperties securityProperties, Ticker ticker) {
         this.key = Keys.hmacShaKeyFor(securityProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(securityProperties.getClaimsCacheMaxSize())
+                .expireAfter(new TokenExpiry(securityProperties.getClaimsCacheMaxTtl().toNanos()))
+                .ticker(ticker)
+                .build();
     }
 
-    public boolean isValid(String token) {
-        return JwtTokenUtil.isValid(token, key);
+    /**
+     * Verifies the token and returns its claims, or {@code null} if the token is invalid or expired.
+     * Verified claims are cached by token hash until the token itself expires, but for no longer
+     * than {@code security.jwt.claims-cache-max-ttl}, so repeated requests with the same bearer
+     * token skip signature verification.
+     */
+    public VerifiedClaims verify(String token) {
+        String cacheKey = hash(token);
+        VerifiedClaims cached = verifiedClaimsCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedClaims claims = parse(token);
+        if (claims != null) {
+            verifiedClaimsCache.put(cacheKey, claims);
+        }
+        return claims;
     }
 
-    public String extractSubject(String token) {
-        return JwtTokenUtil.extractSubject(token, key);
+    VerifiedClaims parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+            return new VerifiedClaims(
+                    claims.getSubject(),
+                    claims.get(ROLE_CLAIM, String.class),
+                    toUserId(claims.get(USER_ID_CLAIM)),
+                    expiresAt
+            );
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
     }
 
-    public String extractRole(String token) {
-        return JwtTokenUtil.extractRole(token, key);
+    private Long toUserId(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        return null;
     }
 
-    public Long extractUserId(String token) {
-        return JwtTokenUtil.extractUserId(token, key);
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
-}
 
+    /**
+     * {@code currentTime} is read from {@link #WALL_CLOCK}, i.e. epoch nanoseconds.
+     */
+    private static final class TokenExpiry implements Expiry<String, VerifiedClaims> {
+        private final long maxTtlNanos;
+
+        private TokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+            if (claims.expiresAt() == null) {
+                return maxTtlNanos;
+            }
+            long expiresAt = TimeUnit.SECONDS.toNanos(claims.expiresAt().getEpochSecond()) + claims.expiresAt().getNano();
+            return Math.max(0, Math.min(expiresAt - currentTime, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
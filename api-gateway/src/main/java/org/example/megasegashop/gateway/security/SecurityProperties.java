@@ -2,6 +2,7 @@ package org.example.megasegashop.gateway.security;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 @ConfigurationProperties(prefix = "security.jwt")
@@ -10,6 +11,10 @@ public class SecurityProperties {
 
     private List<String> publicPaths = List.of("/api/auth/", "/actuator/");
 
+    private long claimsCacheMaxSize = 10_000;
+
+    private Duration claimsCacheMaxTtl = Duration.ofMinutes(15);
+
     public String getSecret() {
         return secret;
     }
@@ -25,4 +30,20 @@ public class SecurityProperties {
     public void setPublicPaths(List<String> publicPaths) {
         this.publicPaths = publicPaths;
     }
+
+    public long getClaimsCacheMaxSize() {
+        return claimsCacheMaxSize;
+    }
+
+    public void setClaimsCacheMaxSize(long claimsCacheMaxSize) {
+        this.claimsCacheMaxSize = claimsCacheMaxSize;
+    }
+
+    public Duration getClaimsCacheMaxTtl() {
+        return claimsCacheMaxTtl;
+    }
+
+    public void setClaimsCacheMaxTtl(Duration claimsCacheMaxTtl) {
+        this.claimsCacheMaxTtl = claimsCacheMaxTtl;
+    }
 }
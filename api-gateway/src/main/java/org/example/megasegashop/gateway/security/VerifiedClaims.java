@@ -0,0 +1,14 @@
+package org.example.megasegashop.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a bearer token whose signature and expiry have already been checked.
+ */
+public record VerifiedClaims(
+        String subject,
+        String role,
+        Long userId,
+        Instant expiresAt
+) {
+}
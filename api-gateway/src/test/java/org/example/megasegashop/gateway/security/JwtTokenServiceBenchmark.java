@@ -0,0 +1,79 @@
+package org.example.megasegashop.gateway.security;
+
+import io.jsonwebtoken.security.Keys;
+import org.example.megasegashop.shared.security.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of resolving gateway headers from a bearer token.
+ * <p>
+ * {@code legacyFourParses} is the previous filter path (isValid + three extractors),
+ * {@code singleParse} is a cold cache miss and {@code cachedVerify} is a repeated token.
+ * Run with {@code ./mvnw -pl api-gateway test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=org.example.megasegashop.gateway.security.JwtTokenServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+    private static final String SECRET = "bench-secret-012345678901234567890123456789";
+
+    private JwtTokenService jwtTokenService;
+    private SecretKey key;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setSecret(SECRET);
+        jwtTokenService = new JwtTokenService(properties);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = JwtTokenServiceTest.issueToken(SECRET, "bench@test.com", "ROLE_USER", 7L);
+        jwtTokenService.verify(token);
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole blackhole) {
+        blackhole.consume(JwtTokenUtil.isValid(token, key));
+        blackhole.consume(JwtTokenUtil.extractSubject(token, key));
+        blackhole.consume(JwtTokenUtil.extractRole(token, key));
+        blackhole.consume(JwtTokenUtil.extractUserId(token, key));
+    }
+
+    @Benchmark
+    public VerifiedClaims singleParse() {
+        return jwtTokenService.parse(token);
+    }
+
+    @Benchmark
+    public VerifiedClaims cachedVerify() {
+        return jwtTokenService.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.megasegashop.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.example.megasegashop.shared.security.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenServiceTest {
+    private static final String SECRET = "test-secret-012345678901234567890123456789";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    private JwtTokenService jwtTokenService;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = new JwtTokenService(properties(Duration.ofMinutes(15)));
+    }
+
+    @Test
+    void verify_validToken_returnsSameClaimsAsSharedExtractors() {
+        String token = issueToken(SECRET, "user@test.com", "ROLE_USER", 42L);
+
+        VerifiedClaims claims = jwtTokenService.verify(token);
+
+        assertNotNull(claims);
+        assertEquals(JwtTokenUtil.extractSubject(token, KEY), claims.subject());
+        assertEquals(JwtTokenUtil.extractRole(token, KEY), claims.role());
+        assertEquals(JwtTokenUtil.extractUserId(token, KEY), claims.userId());
+        assertNotNull(claims.expiresAt());
+    }
+
+    @Test
+    void verify_repeatedToken_returnsCachedClaims() {
+        String token = issueToken(SECRET, "user@test.com", "ROLE_USER", 42L);
+
+        VerifiedClaims first = jwtTokenService.verify(token);
+        VerifiedClaims second = jwtTokenService.verify(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_cachedClaims_expireWithTheToken() {
+        FakeTicker ticker = new FakeTicker();
+        JwtTokenService service = new JwtTokenService(properties(Duration.ofHours(2)), ticker);
+        String token = issueToken(SECRET, "user@test.com", "ROLE_USER", 42L);
+
+        VerifiedClaims first = service.verify(token);
+        ticker.advance(Duration.ofMinutes(59));
+        assertSame(first, service.verify(token));
+        ticker.advance(Duration.ofMinutes(2));
+
+        // Only the cache clock moved, so the token itself still verifies
+        assertNotSame(first, service.verify(token));
+    }
+
+    @Test
+    void verify_tokenWithoutExpiry_isCachedForAtMostMaxTtl() {
+        FakeTicker ticker = new FakeTicker();
+        JwtTokenService service = new JwtTokenService(properties(Duration.ofMinutes(15)), ticker);
+        String token = Jwts.builder().subject("service@test.com").claim("role", "ROLE_ADMIN").signWith(KEY).compact();
+
+        VerifiedClaims first = service.verify(token);
+        assertNull(first.expiresAt());
+        ticker.advance(Duration.ofMinutes(14));
+        assertSame(first, service.verify(token));
+        ticker.advance(Duration.ofMinutes(2));
+
+        assertNotSame(first, service.verify(token));
+    }
+
+    @Test
+    void verify_tokenSignedWithOtherKey_returnsNull() {
+        String token = issueToken("other-secret-01234567890123456789012345678", "user@test.com", "ROLE_USER", 42L);
+
+        assertNull(jwtTokenService.verify(token));
+        assertNull(jwtTokenService.verify(token));
+    }
+
+    @Test
+    void verify_malformedToken_returnsNull() {
+        assertNull(jwtTokenService.verify("not-a-jwt"));
+    }
+
+    private static SecurityProperties properties(Duration claimsCacheMaxTtl) {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setSecret(SECRET);
+        properties.setClaimsCacheMaxTtl(claimsCacheMaxTtl);
+        return properties;
+    }
+
+    static String issueToken(String secret, String subject, String role, Long userId) {
+        Object[] result = JwtTokenUtil.generateTokenWithExpiry(
+                subject,
+                role,
+                userId,
+                Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)),
+                60
+        );
+        return (String) result[0];
+    }
+
+    /**
+     * Wall-clock ticker, as used in production, that only moves when told to.
+     */
+    private static final class FakeTicker implements Ticker {
+        private final AtomicLong nanos = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.megasegashop.cart.client;
+
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.cart.config.ProductBatchProperties;
+import org.example.megasegashop.cart.dto.ProductBatchRequest;
+import org.example.megasegashop.cart.dto.ProductResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Product lookups over {@code POST /products/batch}. Single-product lookups issued within
+ * {@code cart.product-batch.window} of each other are sent as one request, so a burst of cache
+ * misses costs one round trip instead of one per product.
+ */
+@Slf4j
+@Component
+public class BatchingProductClient {
+    private final ProductClient productClient;
+    private final ProductBatchProperties properties;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Object monitor = new Object();
+    private Map<Long, CompletableFuture<ProductResponse>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BatchingProductClient(ProductClient productClient, ProductBatchProperties properties) {
+        this.productClient = productClient;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "product-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * The product, or empty if it does not exist.
+     *
+     * @throws ResponseStatusException 503 if product-service cannot be reached
+     */
+    public Optional<ProductResponse> getProduct(Long productId) {
+        CompletableFuture<ProductResponse> result = enqueue(productId);
+        try {
+            return Optional.ofNullable(result.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        } catch (TimeoutException ex) {
+            log.warn("Timed out waiting for batched lookup of productId={}", productId);
+            throw unavailable();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ResponseStatusException statusException) {
+                throw statusException;
+            }
+            throw unavailable();
+        }
+    }
+
+    /**
+     * The existing products among {@code productIds}, keyed by id, fetched right away in as few
+     * requests as {@code cart.product-batch.max-batch-size} allows.
+     *
+     * @throws ResponseStatusException 503 if product-service cannot be reached
+     */
+    public Map<Long, ProductResponse> getProducts(Collection<Long> productIds) {
+        List<Long> ids = productIds.stream().distinct().toList();
+        Map<Long, ProductResponse> found = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += properties.getMaxBatchSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + properties.getMaxBatchSize()));
+            List<ProductResponse> products;
+            try {
+                products = productClient.getProducts(new ProductBatchRequest(chunk));
+            } catch (FeignException ex) {
+                log.error("Failed to fetch {} products: {}", chunk.size(), ex.getMessage());
+                throw unavailable();
+            }
+            if (products == null) {
+                log.warn("Product service fallback returned null for {} productIds", chunk.size());
+                throw unavailable();
+            }
+            products.forEach(product -> found.put(product.id(), product));
+        }
+        return found;
+    }
+
+    private CompletableFuture<ProductResponse> enqueue(Long productId) {
+        CompletableFuture<ProductResponse> result;
+        Map<Long, CompletableFuture<ProductResponse>> full = null;
+        synchronized (monitor) {
+            result = pending.get(productId);
+            if (result != null) {
+                return result;
+            }
+            result = new CompletableFuture<>();
+            pending.put(productId, result);
+            if (pending.size() >= properties.getMaxBatchSize()) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                scheduledFlush = executor.schedule(this::flush, properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            Map<Long, CompletableFuture<ProductResponse>> batch = full;
+            executor.execute(() -> send(batch));
+        }
+        return result;
+    }
+
+    private void flush() {
+        Map<Long, CompletableFuture<ProductResponse>> batch;
+        synchronized (monitor) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Must be called with {@link #monitor} held.
+     */
+    private Map<Long, CompletableFuture<ProductResponse>> takePending() {
+        Map<Long, CompletableFuture<ProductResponse>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(Map<Long, CompletableFuture<ProductResponse>> batch) {
+        try {
+            Map<Long, ProductResponse> found = getProducts(batch.keySet());
+            batch.forEach((productId, result) -> result.complete(found.get(productId)));
+        } catch (RuntimeException ex) {
+            batch.values().forEach(result -> result.completeExceptionally(ex));
+        }
+    }
+
+    private static ResponseStatusException unavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Product service is unavailable");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,13 +1,24 @@
 package org.example.megasegashop.cart.client;
 
+import org.example.megasegashop.cart.dto.ProductBatchRequest;
 import org.example.megasegashop.cart.dto.ProductResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "product-service", fallback = ProductClientFallback.class)
 public interface ProductClient {
     
     @GetMapping("/products/{id}")
     ProductResponse getProduct(@PathVariable("id") Long id);
+
+    /**
+     * Existing products among the requested ids; unknown ids are left out.
+     */
+    @PostMapping("/products/batch")
+    List<ProductResponse> getProducts(@RequestBody ProductBatchRequest request);
 }
@@ -1,9 +1,12 @@
 package org.example.megasegashop.cart.client;
 
+import org.example.megasegashop.cart.dto.ProductBatchRequest;
 import org.example.megasegashop.cart.dto.ProductResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Fallback implementation for ProductClient when product-service is unavailable.
  */
@@ -16,4 +19,10 @@ public class ProductClientFallback implements ProductClient {
         log.warn("Circuit breaker fallback: product-service unavailable for productId={}", id);
         return null;
     }
+
+    @Override
+    public List<ProductResponse> getProducts(ProductBatchRequest request) {
+        log.warn("Circuit breaker fallback: product-service unavailable for {} productIds", request.ids().size());
+        return null;
+    }
 }
@@ -0,0 +1,34 @@
+package org.example.megasegashop.cart.config;
+
+import org.example.megasegashop.cart.repository.CartRepository;
+import org.example.megasegashop.cart.store.CartStore;
+import org.example.megasegashop.cart.store.DualCartStore;
+import org.example.megasegashop.cart.store.JpaCartStore;
+import org.example.megasegashop.cart.store.RedisCartStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class CartStoreConfig {
+    @Bean
+    public CartStore cartStore(
+            CartStoreProperties properties,
+            CartRepository cartRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<StringRedisTemplate> redisTemplate
+    ) {
+        JpaCartStore jpaCartStore = new JpaCartStore(cartRepository, transactionManager);
+        return switch (properties.getType()) {
+            case JPA -> jpaCartStore;
+            case REDIS -> redisCartStore(properties, redisTemplate);
+            case DUAL -> new DualCartStore(redisCartStore(properties, redisTemplate), jpaCartStore);
+        };
+    }
+
+    private RedisCartStore redisCartStore(CartStoreProperties properties, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        return new RedisCartStore(redisTemplate.getObject(), properties.getKeyPrefix(), properties.getTtl());
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.megasegashop.cart.config;
+
+import org.example.megasegashop.cart.store.CartStoreType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "cart.store")
+public class CartStoreProperties {
+    private CartStoreType type = CartStoreType.JPA;
+
+    /**
+     * Redis only: a cart untouched for this long is dropped as abandoned.
+     */
+    private Duration ttl = Duration.ofDays(30);
+
+    private String keyPrefix = "cart:";
+
+    public CartStoreType getType() {
+        return type;
+    }
+
+    public void setType(CartStoreType type) {
+        this.type = type;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+}
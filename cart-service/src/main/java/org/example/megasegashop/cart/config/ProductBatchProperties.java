@@ -0,0 +1,63 @@
+package org.example.megasegashop.cart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "cart.product-batch")
+public class ProductBatchProperties {
+    /**
+     * How long a single-product lookup waits for others to share its batch request.
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * Ids per batch request; a full batch is sent without waiting for the window to end.
+     * Must not exceed product-service's own limit of 500.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Upper bound on how long a lookup waits for its batch before failing with 503.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Threads sending batch requests.
+     */
+    private int threads = 4;
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
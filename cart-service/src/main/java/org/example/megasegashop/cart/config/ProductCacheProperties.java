@@ -0,0 +1,47 @@
+package org.example.megasegashop.cart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "cart.product-cache")
+public class ProductCacheProperties {
+    private long maximumSize = 10_000;
+
+    /**
+     * Age after which an entry is reloaded in the background while callers keep getting the
+     * cached value; bounds staleness if an update event is missed.
+     */
+    private Duration refreshAfter = Duration.ofMinutes(1);
+
+    /**
+     * Age after which an entry is no longer served at all, even if product-service is down.
+     */
+    private Duration expireAfter = Duration.ofMinutes(30);
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    public void setRefreshAfter(Duration refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+
+    public Duration getExpireAfter() {
+        return expireAfter;
+    }
+
+    public void setExpireAfter(Duration expireAfter) {
+        this.expireAfter = expireAfter;
+    }
+}
@@ -2,6 +2,7 @@ package org.example.megasegashop.cart.controller;
 
 import jakarta.validation.Valid;
 import org.example.megasegashop.cart.dto.AddCartItemRequest;
+import org.example.megasegashop.cart.dto.BatchCartItemsRequest;
 import org.example.megasegashop.cart.dto.CartResponse;
 import org.example.megasegashop.cart.dto.RemoveCartItemRequest;
 import org.example.megasegashop.cart.service.CartService;
@@ -48,6 +49,20 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.CREATED).body(cartService.addItem(request));
     }
 
+    /**
+     * Adds, updates and removes several items in one call and returns the resulting cart.
+     */
+    @PostMapping("/items/batch")
+    public CartResponse applyItems(
+            @Valid @RequestBody BatchCartItemsRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) String authenticatedUserId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole
+    ) {
+        // Verify user is modifying their own cart
+        validateUserAccess(request.userId(), authenticatedUserId, userRole);
+        return cartService.applyItems(request);
+    }
+
     @DeleteMapping("/items")
     public CartResponse removeItem(
             @Valid @RequestBody RemoveCartItemRequest request,
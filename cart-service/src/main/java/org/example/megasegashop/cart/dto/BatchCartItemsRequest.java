@@ -0,0 +1,17 @@
+package org.example.megasegashop.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Operations applied in order to one cart, all or nothing.
+ */
+public record BatchCartItemsRequest(
+        @NotNull Long userId,
+        @NotEmpty @Size(max = 100) List<@NotNull @Valid CartItemOperation> operations
+) {
+}
@@ -0,0 +1,14 @@
+package org.example.megasegashop.cart.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One step of a batch cart update. {@code quantity} is ignored for {@link CartOperationType#REMOVE}.
+ */
+public record CartItemOperation(
+        @NotNull CartOperationType type,
+        @NotNull Long productId,
+        @Min(0) Integer quantity
+) {
+}
@@ -0,0 +1,10 @@
+package org.example.megasegashop.cart.dto;
+
+public enum CartOperationType {
+    /** Adds {@code quantity} (at least 1) to the item. */
+    ADD,
+    /** Sets the item's quantity; 0 removes it. */
+    SET_QUANTITY,
+    /** Removes the item; a no-op if it is not in the cart. */
+    REMOVE
+}
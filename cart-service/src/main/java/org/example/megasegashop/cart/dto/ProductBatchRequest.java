@@ -0,0 +1,11 @@
+package org.example.megasegashop.cart.dto;
+
+import java.util.List;
+
+/**
+ * Body of product-service's {@code POST /products/batch}.
+ */
+public record ProductBatchRequest(
+        List<Long> ids
+) {
+}
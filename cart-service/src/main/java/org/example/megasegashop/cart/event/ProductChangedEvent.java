@@ -0,0 +1,9 @@
+package org.example.megasegashop.cart.event;
+
+/**
+ * Common view of the {@code product.updated} and {@code product.deleted} events; only the id is read.
+ */
+public record ProductChangedEvent(
+        Long productId
+) {
+}
@@ -0,0 +1,34 @@
+package org.example.megasegashop.cart.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.cart.event.ProductChangedEvent;
+import org.example.megasegashop.cart.service.ProductCache;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached product data when a product changes. The group id is unique per instance so that
+ * every instance's cache sees every event.
+ */
+@Slf4j
+@Component
+public class ProductEventListener {
+    private final ProductCache productCache;
+
+    public ProductEventListener(ProductCache productCache) {
+        this.productCache = productCache;
+    }
+
+    @KafkaListener(
+            topics = {"product.updated", "product.deleted"},
+            groupId = "cart-service-products-${random.uuid}",
+            containerFactory = "productChangedKafkaListenerContainerFactory"
+    )
+    public void handleProductChanged(ProductChangedEvent event) {
+        if (event.productId() == null) {
+            log.warn("Ignoring product event without productId");
+            return;
+        }
+        productCache.invalidate(event.productId());
+    }
+}
@@ -1,131 +1,125 @@
 package org.example.megasegashop.cart.service;
 
-import feign.FeignException;
-import org.example.megasegashop.cart.client.ProductClient;
 import org.example.megasegashop.cart.dto.AddCartItemRequest;
+import org.example.megasegashop.cart.dto.BatchCartItemsRequest;
+import org.example.megasegashop.cart.dto.CartItemOperation;
 import org.example.megasegashop.cart.dto.CartItemResponse;
+import org.example.megasegashop.cart.dto.CartOperationType;
 import org.example.megasegashop.cart.dto.CartResponse;
 import org.example.megasegashop.cart.dto.ProductResponse;
 import org.example.megasegashop.cart.dto.RemoveCartItemRequest;
-import org.example.megasegashop.cart.entity.Cart;
-import org.example.megasegashop.cart.entity.CartItem;
-import org.example.megasegashop.cart.repository.CartRepository;
+import org.example.megasegashop.cart.store.CartChange;
+import org.example.megasegashop.cart.store.CartLine;
+import org.example.megasegashop.cart.store.CartStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class CartService {
-    private final CartRepository cartRepository;
-    private final ProductClient productClient;
+    private final CartStore cartStore;
+    private final ProductCache productCache;
 
-    public CartService(CartRepository cartRepository, ProductClient productClient) {
-        this.cartRepository = cartRepository;
-        this.productClient = productClient;
+    public CartService(CartStore cartStore, ProductCache productCache) {
+        this.cartStore = cartStore;
+        this.productCache = productCache;
     }
 
-    @Transactional(readOnly = true)
     public CartResponse getCart(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> new Cart(null, userId, new ArrayList<>(), null, null));
-        return toResponse(cart);
+        return toResponse(userId, cartStore.getItems(userId));
     }
 
-    @Transactional
     public CartResponse addItem(AddCartItemRequest request) {
-        // Validate product exists and get actual price from product-service
-        ProductResponse product = fetchProduct(request.productId());
-        
-        Cart cart = cartRepository.findByUserId(request.userId())
-                .orElseGet(() -> new Cart(null, request.userId(), new ArrayList<>(), null, null));
-
-        CartItem item = cart.getItems().stream()
-                .filter(existing -> existing.getProductId().equals(request.productId()))
-                .findFirst()
-                .orElseGet(() -> {
-                    CartItem created = new CartItem();
-                    created.setProductId(request.productId());
-                    created.setCart(cart);
-                    cart.getItems().add(created);
-                    return created;
-                });
+        // Validate product exists and get its actual price (cached from product-service)
+        ProductResponse product = productCache.get(request.productId());
 
         // Use product name and price from product-service (not from client request!)
-        item.setProductName(product.name());
-        item.setUnitPrice(product.price());
-        item.setQuantity(item.getQuantity() + request.quantity());
+        List<CartLine> items = cartStore.addItem(
+                request.userId(), request.productId(), product.name(), product.price(), request.quantity());
+        return toResponse(request.userId(), items);
+    }
 
-        Cart saved = cartRepository.save(cart);
-        return toResponse(saved);
+    public CartResponse removeItem(RemoveCartItemRequest request) {
+        List<CartLine> items = cartStore.removeItem(request.userId(), request.productId());
+        if (items == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found");
+        }
+        return toResponse(request.userId(), items);
     }
 
     /**
-     * Fetches product from product-service and validates it exists.
-     * @throws ResponseStatusException if product not found or service unavailable
+     * Applies every operation in one store update. All products are looked up in a single batch
+     * first, so an unknown product or a bad quantity rejects the request before anything changes.
      */
-    private ProductResponse fetchProduct(Long productId) {
-        try {
-            ProductResponse product = productClient.getProduct(productId);
-            if (product == null) {
-                log.warn("Product service fallback returned null for productId={}", productId);
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
-                        "Product service is unavailable");
+    public CartResponse applyItems(BatchCartItemsRequest request) {
+        for (CartItemOperation operation : request.operations()) {
+            if (operation.type() == CartOperationType.ADD && (operation.quantity() == null || operation.quantity() < 1)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "ADD requires a quantity of at least 1 for product " + operation.productId());
+            }
+            if (operation.type() == CartOperationType.SET_QUANTITY && operation.quantity() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "SET_QUANTITY requires a quantity for product " + operation.productId());
             }
-            log.debug("Fetched product: id={}, name={}, price={}", 
-                    product.id(), product.name(), product.price());
-            return product;
-        } catch (FeignException.NotFound e) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                    "Product not found: " + productId);
-        } catch (FeignException e) {
-            log.error("Failed to fetch product {}: {}", productId, e.getMessage());
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
-                    "Product service is unavailable");
         }
-    }
 
-    @Transactional
-    public CartResponse removeItem(RemoveCartItemRequest request) {
-        Cart cart = cartRepository.findByUserId(request.userId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cart not found"));
-
-        boolean removed = cart.getItems().removeIf(item -> item.getProductId().equals(request.productId()));
-        if (!removed) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found");
+        List<Long> productIds = request.operations().stream()
+                .filter(CartService::needsProduct)
+                .map(CartItemOperation::productId)
+                .distinct()
+                .toList();
+        Map<Long, ProductResponse> products = productIds.isEmpty() ? Map.of() : productCache.getAll(productIds);
+        List<Long> missing = productIds.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Products not found: " + missing);
         }
 
-        Cart saved = cartRepository.save(cart);
-        return toResponse(saved);
+        List<CartChange> changes = request.operations().stream()
+                .map(operation -> {
+                    ProductResponse product = products.get(operation.productId());
+                    return switch (operation.type()) {
+                        case ADD -> CartChange.add(operation.productId(), product.name(), product.price(), operation.quantity());
+                        case SET_QUANTITY -> product != null
+                                ? CartChange.set(operation.productId(), product.name(), product.price(), operation.quantity())
+                                : CartChange.remove(operation.productId());
+                        case REMOVE -> CartChange.remove(operation.productId());
+                    };
+                })
+                .toList();
+        return toResponse(request.userId(), cartStore.apply(request.userId(), changes));
     }
 
-    @Transactional
     public void clearCart(Long userId) {
-        cartRepository.findByUserId(userId).ifPresent(cart -> {
-            cart.getItems().clear();
-            cartRepository.save(cart);
-        });
+        cartStore.clear(userId);
+    }
+
+    private static boolean needsProduct(CartItemOperation operation) {
+        return switch (operation.type()) {
+            case ADD -> true;
+            case SET_QUANTITY -> operation.quantity() > 0;
+            case REMOVE -> false;
+        };
     }
 
-    private CartResponse toResponse(Cart cart) {
-        List<CartItemResponse> items = cart.getItems().stream()
-                .map(item -> new CartItemResponse(
-                        item.getProductId(),
-                        item.getProductName(),
-                        item.getUnitPrice(),
-                        item.getQuantity(),
-                        item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()))
+    private CartResponse toResponse(Long userId, List<CartLine> lines) {
+        List<CartItemResponse> items = lines.stream()
+                .map(line -> new CartItemResponse(
+                        line.productId(),
+                        line.productName(),
+                        line.unitPrice(),
+                        line.quantity(),
+                        line.unitPrice().multiply(BigDecimal.valueOf(line.quantity()))
                 ))
                 .toList();
         BigDecimal total = items.stream()
                 .map(CartItemResponse::lineTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return new CartResponse(cart.getUserId(), items, total);
+        return new CartResponse(userId, items, total);
     }
 }
@@ -0,0 +1,79 @@
+package org.example.megasegashop.cart.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.megasegashop.cart.client.BatchingProductClient;
+import org.example.megasegashop.cart.config.ProductCacheProperties;
+import org.example.megasegashop.cart.dto.ProductResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-instance cache of product name and price. Entries are loaded on first use, dropped when
+ * product-service announces a change, and refreshed in the background once they age: callers
+ * keep getting the cached value meanwhile, and a failed refresh leaves it in place. Misses are
+ * loaded through {@link BatchingProductClient}, so concurrent misses share one request. Hit ratio
+ * and load times are published as {@code cache.*} metrics tagged {@code cache=cart.products}.
+ */
+@Component
+public class ProductCache {
+    private final BatchingProductClient productClient;
+    private final LoadingCache<Long, ProductResponse> cache;
+
+    public ProductCache(BatchingProductClient productClient, ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .expireAfterWrite(properties.getExpireAfter())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ProductResponse load(Long productId) {
+                        return productClient.getProduct(productId)
+                                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                        "Product not found: " + productId));
+                    }
+
+                    @Override
+                    public Map<Long, ProductResponse> loadAll(Set<? extends Long> productIds) {
+                        return productClient.getProducts(new ArrayList<>(productIds));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cart.products");
+    }
+
+    /**
+     * @throws ResponseStatusException 404 if the product does not exist, 503 if it is not cached
+     *                                 and product-service cannot be reached
+     */
+    public ProductResponse get(Long productId) {
+        return cache.get(productId);
+    }
+
+    /**
+     * The existing products among {@code productIds}; misses are fetched together in batch requests.
+     *
+     * @throws ResponseStatusException 503 if some are not cached and product-service cannot be reached
+     */
+    public Map<Long, ProductResponse> getAll(Collection<Long> productIds) {
+        return cache.getAll(productIds);
+    }
+
+    public void invalidate(Long productId) {
+        cache.invalidate(productId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.megasegashop.cart.store;
+
+import java.math.BigDecimal;
+
+/**
+ * One step of {@link CartStore#apply}. {@code productName} and {@code unitPrice} are only used by
+ * {@link Kind#ADD} and {@link Kind#SET}.
+ */
+public record CartChange(
+        Kind kind,
+        Long productId,
+        String productName,
+        BigDecimal unitPrice,
+        int quantity
+) {
+    public enum Kind {
+        /** Adds {@code quantity} to the line, creating it as needed. */
+        ADD,
+        /** Sets the line's quantity, creating it as needed; zero removes the line. */
+        SET,
+        /** Removes the line if present. */
+        REMOVE
+    }
+
+    public static CartChange add(Long productId, String productName, BigDecimal unitPrice, int quantity) {
+        return new CartChange(Kind.ADD, productId, productName, unitPrice, quantity);
+    }
+
+    public static CartChange set(Long productId, String productName, BigDecimal unitPrice, int quantity) {
+        return new CartChange(Kind.SET, productId, productName, unitPrice, quantity);
+    }
+
+    public static CartChange remove(Long productId) {
+        return new CartChange(Kind.REMOVE, productId, null, null, 0);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.megasegashop.cart.store;
+
+import java.math.BigDecimal;
+
+/**
+ * One product in a cart, with the name and price captured when it was last added.
+ */
+public record CartLine(
+        Long productId,
+        String productName,
+        BigDecimal unitPrice,
+        int quantity
+) {
+}
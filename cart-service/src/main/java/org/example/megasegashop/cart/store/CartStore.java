@@ -0,0 +1,34 @@
+package org.example.megasegashop.cart.store;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Storage engine for carts, selected with {@code cart.store.type}.
+ */
+public interface CartStore {
+
+    List<CartLine> getItems(Long userId);
+
+    /**
+     * Adds {@code quantity} to the product's line, creating the line and the cart as needed, and
+     * refreshes the stored name and price.
+     *
+     * @return the cart's items after the change
+     */
+    List<CartLine> addItem(Long userId, Long productId, String productName, BigDecimal unitPrice, int quantity);
+
+    /**
+     * @return the cart's items after the change, or {@code null} if the product was not in the cart
+     */
+    List<CartLine> removeItem(Long userId, Long productId);
+
+    /**
+     * Applies the changes in order as one atomic update: either all of them are visible or none.
+     *
+     * @return the cart's items after the changes
+     */
+    List<CartLine> apply(Long userId, List<CartChange> changes);
+
+    void clear(Long userId);
+}
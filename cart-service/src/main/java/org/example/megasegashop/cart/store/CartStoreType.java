@@ -0,0 +1,17 @@
+package org.example.megasegashop.cart.store;
+
+public enum CartStoreType {
+    /**
+     * Carts live in Postgres.
+     */
+    JPA,
+    /**
+     * Carts live in Redis hashes.
+     */
+    REDIS,
+    /**
+     * Switchover mode: carts live in Redis, and a cart still found only in Postgres is moved to
+     * Redis the first time it is touched.
+     */
+    DUAL
+}
@@ -0,0 +1,79 @@
+package org.example.megasegashop.cart.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Serves carts from Redis while Postgres still holds carts written before the switchover. A
+ * cart missing from Redis is looked up in Postgres, copied over and then cleared there, so it
+ * cannot reappear once its Redis copy expires.
+ */
+@Slf4j
+public class DualCartStore implements CartStore {
+    private final RedisCartStore redisCartStore;
+    private final JpaCartStore jpaCartStore;
+
+    public DualCartStore(RedisCartStore redisCartStore, JpaCartStore jpaCartStore) {
+        this.redisCartStore = redisCartStore;
+        this.jpaCartStore = jpaCartStore;
+    }
+
+    @Override
+    public List<CartLine> getItems(Long userId) {
+        List<CartLine> items = redisCartStore.getItems(userId);
+        if (!items.isEmpty()) {
+            return items;
+        }
+        return migrate(userId) ? redisCartStore.getItems(userId) : items;
+    }
+
+    @Override
+    public List<CartLine> addItem(Long userId, Long productId, String productName, BigDecimal unitPrice, int quantity) {
+        migrateIfAbsent(userId);
+        return redisCartStore.addItem(userId, productId, productName, unitPrice, quantity);
+    }
+
+    @Override
+    public List<CartLine> removeItem(Long userId, Long productId) {
+        migrateIfAbsent(userId);
+        return redisCartStore.removeItem(userId, productId);
+    }
+
+    @Override
+    public List<CartLine> apply(Long userId, List<CartChange> changes) {
+        migrateIfAbsent(userId);
+        return redisCartStore.apply(userId, changes);
+    }
+
+    @Override
+    public void clear(Long userId) {
+        redisCartStore.clear(userId);
+        jpaCartStore.clear(userId);
+    }
+
+    /**
+     * Writes only need to know whether Redis has the cart, so this checks the key instead of
+     * reading every line.
+     */
+    private void migrateIfAbsent(Long userId) {
+        if (!redisCartStore.exists(userId)) {
+            migrate(userId);
+        }
+    }
+
+    /**
+     * @return whether a cart was found in Postgres and moved
+     */
+    private boolean migrate(Long userId) {
+        List<CartLine> legacy = jpaCartStore.getItems(userId);
+        if (legacy.isEmpty()) {
+            return false;
+        }
+        redisCartStore.importItems(userId, legacy);
+        jpaCartStore.clear(userId);
+        log.debug("Moved cart of userId={} with {} items to Redis", userId, legacy.size());
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.megasegashop.cart.store;
+
+import org.example.megasegashop.cart.entity.Cart;
+import org.example.megasegashop.cart.entity.CartItem;
+import org.example.megasegashop.cart.repository.CartRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carts as {@code carts} / {@code cart_items} rows. Transactions are demarcated programmatically
+ * because this store is not always a bean of its own: in switchover mode it sits behind
+ * {@link DualCartStore}.
+ */
+public class JpaCartStore implements CartStore {
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public JpaCartStore(CartRepository cartRepository, PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public List<CartLine> getItems(Long userId) {
+        return readOnlyTransactionTemplate.execute(status -> cartRepository.findByUserId(userId)
+                .map(JpaCartStore::toLines)
+                .orElseGet(List::of));
+    }
+
+    @Override
+    public List<CartLine> addItem(Long userId, Long productId, String productName, BigDecimal unitPrice, int quantity) {
+        return transactionTemplate.execute(status -> add(userId, productId, productName, unitPrice, quantity));
+    }
+
+    @Override
+    public List<CartLine> removeItem(Long userId, Long productId) {
+        return transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findByUserId(userId).orElse(null);
+            if (cart == null || !cart.getItems().removeIf(item -> item.getProductId().equals(productId))) {
+                return null;
+            }
+            return toLines(cartRepository.save(cart));
+        });
+    }
+
+    @Override
+    public List<CartLine> apply(Long userId, List<CartChange> changes) {
+        return transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findByUserId(userId)
+                    .orElseGet(() -> new Cart(null, userId, new ArrayList<>(), null, null));
+            for (CartChange change : changes) {
+                switch (change.kind()) {
+                    case ADD -> {
+                        CartItem item = line(cart, change);
+                        item.setQuantity(item.getQuantity() + change.quantity());
+                    }
+                    case SET -> {
+                        if (change.quantity() <= 0) {
+                            removeLine(cart, change.productId());
+                        } else {
+                            line(cart, change).setQuantity(change.quantity());
+                        }
+                    }
+                    case REMOVE -> removeLine(cart, change.productId());
+                }
+            }
+            if (cart.getId() == null && cart.getItems().isEmpty()) {
+                return List.of();
+            }
+            return toLines(cartRepository.save(cart));
+        });
+    }
+
+    @Override
+    public void clear(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> cartRepository.findByUserId(userId).ifPresent(cart -> {
+            cart.getItems().clear();
+            cartRepository.save(cart);
+        }));
+    }
+
+    private List<CartLine> add(Long userId, Long productId, String productName, BigDecimal unitPrice, int quantity) {
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseGet(() -> new Cart(null, userId, new ArrayList<>(), null, null));
+
+        CartItem item = line(cart, CartChange.add(productId, productName, unitPrice, quantity));
+        item.setQuantity(item.getQuantity() + quantity);
+
+        return toLines(cartRepository.save(cart));
+    }
+
+    /**
+     * The product's line with the change's name and price, created with quantity zero if absent.
+     */
+    private static CartItem line(Cart cart, CartChange change) {
+        CartItem item = cart.getItems().stream()
+                .filter(existing -> existing.getProductId().equals(change.productId()))
+                .findFirst()
+                .orElseGet(() -> {
+                    CartItem created = new CartItem();
+                    created.setProductId(change.productId());
+                    created.setCart(cart);
+                    cart.getItems().add(created);
+                    return created;
+                });
+
+        item.setProductName(change.productName());
+        item.setUnitPrice(change.unitPrice());
+        return item;
+    }
+
+    private static void removeLine(Cart cart, Long productId) {
+        cart.getItems().removeIf(item -> item.getProductId().equals(productId));
+    }
+
+    private static List<CartLine> toLines(Cart cart) {
+        return cart.getItems().stream()
+                .map(item -> new CartLine(item.getProductId(), item.getProductName(), item.getUnitPrice(), item.getQuantity()))
+                .toList();
+    }
+}
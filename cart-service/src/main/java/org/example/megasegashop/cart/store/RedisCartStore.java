@@ -0,0 +1,193 @@
+package org.example.megasegashop.cart.store;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Redis hash per cart. Each product has three fields: {@code q:<id>} for the quantity, updated
+ * with {@code HINCRBY}, and {@code n:<id>} / {@code p:<id>} for its name and price. Every write
+ * is a single script that also resets the cart's TTL and returns the whole cart, so an add costs
+ * one round trip.
+ */
+public class RedisCartStore implements CartStore {
+    private static final String QUANTITY = "q:";
+    private static final String NAME = "n:";
+    private static final String PRICE = "p:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD_SCRIPT = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'n:' .. ARGV[1], ARGV[2], 'p:' .. ARGV[1], ARGV[3])
+            redis.call('HINCRBY', KEYS[1], 'q:' .. ARGV[1], ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REMOVE_SCRIPT = RedisScript.of("""
+            if redis.call('HDEL', KEYS[1], 'q:' .. ARGV[1], 'n:' .. ARGV[1], 'p:' .. ARGV[1]) == 0 then
+                return false
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    /**
+     * ARGV is the TTL followed by one (kind, product id, name, price, quantity) group per change.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> APPLY_SCRIPT = RedisScript.of("""
+            for i = 2, #ARGV, 5 do
+                local kind, id, quantity = ARGV[i], ARGV[i + 1], ARGV[i + 4]
+                if kind == 'REMOVE' or (kind == 'SET' and tonumber(quantity) <= 0) then
+                    redis.call('HDEL', KEYS[1], 'q:' .. id, 'n:' .. id, 'p:' .. id)
+                else
+                    redis.call('HSET', KEYS[1], 'n:' .. id, ARGV[i + 2], 'p:' .. id, ARGV[i + 3])
+                    if kind == 'SET' then
+                        redis.call('HSET', KEYS[1], 'q:' .. id, quantity)
+                    else
+                        redis.call('HINCRBY', KEYS[1], 'q:' .. id, quantity)
+                    end
+                end
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    /**
+     * Copies fields without overwriting any that a concurrent write has already set.
+     */
+    private static final RedisScript<Long> IMPORT_SCRIPT = RedisScript.of("""
+            for i = 1, #ARGV - 1, 2 do
+                redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[#ARGV])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final Duration ttl;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate, String keyPrefix, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public List<CartLine> getItems(Long userId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key(userId));
+        Map<String, String> values = new HashMap<>();
+        fields.forEach((field, value) -> values.put((String) field, (String) value));
+        return toLines(values);
+    }
+
+    @Override
+    public List<CartLine> addItem(Long userId, Long productId, String productName, BigDecimal unitPrice, int quantity) {
+        List<?> reply = redisTemplate.execute(ADD_SCRIPT, List.of(key(userId)),
+                productId.toString(),
+                productName != null ? productName : "",
+                unitPrice.toPlainString(),
+                Integer.toString(quantity),
+                Long.toString(ttl.toMillis()));
+        return toLines(reply);
+    }
+
+    @Override
+    public List<CartLine> removeItem(Long userId, Long productId) {
+        List<?> reply = redisTemplate.execute(REMOVE_SCRIPT, List.of(key(userId)),
+                productId.toString(),
+                Long.toString(ttl.toMillis()));
+        return reply != null ? toLines(reply) : null;
+    }
+
+    @Override
+    public List<CartLine> apply(Long userId, List<CartChange> changes) {
+        List<String> args = new ArrayList<>(changes.size() * 5 + 1);
+        args.add(Long.toString(ttl.toMillis()));
+        for (CartChange change : changes) {
+            args.add(change.kind().name());
+            args.add(change.productId().toString());
+            args.add(change.productName() != null ? change.productName() : "");
+            args.add(change.unitPrice() != null ? change.unitPrice().toPlainString() : "0");
+            args.add(Integer.toString(change.quantity()));
+        }
+        List<?> reply = redisTemplate.execute(APPLY_SCRIPT, List.of(key(userId)), args.toArray());
+        return toLines(reply);
+    }
+
+    @Override
+    public void clear(Long userId) {
+        redisTemplate.delete(key(userId));
+    }
+
+    /**
+     * Whether Redis holds a cart for the user, without reading its lines.
+     */
+    boolean exists(Long userId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key(userId)));
+    }
+
+    /**
+     * Writes lines read from another store, keeping anything already present in Redis.
+     */
+    void importItems(Long userId, List<CartLine> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(lines.size() * 6 + 1);
+        for (CartLine line : lines) {
+            String productId = line.productId().toString();
+            args.add(QUANTITY + productId);
+            args.add(Integer.toString(line.quantity()));
+            args.add(NAME + productId);
+            args.add(line.productName() != null ? line.productName() : "");
+            args.add(PRICE + productId);
+            args.add(line.unitPrice().toPlainString());
+        }
+        args.add(Long.toString(ttl.toMillis()));
+        redisTemplate.execute(IMPORT_SCRIPT, List.of(key(userId)), args.toArray());
+    }
+
+    private String key(Long userId) {
+        return keyPrefix + userId;
+    }
+
+    private static List<CartLine> toLines(List<?> flatFields) {
+        Map<String, String> values = new HashMap<>();
+        if (flatFields != null) {
+            for (int i = 0; i + 1 < flatFields.size(); i += 2) {
+                values.put(String.valueOf(flatFields.get(i)), String.valueOf(flatFields.get(i + 1)));
+            }
+        }
+        return toLines(values);
+    }
+
+    private static List<CartLine> toLines(Map<String, String> values) {
+        List<CartLine> lines = new ArrayList<>();
+        values.forEach((field, quantity) -> {
+            if (!field.startsWith(QUANTITY)) {
+                return;
+            }
+            String productId = field.substring(QUANTITY.length());
+            String name = values.get(NAME + productId);
+            String price = values.get(PRICE + productId);
+            lines.add(new CartLine(
+                    Long.valueOf(productId),
+                    name != null && !name.isEmpty() ? name : null,
+                    price != null ? new BigDecimal(price) : BigDecimal.ZERO,
+                    Integer.parseInt(quantity)
+            ));
+        });
+        lines.sort(Comparator.comparing(CartLine::productId));
+        return lines;
+    }
+}
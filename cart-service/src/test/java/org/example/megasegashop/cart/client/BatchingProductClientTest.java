@@ -0,0 +1,104 @@
+package org.example.megasegashop.cart.client;
+
+import org.example.megasegashop.cart.config.ProductBatchProperties;
+import org.example.megasegashop.cart.dto.ProductBatchRequest;
+import org.example.megasegashop.cart.dto.ProductResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BatchingProductClientTest {
+
+    private ProductClient productClient;
+    private ProductBatchProperties properties;
+    private BatchingProductClient batchingProductClient;
+
+    @BeforeEach
+    void setUp() {
+        productClient = mock(ProductClient.class);
+        when(productClient.getProducts(any())).thenAnswer(invocation -> {
+            ProductBatchRequest request = invocation.getArgument(0);
+            // Odd ids do not exist
+            return request.ids().stream().filter(id -> id % 2 == 0).map(BatchingProductClientTest::product).toList();
+        });
+        properties = new ProductBatchProperties();
+        properties.setWindow(Duration.ofMillis(200));
+        properties.setMaxBatchSize(4);
+        batchingProductClient = new BatchingProductClient(productClient, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchingProductClient.shutdown();
+    }
+
+    @Test
+    void getProduct_concurrentLookupsShareOneRequest() {
+        List<Optional<ProductResponse>> results = lookUpConcurrently(List.of(2L, 3L, 2L));
+
+        assertEquals(Optional.of(product(2L)), results.get(0));
+        assertEquals(Optional.empty(), results.get(1));
+        assertEquals(Optional.of(product(2L)), results.get(2));
+        verify(productClient, times(1)).getProducts(any());
+    }
+
+    @Test
+    void getProduct_fullBatchIsSentWithoutWaitingForWindow() {
+        properties.setWindow(Duration.ofMinutes(1));
+
+        List<Optional<ProductResponse>> results = lookUpConcurrently(List.of(2L, 4L, 6L, 8L));
+
+        assertTrue(results.stream().allMatch(Optional::isPresent));
+        verify(productClient, times(1)).getProducts(any());
+    }
+
+    @Test
+    void getProduct_fallbackFailsEveryLookupInTheBatch() {
+        doReturn(null).when(productClient).getProducts(any());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> batchingProductClient.getProduct(2L));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    @Test
+    void getProducts_splitsIntoBatchesOfMaxSize() {
+        var found = batchingProductClient.getProducts(List.of(2L, 4L, 6L, 8L, 10L, 11L));
+
+        assertEquals(5, found.size());
+        verify(productClient).getProducts(new ProductBatchRequest(List.of(2L, 4L, 6L, 8L)));
+        verify(productClient).getProducts(new ProductBatchRequest(List.of(10L, 11L)));
+    }
+
+    private List<Optional<ProductResponse>> lookUpConcurrently(List<Long> productIds) {
+        ExecutorService callers = Executors.newFixedThreadPool(productIds.size());
+        try {
+            List<CompletableFuture<Optional<ProductResponse>>> futures = IntStream.range(0, productIds.size())
+                    .mapToObj(i -> CompletableFuture.supplyAsync(
+                            () -> batchingProductClient.getProduct(productIds.get(i)), callers))
+                    .toList();
+            return futures.stream().map(CompletableFuture::join).toList();
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, "Product " + id, "Brand", "Desc", new BigDecimal("10.00"), "Cat");
+    }
+}
@@ -2,18 +2,27 @@ package org.example.megasegashop.cart.service;
 
 import org.example.megasegashop.cart.client.ProductClient;
 import org.example.megasegashop.cart.dto.AddCartItemRequest;
+import org.example.megasegashop.cart.dto.BatchCartItemsRequest;
+import org.example.megasegashop.cart.dto.CartItemOperation;
+import org.example.megasegashop.cart.dto.CartOperationType;
 import org.example.megasegashop.cart.dto.CartResponse;
+import org.example.megasegashop.cart.dto.ProductBatchRequest;
 import org.example.megasegashop.cart.dto.ProductResponse;
 import org.example.megasegashop.cart.entity.Cart;
+import org.example.megasegashop.cart.event.ProductChangedEvent;
+import org.example.megasegashop.cart.listener.ProductEventListener;
 import org.example.megasegashop.cart.repository.CartRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,12 +36,19 @@ class CartServiceTest {
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductEventListener productEventListener;
+
     @MockBean
     private ProductClient productClient;
 
     @BeforeEach
     void setUp() {
         cartRepository.deleteAll();
+        productCache.invalidateAll();
     }
 
     @Test
@@ -40,8 +56,8 @@ class CartServiceTest {
         // Given
         Long userId = 1L;
         Long productId = 100L;
-        when(productClient.getProduct(productId))
-                .thenReturn(new ProductResponse(productId, "Test Product", "Brand", "Desc", new BigDecimal("29.99"), "Category"));
+        when(productClient.getProducts(any()))
+                .thenReturn(List.of(new ProductResponse(productId, "Test Product", "Brand", "Desc", new BigDecimal("29.99"), "Category")));
 
         AddCartItemRequest request = new AddCartItemRequest(userId, productId, 2);
 
@@ -56,7 +72,7 @@ class CartServiceTest {
         assertEquals(2, response.items().get(0).quantity());
         assertEquals(new BigDecimal("29.99"), response.items().get(0).unitPrice());
 
-        verify(productClient).getProduct(productId);
+        verify(productClient).getProducts(new ProductBatchRequest(List.of(productId)));
     }
 
     @Test
@@ -66,8 +82,8 @@ class CartServiceTest {
         Cart cart = new Cart(null, userId, new ArrayList<>(), null, null);
         cartRepository.save(cart);
 
-        when(productClient.getProduct(anyLong()))
-                .thenReturn(new ProductResponse(1L, "Product", "Brand", "Desc", new BigDecimal("10.00"), "Cat"));
+        when(productClient.getProducts(any()))
+                .thenReturn(List.of(new ProductResponse(1L, "Product", "Brand", "Desc", new BigDecimal("10.00"), "Cat")));
 
         cartService.addItem(new AddCartItemRequest(userId, 1L, 1));
         CartResponse beforeClear = cartService.getCart(userId);
@@ -80,4 +96,61 @@ class CartServiceTest {
         CartResponse afterClear = cartService.getCart(userId);
         assertTrue(afterClear.items().isEmpty());
     }
+
+    @Test
+    void addItem_reusesCachedProductUntilProductChanges() {
+        Long productId = 300L;
+        when(productClient.getProducts(any()))
+                .thenReturn(List.of(new ProductResponse(productId, "Console", "Brand", "Desc", new BigDecimal("499.00"), "Cat")))
+                .thenReturn(List.of(new ProductResponse(productId, "Console", "Brand", "Desc", new BigDecimal("449.00"), "Cat")));
+
+        cartService.addItem(new AddCartItemRequest(3L, productId, 1));
+        cartService.addItem(new AddCartItemRequest(4L, productId, 1));
+        verify(productClient, times(1)).getProducts(any());
+
+        productEventListener.handleProductChanged(new ProductChangedEvent(productId));
+        CartResponse response = cartService.addItem(new AddCartItemRequest(5L, productId, 1));
+
+        verify(productClient, times(2)).getProducts(any());
+        assertEquals(new BigDecimal("449.00"), response.items().get(0).unitPrice());
+    }
+
+    @Test
+    void applyItems_appliesAllOperationsWithOneProductLookup() {
+        Long userId = 6L;
+        when(productClient.getProducts(any())).thenReturn(List.of(
+                new ProductResponse(1L, "Pad", "Brand", "Desc", new BigDecimal("20.00"), "Cat"),
+                new ProductResponse(2L, "Game", "Brand", "Desc", new BigDecimal("60.00"), "Cat")));
+        cartService.addItem(new AddCartItemRequest(userId, 1L, 1));
+        productCache.invalidateAll();
+        clearInvocations(productClient);
+
+        CartResponse response = cartService.applyItems(new BatchCartItemsRequest(userId, List.of(
+                new CartItemOperation(CartOperationType.SET_QUANTITY, 1L, 3),
+                new CartItemOperation(CartOperationType.ADD, 2L, 1),
+                new CartItemOperation(CartOperationType.ADD, 2L, 1),
+                new CartItemOperation(CartOperationType.REMOVE, 99L, null))));
+
+        assertEquals(2, response.items().size());
+        assertEquals(3, response.items().get(0).quantity());
+        assertEquals(2, response.items().get(1).quantity());
+        assertEquals(new BigDecimal("180.00"), response.totalAmount());
+        verify(productClient, times(1)).getProducts(any());
+    }
+
+    @Test
+    void applyItems_unknownProductLeavesCartUnchanged() {
+        Long userId = 7L;
+        when(productClient.getProducts(any())).thenReturn(List.of(
+                new ProductResponse(1L, "Pad", "Brand", "Desc", new BigDecimal("20.00"), "Cat")));
+        cartService.addItem(new AddCartItemRequest(userId, 1L, 1));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> cartService.applyItems(new BatchCartItemsRequest(userId, List.of(
+                        new CartItemOperation(CartOperationType.SET_QUANTITY, 1L, 0),
+                        new CartItemOperation(CartOperationType.ADD, 404L, 1)))));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals(1, cartService.getCart(userId).items().get(0).quantity());
+    }
 }
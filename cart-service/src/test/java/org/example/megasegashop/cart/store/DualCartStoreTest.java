@@ -0,0 +1,74 @@
+package org.example.megasegashop.cart.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DualCartStoreTest {
+
+    private static final CartLine LEGACY_LINE = new CartLine(7L, "Console", new BigDecimal("499.00"), 1);
+
+    private RedisCartStore redisCartStore;
+    private JpaCartStore jpaCartStore;
+    private DualCartStore dualCartStore;
+
+    @BeforeEach
+    void setUp() {
+        redisCartStore = mock(RedisCartStore.class);
+        jpaCartStore = mock(JpaCartStore.class);
+        dualCartStore = new DualCartStore(redisCartStore, jpaCartStore);
+    }
+
+    @Test
+    void getItems_movesLegacyCartToRedisOnce() {
+        when(redisCartStore.getItems(1L)).thenReturn(List.of(), List.of(LEGACY_LINE));
+        when(jpaCartStore.getItems(1L)).thenReturn(List.of(LEGACY_LINE));
+
+        assertEquals(List.of(LEGACY_LINE), dualCartStore.getItems(1L));
+
+        verify(redisCartStore).importItems(1L, List.of(LEGACY_LINE));
+        verify(jpaCartStore).clear(1L);
+    }
+
+    @Test
+    void addItem_migratesBeforeWritingToRedis() {
+        when(redisCartStore.exists(1L)).thenReturn(false);
+        when(jpaCartStore.getItems(1L)).thenReturn(List.of(LEGACY_LINE));
+
+        dualCartStore.addItem(1L, 8L, "Controller", new BigDecimal("69.00"), 2);
+
+        var order = inOrder(redisCartStore, jpaCartStore);
+        order.verify(redisCartStore).importItems(1L, List.of(LEGACY_LINE));
+        order.verify(jpaCartStore).clear(1L);
+        order.verify(redisCartStore).addItem(1L, 8L, "Controller", new BigDecimal("69.00"), 2);
+    }
+
+    @Test
+    void cartAlreadyInRedis_neverTouchesPostgres() {
+        when(redisCartStore.getItems(1L)).thenReturn(List.of(LEGACY_LINE));
+        when(redisCartStore.exists(1L)).thenReturn(true);
+
+        dualCartStore.getItems(1L);
+        dualCartStore.removeItem(1L, 7L);
+
+        verify(jpaCartStore, never()).getItems(anyLong());
+        verify(redisCartStore, never()).importItems(anyLong(), any());
+    }
+
+    @Test
+    void writes_checkForTheCartWithoutReadingIt() {
+        when(redisCartStore.exists(1L)).thenReturn(true);
+
+        dualCartStore.addItem(1L, 8L, "Controller", new BigDecimal("69.00"), 2);
+
+        verify(redisCartStore, never()).getItems(anyLong());
+        verify(jpaCartStore, never()).getItems(anyLong());
+    }
+}
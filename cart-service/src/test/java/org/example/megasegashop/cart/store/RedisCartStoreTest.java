@@ -0,0 +1,126 @@
+package org.example.megasegashop.cart.store;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Lua scripts against a real Redis; skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisCartStoreTest {
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisCartStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(redisTemplate.keys("cart:*"));
+        store = new RedisCartStore(redisTemplate, "cart:", TTL);
+    }
+
+    @Test
+    void addItem_incrementsQuantityAndRefreshesNameAndPrice() {
+        store.addItem(1L, 7L, "Console", new BigDecimal("499.00"), 1);
+        List<CartLine> lines = store.addItem(1L, 7L, "Console Pro", new BigDecimal("549.00"), 2);
+
+        assertEquals(List.of(new CartLine(7L, "Console Pro", new BigDecimal("549.00"), 3)), lines);
+        assertEquals(lines, store.getItems(1L));
+        assertTtlSet(1L);
+    }
+
+    @Test
+    void removeItem_dropsLineAndReportsMissingProduct() {
+        store.addItem(1L, 7L, "Console", new BigDecimal("499.00"), 1);
+        store.addItem(1L, 8L, "Controller", new BigDecimal("69.00"), 2);
+
+        assertEquals(List.of(new CartLine(8L, "Controller", new BigDecimal("69.00"), 2)), store.removeItem(1L, 7L));
+        assertNull(store.removeItem(1L, 7L));
+    }
+
+    @Test
+    void apply_appliesChangesInOrder() {
+        store.addItem(1L, 7L, "Console", new BigDecimal("499.00"), 1);
+        store.addItem(1L, 9L, "Cable", new BigDecimal("9.00"), 1);
+
+        List<CartLine> lines = store.apply(1L, List.of(
+                CartChange.add(7L, "Console", new BigDecimal("499.00"), 2),
+                CartChange.set(8L, null, new BigDecimal("69.00"), 4),
+                CartChange.set(9L, "Cable", new BigDecimal("9.00"), 0),
+                CartChange.remove(10L)
+        ));
+
+        assertEquals(List.of(
+                new CartLine(7L, "Console", new BigDecimal("499.00"), 3),
+                new CartLine(8L, null, new BigDecimal("69.00"), 4)
+        ), lines);
+        assertEquals(lines, store.getItems(1L));
+        assertTtlSet(1L);
+    }
+
+    @Test
+    void importItems_keepsFieldsAlreadyWritten() {
+        store.addItem(1L, 7L, "Console", new BigDecimal("499.00"), 5);
+
+        store.importItems(1L, List.of(
+                new CartLine(7L, "Old console", new BigDecimal("450.00"), 1),
+                new CartLine(8L, "Controller", new BigDecimal("69.00"), 2)
+        ));
+
+        assertEquals(List.of(
+                new CartLine(7L, "Console", new BigDecimal("499.00"), 5),
+                new CartLine(8L, "Controller", new BigDecimal("69.00"), 2)
+        ), store.getItems(1L));
+        assertTtlSet(1L);
+    }
+
+    @Test
+    void clear_deletesCart() {
+        store.addItem(1L, 7L, "Console", new BigDecimal("499.00"), 1);
+
+        store.clear(1L);
+
+        assertTrue(store.getItems(1L).isEmpty());
+        assertFalse(store.exists(1L));
+    }
+
+    private static void assertTtlSet(Long userId) {
+        Long ttl = redisTemplate.getExpire("cart:" + userId, TimeUnit.MILLISECONDS);
+        assertNotNull(ttl);
+        assertTrue(ttl > 0 && ttl <= TTL.toMillis(), "ttl was " + ttl);
+    }
+}
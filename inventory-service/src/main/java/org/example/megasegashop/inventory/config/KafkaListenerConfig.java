@@ -2,6 +2,7 @@ package org.example.megasegashop.inventory.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.megasegashop.inventory.event.OrderPlacedEvent;
 import org.example.megasegashop.inventory.event.ProductDeletedEvent;
 import org.example.megasegashop.inventory.event.ProductUpdatedEvent;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -61,4 +62,26 @@ public class KafkaListenerConfig {
         factory.setConsumerFactory(consumerFactory);
         return factory;
     }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderPlacedEvent>
+            orderPlacedKafkaListenerContainerFactory(
+                    KafkaProperties kafkaProperties,
+                    ObjectMapper objectMapper
+            ) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        // Avoid double-configuring JsonDeserializer via properties and setters.
+        props.keySet().removeIf(key -> key.startsWith("spring.json."));
+        // order-service publishes plain JSON without type headers
+        JsonDeserializer<OrderPlacedEvent> deserializer =
+                new JsonDeserializer<>(OrderPlacedEvent.class, objectMapper, false);
+
+        DefaultKafkaConsumerFactory<String, OrderPlacedEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderPlacedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        return factory;
+    }
 }
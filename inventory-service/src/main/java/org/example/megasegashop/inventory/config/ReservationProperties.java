@@ -0,0 +1,47 @@
+package org.example.megasegashop.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "inventory.reservations")
+public class ReservationProperties {
+    private Duration ttl = Duration.ofMinutes(15);
+    private boolean sweeperEnabled = true;
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    private int sweepBatchSize = 100;
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public boolean isSweeperEnabled() {
+        return sweeperEnabled;
+    }
+
+    public void setSweeperEnabled(boolean sweeperEnabled) {
+        this.sweeperEnabled = sweeperEnabled;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public int getSweepBatchSize() {
+        return sweepBatchSize;
+    }
+
+    public void setSweepBatchSize(int sweepBatchSize) {
+        this.sweepBatchSize = sweepBatchSize;
+    }
+}
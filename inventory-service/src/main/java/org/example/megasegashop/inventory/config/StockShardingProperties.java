@@ -0,0 +1,47 @@
+package org.example.megasegashop.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "inventory.sharding")
+public class StockShardingProperties {
+    private int defaultBuckets = 8;
+    private int maxBuckets = 64;
+    private boolean rebalanceEnabled = true;
+    private Duration rebalanceInterval = Duration.ofSeconds(30);
+
+    public int getDefaultBuckets() {
+        return defaultBuckets;
+    }
+
+    public void setDefaultBuckets(int defaultBuckets) {
+        this.defaultBuckets = defaultBuckets;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public boolean isRebalanceEnabled() {
+        return rebalanceEnabled;
+    }
+
+    public void setRebalanceEnabled(boolean rebalanceEnabled) {
+        this.rebalanceEnabled = rebalanceEnabled;
+    }
+
+    public Duration getRebalanceInterval() {
+        return rebalanceInterval;
+    }
+
+    public void setRebalanceInterval(Duration rebalanceInterval) {
+        this.rebalanceInterval = rebalanceInterval;
+    }
+}
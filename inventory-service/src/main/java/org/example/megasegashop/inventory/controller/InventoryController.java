@@ -5,22 +5,30 @@ import org.example.megasegashop.shared.dto.InventoryReserveRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
 import org.example.megasegashop.inventory.entity.InventoryItem;
 import org.example.megasegashop.inventory.service.InventoryService;
+import org.example.megasegashop.inventory.service.StockBucketService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.example.megasegashop.shared.web.AdminOnly;
 
 @RestController
 @RequestMapping("/inventory")
 public class InventoryController {
+    private static final String RESERVATION_ID_HEADER = "X-Reservation-Id";
+
     private final InventoryService inventoryService;
+    private final StockBucketService stockBucketService;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, StockBucketService stockBucketService) {
         this.inventoryService = inventoryService;
+        this.stockBucketService = stockBucketService;
     }
 
     @GetMapping("/{productId}")
@@ -34,17 +42,45 @@ public class InventoryController {
 
     @AdminOnly
     @PostMapping("/reserve")
-    public InventoryReserveResponse reserve(@Valid @RequestBody InventoryReserveRequest request) {
-        return inventoryService.reserveItems(request);
+    public InventoryReserveResponse reserve(
+            @Valid @RequestBody InventoryReserveRequest request,
+            @RequestHeader(value = RESERVATION_ID_HEADER, required = false) String reservationId
+    ) {
+        return inventoryService.reserveItems(request, reservationId);
     }
 
     /**
      * Compensating endpoint: releases previously reserved items.
      * Used by Saga pattern when order creation fails after reservation.
+     * With a reservation id the stored reservation is released and the body quantities are ignored.
      */
     @AdminOnly
     @PostMapping("/release")
-    public InventoryReserveResponse release(@Valid @RequestBody InventoryReserveRequest request) {
-        return inventoryService.releaseItems(request);
+    public InventoryReserveResponse release(
+            @Valid @RequestBody InventoryReserveRequest request,
+            @RequestHeader(value = RESERVATION_ID_HEADER, required = false) String reservationId
+    ) {
+        return inventoryService.releaseItems(request, reservationId);
+    }
+
+    @AdminOnly
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public InventoryReserveResponse confirm(@PathVariable String reservationId) {
+        return inventoryService.confirmReservation(reservationId);
+    }
+
+    /**
+     * Splits a hot product's stock across buckets so reservations stop contending on one row.
+     */
+    @AdminOnly
+    @PostMapping("/{productId}/buckets")
+    public InventoryItem shard(@PathVariable Long productId, @RequestParam(required = false) Integer count) {
+        return stockBucketService.shard(productId, count);
+    }
+
+    @AdminOnly
+    @DeleteMapping("/{productId}/buckets")
+    public InventoryItem unshard(@PathVariable Long productId) {
+        return stockBucketService.unshard(productId);
     }
 }
@@ -0,0 +1,7 @@
+package org.example.megasegashop.inventory.entity;
+
+public enum ReservationStatus {
+    RESERVED,
+    CONFIRMED,
+    RELEASED
+}
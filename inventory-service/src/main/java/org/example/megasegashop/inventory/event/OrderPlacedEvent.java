@@ -0,0 +1,7 @@
+package org.example.megasegashop.inventory.event;
+
+public record OrderPlacedEvent(
+        Long orderId,
+        String reservationId
+) {
+}
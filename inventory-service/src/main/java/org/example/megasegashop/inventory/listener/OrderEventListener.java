@@ -0,0 +1,40 @@
+package org.example.megasegashop.inventory.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.inventory.event.OrderPlacedEvent;
+import org.example.megasegashop.inventory.service.InventoryService;
+import org.example.megasegashop.shared.dto.InventoryReserveResponse;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confirms the reservation of every placed order. order-service also confirms over HTTP right
+ * after saving the order, but that call is best effort; order.placed is written through its
+ * outbox in the same transaction as the order, so this confirmation is never lost. It must
+ * arrive within {@code inventory.reservations.ttl}, otherwise the sweeper releases the stock.
+ */
+@Slf4j
+@Component
+public class OrderEventListener {
+    private final InventoryService inventoryService;
+
+    public OrderEventListener(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @KafkaListener(
+            topics = "order.placed",
+            groupId = "inventory-service",
+            containerFactory = "orderPlacedKafkaListenerContainerFactory"
+    )
+    public void handleOrderPlaced(OrderPlacedEvent event) {
+        if (event.reservationId() == null) {
+            return;
+        }
+        InventoryReserveResponse response = inventoryService.confirmReservation(event.reservationId());
+        if (!response.success()) {
+            log.error("Failed to confirm reservation {} of placed order {}: {}",
+                    event.reservationId(), event.orderId(), response.message());
+        }
+    }
+}
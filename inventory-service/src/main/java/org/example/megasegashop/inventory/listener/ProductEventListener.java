@@ -5,18 +5,30 @@ import org.example.megasegashop.inventory.event.ProductDeletedEvent;
 import org.example.megasegashop.inventory.event.ProductUpdatedEvent;
 import org.example.megasegashop.inventory.entity.InventoryItem;
 import org.example.megasegashop.inventory.repository.InventoryRepository;
+import org.example.megasegashop.inventory.repository.StockBucketRepository;
+import org.example.megasegashop.inventory.service.StockBucketService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Component
 public class ProductEventListener {
     private final InventoryRepository inventoryRepository;
+    private final StockBucketRepository stockBucketRepository;
+    private final StockBucketService stockBucketService;
 
-    public ProductEventListener(InventoryRepository inventoryRepository) {
+    public ProductEventListener(
+            InventoryRepository inventoryRepository,
+            StockBucketRepository stockBucketRepository,
+            StockBucketService stockBucketService
+    ) {
         this.inventoryRepository = inventoryRepository;
+        this.stockBucketRepository = stockBucketRepository;
+        this.stockBucketService = stockBucketService;
     }
 
     @KafkaListener(topics = "product.created", groupId = "inventory-service")
@@ -57,6 +69,13 @@ public class ProductEventListener {
         InventoryItem item = inventoryRepository.findWithLockByProductId(event.productId())
                 .orElseGet(() -> new InventoryItem(null, event.productId(), 0, 0));
 
+        if (item.getId() != null && !stockBucketService.bucketCounts(List.of(event.productId())).isEmpty()) {
+            stockBucketService.adjust(event.productId(), event.inventoryDelta());
+            log.info("Inventory delta {} spread across stock buckets for productId={}",
+                    event.inventoryDelta(), event.productId());
+            return;
+        }
+
         int updatedQuantity = item.getAvailableQuantity() + event.inventoryDelta();
         if (updatedQuantity < 0) {
             log.warn("Inventory delta would make quantity negative for productId={}, clamping to 0",
@@ -88,6 +107,7 @@ public class ProductEventListener {
             return;
         }
 
+        stockBucketRepository.deleteByProductId(event.productId());
         inventoryRepository.deleteByProductId(event.productId());
         log.info("Inventory item deleted for productId={}", event.productId());
     }
@@ -4,7 +4,11 @@ import jakarta.persistence.LockModeType;
 import org.example.megasegashop.inventory.entity.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<InventoryItem, Long> {
@@ -13,5 +17,13 @@ public interface InventoryRepository extends JpaRepository<InventoryItem, Long>
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<InventoryItem> findWithLockByProductId(Long productId);
 
+    /**
+     * Locks all requested rows in one statement, always in product id order,
+     * so overlapping multi-item reservations cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<InventoryItem> findAllWithLockByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     void deleteByProductId(Long productId);
 }
@@ -0,0 +1,44 @@
+package org.example.megasegashop.inventory.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.megasegashop.inventory.entity.Reservation;
+import org.example.megasegashop.inventory.entity.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationRepository extends JpaRepository<Reservation, String> {
+    /**
+     * Inserts a reservation without lines. Fails with a constraint violation if the id is taken,
+     * where {@code save} would merge into the existing row.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO inventory_reservations (id, status, created_at, expires_at)
+            VALUES (:id, :status, :createdAt, :expiresAt)
+            """, nativeQuery = true)
+    void insert(
+            @Param("id") String id,
+            @Param("status") String status,
+            @Param("createdAt") Instant createdAt,
+            @Param("expiresAt") Instant expiresAt
+    );
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findWithLockById(@Param("id") String id);
+
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<String> findExpiredIds(
+            @Param("status") ReservationStatus status,
+            @Param("now") Instant now,
+            Pageable pageable
+    );
+}
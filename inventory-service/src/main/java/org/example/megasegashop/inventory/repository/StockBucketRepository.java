@@ -0,0 +1,45 @@
+package org.example.megasegashop.inventory.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.megasegashop.inventory.entity.StockBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StockBucketRepository extends JpaRepository<StockBucket, Long> {
+    List<StockBucket> findByProductIdOrderByBucketIndex(Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StockBucket b WHERE b.productId = :productId ORDER BY b.bucketIndex")
+    List<StockBucket> findAllWithLockByProductId(@Param("productId") Long productId);
+
+    /**
+     * Returns {@code [productId, bucketCount]} pairs for the given products that are sharded.
+     */
+    @Query("SELECT b.productId, COUNT(b) FROM StockBucket b WHERE b.productId IN :productIds GROUP BY b.productId")
+    List<Object[]> countBucketsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT DISTINCT b.productId FROM StockBucket b")
+    List<Long> findShardedProductIds();
+
+    @Modifying
+    @Query("""
+            UPDATE StockBucket b
+            SET b.availableQuantity = b.availableQuantity - :quantity,
+                b.reservedQuantity = b.reservedQuantity + :quantity
+            WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex
+              AND b.availableQuantity >= :quantity
+            """)
+    int reserveFromBucket(
+            @Param("productId") Long productId,
+            @Param("bucketIndex") int bucketIndex,
+            @Param("quantity") int quantity
+    );
+
+    void deleteByProductId(Long productId);
+}
@@ -3,77 +3,315 @@ package org.example.megasegashop.inventory.service;
 import org.example.megasegashop.shared.dto.InventoryItemRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
+import org.example.megasegashop.inventory.config.ReservationProperties;
 import org.example.megasegashop.inventory.entity.InventoryItem;
+import org.example.megasegashop.inventory.entity.Reservation;
+import org.example.megasegashop.inventory.entity.ReservationLine;
+import org.example.megasegashop.inventory.entity.ReservationStatus;
 import org.example.megasegashop.inventory.repository.InventoryRepository;
+import org.example.megasegashop.inventory.repository.ReservationRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class InventoryService {
+    private static final String RESERVE_SQL = """
+            UPDATE inventory_items
+            SET available_quantity = available_quantity - ?, reserved_quantity = reserved_quantity + ?
+            WHERE product_id = ? AND available_quantity >= ?
+            """;
+    private static final String RELEASE_SQL = """
+            UPDATE inventory_items
+            SET available_quantity = available_quantity + ?, reserved_quantity = reserved_quantity - ?
+            WHERE product_id = ? AND reserved_quantity >= ?
+            """;
+
     private final InventoryRepository inventoryRepository;
+    private final ReservationRepository reservationRepository;
+    private final StockBucketService stockBucketService;
+    private final ReservationProperties reservationProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
-    public InventoryService(InventoryRepository inventoryRepository) {
+    public InventoryService(
+            InventoryRepository inventoryRepository,
+            ReservationRepository reservationRepository,
+            StockBucketService stockBucketService,
+            ReservationProperties reservationProperties,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
+    ) {
         this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockBucketService = stockBucketService;
+        this.reservationProperties = reservationProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public InventoryItem getByProductId(Long productId) {
-        return inventoryRepository.findByProductId(productId).orElse(null);
+        return inventoryRepository.findByProductId(productId)
+                .map(stockBucketService::withBucketTotals)
+                .orElse(null);
     }
 
-    @Transactional
+    /**
+     * Reserves all items or none. Unsharded rows are locked with one sorted
+     * {@code SELECT ... FOR UPDATE} and decremented with a single JDBC batch of
+     * conditional updates; sharded products are then reserved bucket by bucket
+     * in product id order.
+     */
     public InventoryReserveResponse reserveItems(InventoryReserveRequest request) {
-        List<InventoryItem> lockedItems = new ArrayList<>();
+        return reserveItems(request, null);
+    }
+
+    /**
+     * Reserves stock on behalf of the saga identified by {@code reservationId}. A repeated call
+     * for a known reservation returns its outcome without touching stock again; the reservation
+     * is released by the sweeper unless confirmed within the configured TTL.
+     * <p>
+     * The id is claimed by inserting the reservation row before any stock is touched. Of two
+     * concurrent calls for the same new id only one can insert it; the other answers with the
+     * outcome of the winner.
+     */
+    public InventoryReserveResponse reserveItems(InventoryReserveRequest request, String reservationId) {
+        try {
+            return transactionTemplate.execute(status -> reserve(request, reservationId, status));
+        } catch (DataIntegrityViolationException ex) {
+            if (reservationId == null) {
+                throw ex;
+            }
+            return transactionTemplate.execute(status -> reservationRepository.findById(reservationId)
+                    .map(InventoryService::reserveOutcome)
+                    .orElseThrow(() -> ex));
+        }
+    }
+
+    private InventoryReserveResponse reserve(
+            InventoryReserveRequest request,
+            String reservationId,
+            TransactionStatus status
+    ) {
+        Instant now = Instant.now();
+        if (reservationId != null) {
+            Reservation existing = reservationRepository.findById(reservationId).orElse(null);
+            if (existing != null) {
+                return reserveOutcome(existing);
+            }
+            reservationRepository.insert(reservationId, ReservationStatus.RESERVED.name(),
+                    now, now.plus(reservationProperties.getTtl()));
+        }
 
-        for (InventoryItemRequest itemRequest : request.items()) {
-            InventoryItem item = inventoryRepository.findWithLockByProductId(itemRequest.productId())
-                    .orElse(null);
+        SortedMap<Long, Integer> requested = sumByProductId(request.items());
+        SortedMap<Long, Integer> quantities = new TreeMap<>(requested);
+        Map<Long, Integer> bucketCounts = stockBucketService.bucketCounts(quantities.keySet());
+        SortedMap<Long, Integer> sharded = extractSharded(quantities, bucketCounts.keySet());
+        Map<Long, InventoryItem> lockedItems = lockAll(quantities);
+
+        List<Object[]> updates = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            InventoryItem item = lockedItems.get(entry.getKey());
             if (item == null) {
-                return new InventoryReserveResponse(false, "Inventory item missing for productId: " + itemRequest.productId());
+                status.setRollbackOnly();
+                return new InventoryReserveResponse(false, "Inventory item missing for productId: " + entry.getKey());
             }
-            if (item.getAvailableQuantity() < itemRequest.quantity()) {
-                return new InventoryReserveResponse(false, "Insufficient stock for productId: " + itemRequest.productId());
+            if (item.getAvailableQuantity() < entry.getValue()) {
+                status.setRollbackOnly();
+                return new InventoryReserveResponse(false, "Insufficient stock for productId: " + entry.getKey());
             }
-            lockedItems.add(item);
+            updates.add(new Object[]{entry.getValue(), entry.getValue(), entry.getKey(), entry.getValue()});
+        }
+
+        if (!applyAll(RESERVE_SQL, updates)) {
+            status.setRollbackOnly();
+            return new InventoryReserveResponse(false, "Insufficient stock");
         }
 
-        for (int i = 0; i < request.items().size(); i++) {
-            InventoryItemRequest itemRequest = request.items().get(i);
-            InventoryItem item = lockedItems.get(i);
-            item.setAvailableQuantity(item.getAvailableQuantity() - itemRequest.quantity());
-            item.setReservedQuantity(item.getReservedQuantity() + itemRequest.quantity());
-            inventoryRepository.save(item);
+        for (Map.Entry<Long, Integer> entry : sharded.entrySet()) {
+            int bucketCount = bucketCounts.get(entry.getKey());
+            if (!stockBucketService.reserve(entry.getKey(), entry.getValue(), bucketCount)) {
+                status.setRollbackOnly();
+                return new InventoryReserveResponse(false, "Insufficient stock for productId: " + entry.getKey());
+            }
         }
 
+        if (reservationId != null) {
+            Reservation reservation = reservationRepository.findById(reservationId).orElseThrow();
+            requested.forEach((productId, quantity) ->
+                    reservation.getLines().add(new ReservationLine(productId, quantity)));
+        }
         return new InventoryReserveResponse(true, "Reserved");
     }
 
+    private static InventoryReserveResponse reserveOutcome(Reservation reservation) {
+        return reservation.getStatus() == ReservationStatus.RELEASED
+                ? new InventoryReserveResponse(false, "Reservation already released: " + reservation.getId())
+                : new InventoryReserveResponse(true, "Reserved");
+    }
+
     /**
      * Compensating transaction: releases previously reserved items.
      * Used by Saga pattern when order creation fails after reservation.
      */
-    @Transactional
     public InventoryReserveResponse releaseItems(InventoryReserveRequest request) {
-        for (InventoryItemRequest itemRequest : request.items()) {
-            InventoryItem item = inventoryRepository.findWithLockByProductId(itemRequest.productId())
-                    .orElse(null);
+        return releaseItems(request, null);
+    }
+
+    /**
+     * Releases the stock held by {@code reservationId}, ignoring the quantities in the request.
+     * Releasing twice is a no-op, and releasing an unknown id leaves a tombstone so that a
+     * reserve call arriving late for the same saga is refused. If a concurrent call inserts the
+     * row first, the release is retried against that row.
+     */
+    public InventoryReserveResponse releaseItems(InventoryReserveRequest request, String reservationId) {
+        try {
+            return transactionTemplate.execute(status -> release(request, reservationId));
+        } catch (DataIntegrityViolationException ex) {
+            if (reservationId == null) {
+                throw ex;
+            }
+            return transactionTemplate.execute(status -> release(request, reservationId));
+        }
+    }
+
+    private InventoryReserveResponse release(InventoryReserveRequest request, String reservationId) {
+        if (reservationId == null) {
+            releaseQuantities(sumByProductId(request.items()));
+            return new InventoryReserveResponse(true, "Released");
+        }
+
+        Reservation reservation = reservationRepository.findWithLockById(reservationId).orElse(null);
+        if (reservation == null) {
+            Instant now = Instant.now();
+            reservationRepository.insert(reservationId, ReservationStatus.RELEASED.name(), now, now);
+            return new InventoryReserveResponse(true, "Released");
+        }
+        if (reservation.getStatus() != ReservationStatus.RELEASED) {
+            release(reservation);
+        }
+        return new InventoryReserveResponse(true, "Released");
+    }
+
+    /**
+     * Marks a reservation as belonging to a persisted order so the sweeper leaves it alone.
+     */
+    @Transactional
+    public InventoryReserveResponse confirmReservation(String reservationId) {
+        Reservation reservation = reservationRepository.findWithLockById(reservationId).orElse(null);
+        if (reservation == null) {
+            return new InventoryReserveResponse(false, "Reservation not found: " + reservationId);
+        }
+        if (reservation.getStatus() == ReservationStatus.RELEASED) {
+            return new InventoryReserveResponse(false, "Reservation already released: " + reservationId);
+        }
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        return new InventoryReserveResponse(true, "Confirmed");
+    }
+
+    /**
+     * Releases the reservation if it is still unconfirmed and past its TTL.
+     *
+     * @return whether stock was released
+     */
+    @Transactional
+    public boolean expireReservation(String reservationId) {
+        Reservation reservation = reservationRepository.findWithLockById(reservationId).orElse(null);
+        if (reservation == null
+                || reservation.getStatus() != ReservationStatus.RESERVED
+                || reservation.getExpiresAt().isAfter(Instant.now())) {
+            return false;
+        }
+        release(reservation);
+        return true;
+    }
+
+    private void release(Reservation reservation) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationLine line : reservation.getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        releaseQuantities(quantities);
+        reservation.setStatus(ReservationStatus.RELEASED);
+    }
+
+    private void releaseQuantities(SortedMap<Long, Integer> quantities) {
+        // Sharding a product or folding its buckets back holds its item row lock, so with every
+        // row locked first the split cannot change before the stock is put back where it is held.
+        Map<Long, InventoryItem> lockedItems = lockAll(quantities);
+        SortedMap<Long, Integer> sharded = extractSharded(
+                quantities, stockBucketService.bucketCounts(quantities.keySet()).keySet());
+
+        List<Object[]> updates = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            InventoryItem item = lockedItems.get(entry.getKey());
             if (item == null) {
                 // Item doesn't exist, skip (idempotent behavior)
                 continue;
             }
 
-            int releasable = Math.min(Math.max(itemRequest.quantity(), 0), Math.max(item.getReservedQuantity(), 0));
+            int releasable = Math.min(Math.max(entry.getValue(), 0), Math.max(item.getReservedQuantity(), 0));
             if (releasable <= 0) {
                 continue;
             }
+            updates.add(new Object[]{releasable, releasable, entry.getKey(), releasable});
+        }
 
-            item.setReservedQuantity(item.getReservedQuantity() - releasable);
-            item.setAvailableQuantity(item.getAvailableQuantity() + releasable);
-            inventoryRepository.save(item);
+        applyAll(RELEASE_SQL, updates);
+        sharded.forEach(stockBucketService::release);
+    }
+
+    private SortedMap<Long, Integer> sumByProductId(List<InventoryItemRequest> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (InventoryItemRequest item : items) {
+            quantities.merge(item.productId(), item.quantity(), Integer::sum);
         }
+        return quantities;
+    }
 
-        return new InventoryReserveResponse(true, "Released");
+    /**
+     * Removes sharded products from {@code quantities} and returns them separately.
+     */
+    private SortedMap<Long, Integer> extractSharded(SortedMap<Long, Integer> quantities, Set<Long> shardedIds) {
+        SortedMap<Long, Integer> sharded = new TreeMap<>();
+        for (Long productId : shardedIds) {
+            sharded.put(productId, quantities.remove(productId));
+        }
+        return sharded;
+    }
+
+    private Map<Long, InventoryItem> lockAll(SortedMap<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        return inventoryRepository.findAllWithLockByProductIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+    }
+
+    private boolean applyAll(String sql, List<Object[]> updates) {
+        if (updates.isEmpty()) {
+            return true;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, updates);
+        for (int count : counts) {
+            if (count == 0) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,54 @@
+package org.example.megasegashop.inventory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.inventory.config.ReservationProperties;
+import org.example.megasegashop.inventory.entity.ReservationStatus;
+import org.example.megasegashop.inventory.repository.ReservationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Releases reservations that were never confirmed within the TTL, e.g. because
+ * order-service crashed between reserving stock and saving the order.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "sweeper-enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationSweeper {
+    private final ReservationRepository reservationRepository;
+    private final InventoryService inventoryService;
+    private final ReservationProperties properties;
+
+    public ReservationSweeper(
+            ReservationRepository reservationRepository,
+            InventoryService inventoryService,
+            ReservationProperties properties
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryService = inventoryService;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval:PT1M}")
+    public void sweep() {
+        List<String> expired = reservationRepository.findExpiredIds(
+                ReservationStatus.RESERVED,
+                Instant.now(),
+                PageRequest.of(0, properties.getSweepBatchSize())
+        );
+        for (String reservationId : expired) {
+            try {
+                if (inventoryService.expireReservation(reservationId)) {
+                    log.info("Released expired reservation {}", reservationId);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Failed to release expired reservation {}: {}", reservationId, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.megasegashop.inventory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "inventory.sharding", name = "rebalance-enabled", havingValue = "true", matchIfMissing = true)
+public class StockBucketRebalancer {
+    private final StockBucketService stockBucketService;
+
+    public StockBucketRebalancer(StockBucketService stockBucketService) {
+        this.stockBucketService = stockBucketService;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.sharding.rebalance-interval:PT30S}")
+    public void rebalance() {
+        for (Long productId : stockBucketService.shardedProductIds()) {
+            try {
+                if (stockBucketService.rebalance(productId)) {
+                    log.debug("Rebalanced stock buckets for productId={}", productId);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Failed to rebalance stock buckets for productId={}: {}", productId, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.megasegashop.inventory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.inventory.config.StockShardingProperties;
+import org.example.megasegashop.inventory.entity.InventoryItem;
+import org.example.megasegashop.inventory.entity.StockBucket;
+import org.example.megasegashop.inventory.repository.InventoryRepository;
+import org.example.megasegashop.inventory.repository.StockBucketRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in stock sharding for flash-sale products. A sharded product's stock is
+ * split across N bucket rows so concurrent reservations contend on different
+ * rows instead of serializing on the single {@code inventory_items} row.
+ */
+@Slf4j
+@Service
+public class StockBucketService {
+    private final StockBucketRepository bucketRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockShardingProperties properties;
+
+    public StockBucketService(
+            StockBucketRepository bucketRepository,
+            InventoryRepository inventoryRepository,
+            StockShardingProperties properties
+    ) {
+        this.bucketRepository = bucketRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the bucket count of every sharded product among the given ids.
+     */
+    public Map<Long, Integer> bucketCounts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : bucketRepository.countBucketsByProductIdIn(productIds)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
+    public List<Long> shardedProductIds() {
+        return bucketRepository.findShardedProductIds();
+    }
+
+    /**
+     * Returns the item with the bucket totals folded in, or the item itself if it is not sharded.
+     */
+    public InventoryItem withBucketTotals(InventoryItem item) {
+        List<StockBucket> buckets = bucketRepository.findByProductIdOrderByBucketIndex(item.getProductId());
+        if (buckets.isEmpty()) {
+            return item;
+        }
+        int available = item.getAvailableQuantity();
+        int reserved = item.getReservedQuantity();
+        for (StockBucket bucket : buckets) {
+            available += bucket.getAvailableQuantity();
+            reserved += bucket.getReservedQuantity();
+        }
+        return new InventoryItem(item.getId(), item.getProductId(), available, reserved);
+    }
+
+    /**
+     * Splits a product's stock into {@code bucketCount} buckets. Re-sharding an
+     * already sharded product merges the old buckets first.
+     */
+    @Transactional
+    public InventoryItem shard(Long productId, Integer bucketCount) {
+        int buckets = bucketCount != null ? bucketCount : properties.getDefaultBuckets();
+        if (buckets < 2 || buckets > properties.getMaxBuckets()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Bucket count must be between 2 and " + properties.getMaxBuckets()
+            );
+        }
+
+        InventoryItem item = lockItem(productId);
+        mergeInto(item);
+
+        int[] available = split(item.getAvailableQuantity(), buckets);
+        int[] reserved = split(item.getReservedQuantity(), buckets);
+        List<StockBucket> created = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            created.add(new StockBucket(null, productId, i, available[i], reserved[i]));
+        }
+        bucketRepository.saveAll(created);
+
+        InventoryItem total = new InventoryItem(
+                item.getId(), productId, item.getAvailableQuantity(), item.getReservedQuantity());
+        item.setAvailableQuantity(0);
+        item.setReservedQuantity(0);
+        inventoryRepository.save(item);
+        log.info("Sharded stock for productId={} into {} buckets", productId, buckets);
+        return total;
+    }
+
+    /**
+     * Folds all buckets back into the single inventory row.
+     */
+    @Transactional
+    public InventoryItem unshard(Long productId) {
+        InventoryItem item = lockItem(productId);
+        mergeInto(item);
+        inventoryRepository.save(item);
+        log.info("Merged stock buckets for productId={}", productId);
+        return item;
+    }
+
+    /**
+     * Reserves {@code quantity} from a sharded product. The fast path tries a
+     * random bucket and then the others with a conditional update, so only one
+     * bucket row is ever locked. If no single bucket can cover the request, all
+     * buckets are locked in index order and drained one after another.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reserve(Long productId, int quantity, int bucketCount) {
+        int start = ThreadLocalRandom.current().nextInt(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            int bucketIndex = (start + i) % bucketCount;
+            if (bucketRepository.reserveFromBucket(productId, bucketIndex, quantity) == 1) {
+                return true;
+            }
+        }
+
+        List<StockBucket> buckets = bucketRepository.findAllWithLockByProductId(productId);
+        int total = buckets.stream().mapToInt(StockBucket::getAvailableQuantity).sum();
+        if (total < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (StockBucket bucket : buckets) {
+            int taken = Math.min(remaining, bucket.getAvailableQuantity());
+            bucket.setAvailableQuantity(bucket.getAvailableQuantity() - taken);
+            bucket.setReservedQuantity(bucket.getReservedQuantity() + taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long productId, int quantity) {
+        int remaining = Math.max(quantity, 0);
+        for (StockBucket bucket : bucketRepository.findAllWithLockByProductId(productId)) {
+            if (remaining == 0) {
+                break;
+            }
+            int released = Math.min(remaining, Math.max(bucket.getReservedQuantity(), 0));
+            bucket.setReservedQuantity(bucket.getReservedQuantity() - released);
+            bucket.setAvailableQuantity(bucket.getAvailableQuantity() + released);
+            remaining -= released;
+        }
+    }
+
+    /**
+     * Applies a restock or write-off to a sharded product, spreading it evenly
+     * across buckets. Negative deltas are clamped at zero like unsharded stock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long productId, int delta) {
+        List<StockBucket> buckets = bucketRepository.findAllWithLockByProductId(productId);
+        int available = buckets.stream().mapToInt(StockBucket::getAvailableQuantity).sum();
+        redistribute(buckets, Math.max(available + delta, 0));
+    }
+
+    /**
+     * Evens out available stock across a product's buckets. Reservations drain
+     * buckets unevenly, and an empty bucket forces callers onto the slow path.
+     */
+    @Transactional
+    public boolean rebalance(Long productId) {
+        List<StockBucket> buckets = bucketRepository.findAllWithLockByProductId(productId);
+        if (buckets.size() < 2) {
+            return false;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int available = 0;
+        for (StockBucket bucket : buckets) {
+            min = Math.min(min, bucket.getAvailableQuantity());
+            max = Math.max(max, bucket.getAvailableQuantity());
+            available += bucket.getAvailableQuantity();
+        }
+        if (max - min <= 1) {
+            return false;
+        }
+        redistribute(buckets, available);
+        return true;
+    }
+
+    private InventoryItem lockItem(Long productId) {
+        return inventoryRepository.findWithLockByProductId(productId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory item not found"));
+    }
+
+    private void mergeInto(InventoryItem item) {
+        List<StockBucket> buckets = bucketRepository.findAllWithLockByProductId(item.getProductId());
+        if (buckets.isEmpty()) {
+            return;
+        }
+        for (StockBucket bucket : buckets) {
+            item.setAvailableQuantity(item.getAvailableQuantity() + bucket.getAvailableQuantity());
+            item.setReservedQuantity(item.getReservedQuantity() + bucket.getReservedQuantity());
+        }
+        bucketRepository.deleteAll(buckets);
+        bucketRepository.flush();
+    }
+
+    private void redistribute(List<StockBucket> buckets, int available) {
+        int[] shares = split(available, buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            buckets.get(i).setAvailableQuantity(shares[i]);
+        }
+    }
+
+    private static int[] split(int quantity, int parts) {
+        int[] shares = new int[parts];
+        int base = quantity / parts;
+        int remainder = quantity % parts;
+        for (int i = 0; i < parts; i++) {
+            shares[i] = base + (i < remainder ? 1 : 0);
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,8 @@
+CREATE TABLE inventory_stock_buckets (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    bucket_index INTEGER NOT NULL,
+    available_quantity INTEGER NOT NULL DEFAULT 0,
+    reserved_quantity INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_stock_bucket_product_index UNIQUE (product_id, bucket_index)
+);
@@ -0,0 +1,18 @@
+CREATE TABLE inventory_reservations (
+    id VARCHAR(64) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_inventory_reservations_status_expires
+    ON inventory_reservations (status, expires_at);
+
+CREATE TABLE inventory_reservation_lines (
+    reservation_id VARCHAR(64) NOT NULL REFERENCES inventory_reservations (id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL
+);
+
+CREATE INDEX idx_inventory_reservation_lines_reservation_id
+    ON inventory_reservation_lines (reservation_id);
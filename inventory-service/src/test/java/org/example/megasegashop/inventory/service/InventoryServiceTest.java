@@ -4,13 +4,29 @@ import org.example.megasegashop.shared.dto.InventoryItemRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
 import org.example.megasegashop.inventory.entity.InventoryItem;
+import org.example.megasegashop.inventory.entity.Reservation;
+import org.example.megasegashop.inventory.entity.ReservationStatus;
+import org.example.megasegashop.inventory.entity.StockBucket;
+import org.example.megasegashop.inventory.event.OrderPlacedEvent;
+import org.example.megasegashop.inventory.listener.OrderEventListener;
 import org.example.megasegashop.inventory.repository.InventoryRepository;
+import org.example.megasegashop.inventory.repository.ReservationRepository;
+import org.example.megasegashop.inventory.repository.StockBucketRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,8 +39,22 @@ class InventoryServiceTest {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private StockBucketService stockBucketService;
+
+    @Autowired
+    private StockBucketRepository stockBucketRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderEventListener orderEventListener;
+
     @BeforeEach
     void setUp() {
+        reservationRepository.deleteAll();
+        stockBucketRepository.deleteAll();
         inventoryRepository.deleteAll();
     }
 
@@ -109,4 +139,250 @@ class InventoryServiceTest {
         assertEquals(7, updated.getAvailableQuantity());
         assertEquals(0, updated.getReservedQuantity());
     }
+
+    @Test
+    void reserveItems_withDuplicateProductIds_aggregatesQuantities() {
+        Long productId = 5L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 0));
+
+        InventoryReserveRequest request = new InventoryReserveRequest(List.of(
+                new InventoryItemRequest(productId, 4),
+                new InventoryItemRequest(productId, 4)
+        ));
+
+        assertTrue(inventoryService.reserveItems(request).success());
+        InventoryItem updated = inventoryRepository.findByProductId(productId).orElseThrow();
+        assertEquals(2, updated.getAvailableQuantity());
+        assertEquals(8, updated.getReservedQuantity());
+
+        InventoryReserveResponse second = inventoryService.reserveItems(request);
+        assertFalse(second.success());
+        assertEquals(2, inventoryRepository.findByProductId(productId).orElseThrow().getAvailableQuantity());
+    }
+
+    @Test
+    void reserveItems_whenOneItemShort_reservesNothing() {
+        inventoryRepository.save(new InventoryItem(null, 6L, 10, 0));
+        inventoryRepository.save(new InventoryItem(null, 7L, 1, 0));
+
+        InventoryReserveRequest request = new InventoryReserveRequest(List.of(
+                new InventoryItemRequest(6L, 3),
+                new InventoryItemRequest(7L, 2)
+        ));
+
+        assertFalse(inventoryService.reserveItems(request).success());
+        assertEquals(10, inventoryRepository.findByProductId(6L).orElseThrow().getAvailableQuantity());
+        assertEquals(1, inventoryRepository.findByProductId(7L).orElseThrow().getAvailableQuantity());
+    }
+
+    @Test
+    void reserveItems_concurrentOverlappingOrders_neverDeadlockOrOversell() throws Exception {
+        List<Long> productIds = List.of(101L, 102L, 103L, 104L);
+        int stock = 40;
+        productIds.forEach(id -> inventoryRepository.save(new InventoryItem(null, id, stock, 0)));
+
+        int threads = 8;
+        int attemptsPerThread = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        // Every order touches all SKUs in a random order to provoke lock-order inversions.
+                        List<Long> shuffled = new ArrayList<>(productIds);
+                        Collections.shuffle(shuffled);
+                        List<InventoryItemRequest> items = shuffled.stream()
+                                .map(id -> new InventoryItemRequest(id, 1))
+                                .toList();
+                        if (inventoryService.reserveItems(new InventoryReserveRequest(items)).success()) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable ex) {
+                    errors.add(ex);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(errors.isEmpty(), () -> "Reservation failed: " + errors.peek());
+        assertEquals(stock, reserved.get());
+        for (Long productId : productIds) {
+            InventoryItem item = inventoryRepository.findByProductId(productId).orElseThrow();
+            assertEquals(0, item.getAvailableQuantity());
+            assertEquals(stock, item.getReservedQuantity());
+        }
+    }
+
+    @Test
+    void shardedProduct_reportsSummedTotalAndReservesAcrossBuckets() {
+        Long productId = 200L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 2));
+
+        stockBucketService.shard(productId, 4);
+
+        assertEquals(4, stockBucketRepository.findByProductIdOrderByBucketIndex(productId).size());
+        InventoryItem total = inventoryService.getByProductId(productId);
+        assertEquals(10, total.getAvailableQuantity());
+        assertEquals(2, total.getReservedQuantity());
+
+        // No single bucket holds 7 units, so this exercises the drain-across-buckets path.
+        InventoryReserveRequest request = new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 7))
+        );
+        assertTrue(inventoryService.reserveItems(request).success());
+        assertEquals(3, inventoryService.getByProductId(productId).getAvailableQuantity());
+        assertFalse(inventoryService.reserveItems(request).success());
+
+        inventoryService.releaseItems(request);
+        total = inventoryService.getByProductId(productId);
+        assertEquals(10, total.getAvailableQuantity());
+        assertEquals(2, total.getReservedQuantity());
+
+        stockBucketService.unshard(productId);
+        assertTrue(stockBucketRepository.findByProductIdOrderByBucketIndex(productId).isEmpty());
+        InventoryItem merged = inventoryRepository.findByProductId(productId).orElseThrow();
+        assertEquals(10, merged.getAvailableQuantity());
+        assertEquals(2, merged.getReservedQuantity());
+    }
+
+    @Test
+    void rebalance_evensOutDrainedBuckets() {
+        Long productId = 201L;
+        inventoryRepository.save(new InventoryItem(null, productId, 0, 0));
+        stockBucketRepository.saveAll(List.of(
+                new StockBucket(null, productId, 0, 0, 5),
+                new StockBucket(null, productId, 1, 9, 0),
+                new StockBucket(null, productId, 2, 3, 0)
+        ));
+
+        assertTrue(stockBucketService.rebalance(productId));
+
+        List<StockBucket> buckets = stockBucketRepository.findByProductIdOrderByBucketIndex(productId);
+        buckets.forEach(bucket -> assertEquals(4, bucket.getAvailableQuantity()));
+        assertEquals(5, buckets.stream().mapToInt(StockBucket::getReservedQuantity).sum());
+        assertFalse(stockBucketService.rebalance(productId));
+    }
+
+    @Test
+    void reservation_retriedReserveAndRelease_applyOnce() {
+        Long productId = 300L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 0));
+        InventoryReserveRequest request = new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 3))
+        );
+
+        assertTrue(inventoryService.reserveItems(request, "order-1").success());
+        assertTrue(inventoryService.reserveItems(request, "order-1").success());
+        assertEquals(7, inventoryRepository.findByProductId(productId).orElseThrow().getAvailableQuantity());
+
+        InventoryReserveRequest bogusRelease = new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 100))
+        );
+        assertTrue(inventoryService.releaseItems(bogusRelease, "order-1").success());
+        assertTrue(inventoryService.releaseItems(bogusRelease, "order-1").success());
+
+        InventoryItem updated = inventoryRepository.findByProductId(productId).orElseThrow();
+        assertEquals(10, updated.getAvailableQuantity());
+        assertEquals(0, updated.getReservedQuantity());
+        assertFalse(inventoryService.reserveItems(request, "order-1").success());
+    }
+
+    @Test
+    void reservation_releasedBeforeReserveArrives_refusesLateReserve() {
+        Long productId = 301L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 0));
+        InventoryReserveRequest request = new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 2))
+        );
+
+        assertTrue(inventoryService.releaseItems(request, "order-2").success());
+        assertFalse(inventoryService.reserveItems(request, "order-2").success());
+        assertEquals(10, inventoryRepository.findByProductId(productId).orElseThrow().getAvailableQuantity());
+    }
+
+    @Test
+    void expireReservation_releasesOnlyUnconfirmedExpiredReservations() {
+        Long productId = 302L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 0));
+        InventoryReserveRequest request = new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 4))
+        );
+        inventoryService.reserveItems(request, "stale");
+        inventoryService.reserveItems(request, "confirmed");
+        assertTrue(inventoryService.confirmReservation("confirmed").success());
+
+        assertFalse(inventoryService.expireReservation("stale"));
+        for (String id : List.of("stale", "confirmed")) {
+            Reservation reservation = reservationRepository.findById(id).orElseThrow();
+            reservation.setExpiresAt(Instant.now().minusSeconds(1));
+            reservationRepository.save(reservation);
+        }
+
+        assertTrue(inventoryService.expireReservation("stale"));
+        assertFalse(inventoryService.expireReservation("confirmed"));
+        assertEquals(ReservationStatus.RELEASED, reservationRepository.findById("stale").orElseThrow().getStatus());
+        InventoryItem updated = inventoryRepository.findByProductId(productId).orElseThrow();
+        assertEquals(6, updated.getAvailableQuantity());
+        assertEquals(4, updated.getReservedQuantity());
+        assertFalse(inventoryService.confirmReservation("stale").success());
+    }
+
+    @Test
+    void reservation_concurrentReservesForSameId_applyOnce() throws Exception {
+        Long productId = 303L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 0));
+        InventoryReserveRequest request = new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 3))
+        );
+
+        int threads = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicInteger reserved = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    if (inventoryService.reserveItems(request, "same-saga").success()) {
+                        reserved.incrementAndGet();
+                    }
+                } catch (Throwable ex) {
+                    errors.add(ex);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(errors.isEmpty(), () -> "Reservation failed: " + errors.peek());
+        assertEquals(threads, reserved.get());
+        InventoryItem updated = inventoryRepository.findByProductId(productId).orElseThrow();
+        assertEquals(7, updated.getAvailableQuantity());
+        assertEquals(3, updated.getReservedQuantity());
+        assertEquals(1, reservationRepository.findById("same-saga").orElseThrow().getLines().size());
+    }
+
+    @Test
+    void orderPlacedEvent_confirmsReservation() {
+        Long productId = 304L;
+        inventoryRepository.save(new InventoryItem(null, productId, 10, 0));
+        inventoryService.reserveItems(new InventoryReserveRequest(
+                List.of(new InventoryItemRequest(productId, 1))
+        ), "placed");
+
+        orderEventListener.handleOrderPlaced(new OrderPlacedEvent(1L, "placed"));
+        orderEventListener.handleOrderPlaced(new OrderPlacedEvent(1L, "placed"));
+
+        assertEquals(ReservationStatus.CONFIRMED, reservationRepository.findById("placed").orElseThrow().getStatus());
+    }
 }
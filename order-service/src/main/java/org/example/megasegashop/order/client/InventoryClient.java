@@ -3,8 +3,10 @@ package org.example.megasegashop.order.client;
 import org.example.megasegashop.shared.dto.InventoryReserveRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 @FeignClient(
         name = "inventory-service",
@@ -12,13 +14,31 @@ import org.springframework.web.bind.annotation.RequestBody;
         configuration = InventoryClientConfig.class
 )
 public interface InventoryClient {
+    String RESERVATION_ID_HEADER = "X-Reservation-Id";
+
+    /**
+     * Reserves stock under {@code reservationId}; retrying with the same id does not reserve twice.
+     */
     @PostMapping("/inventory/reserve")
-    InventoryReserveResponse reserve(@RequestBody InventoryReserveRequest request);
+    InventoryReserveResponse reserve(
+            @RequestHeader(RESERVATION_ID_HEADER) String reservationId,
+            @RequestBody InventoryReserveRequest request
+    );
 
     /**
      * Compensating action: releases previously reserved items.
      * Used by Saga pattern when order creation fails.
+     * A {@code null} reservation id falls back to releasing the quantities in the request.
      */
     @PostMapping("/inventory/release")
-    InventoryReserveResponse release(@RequestBody InventoryReserveRequest request);
+    InventoryReserveResponse release(
+            @RequestHeader(value = RESERVATION_ID_HEADER, required = false) String reservationId,
+            @RequestBody InventoryReserveRequest request
+    );
+
+    /**
+     * Tells inventory-service the order was persisted, so the reservation is not expired.
+     */
+    @PostMapping("/inventory/reservations/{reservationId}/confirm")
+    InventoryReserveResponse confirm(@PathVariable("reservationId") String reservationId);
 }
@@ -3,7 +3,9 @@ package org.example.megasegashop.order.client;
 import org.example.megasegashop.shared.dto.InventoryReserveRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Fallback implementation for InventoryClient when inventory-service is unavailable.
@@ -12,17 +14,29 @@ import org.springframework.stereotype.Component;
 @Component
 public class InventoryClientFallback implements InventoryClient {
 
+    /**
+     * A failed call may still have reserved stock, so this is not answered as a rejected
+     * reservation: the caller has to release by reservation id.
+     */
     @Override
-    public InventoryReserveResponse reserve(InventoryReserveRequest request) {
-        log.warn("Circuit breaker fallback: inventory-service unavailable, cannot reserve items");
-        // Return failed reservation
-        return new InventoryReserveResponse(false, "Inventory service unavailable");
+    public InventoryReserveResponse reserve(String reservationId, InventoryReserveRequest request) {
+        log.warn("Circuit breaker fallback: inventory-service unavailable, outcome of reservation {} unknown",
+                reservationId);
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory service unavailable");
     }
 
     @Override
-    public InventoryReserveResponse release(InventoryReserveRequest request) {
+    public InventoryReserveResponse release(String reservationId, InventoryReserveRequest request) {
         log.warn("Circuit breaker fallback: inventory-service unavailable, cannot release items");
         // Return failed release - this is critical, should be logged and handled manually
         return new InventoryReserveResponse(false, "Inventory service unavailable");
     }
+
+    @Override
+    public InventoryReserveResponse confirm(String reservationId) {
+        log.warn("Circuit breaker fallback: inventory-service unavailable, cannot confirm reservation {}",
+                reservationId);
+        // Unconfirmed reservations are expired by inventory-service after its TTL
+        return new InventoryReserveResponse(false, "Inventory service unavailable");
+    }
 }
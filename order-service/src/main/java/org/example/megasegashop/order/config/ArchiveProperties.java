@@ -0,0 +1,49 @@
+package org.example.megasegashop.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.archive")
+public class ArchiveProperties {
+    /**
+     * Age after which DELIVERED and CANCELLED orders move to the archive.
+     */
+    private Duration retention = Duration.ofDays(180);
+
+    /**
+     * Orders moved per transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How often the archival job runs.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.megasegashop.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.checkout")
+public class CheckoutProperties {
+    private boolean parallelLookups = true;
+    private Duration phoneLookupTimeout = Duration.ofSeconds(2);
+    private Duration cartLookupTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Threads running the saga of asynchronously accepted orders.
+     */
+    private int asyncWorkers = 8;
+
+    /**
+     * Accepted orders waiting for a worker; once full, asynchronous checkout answers 503.
+     */
+    private int asyncQueueCapacity = 500;
+
+    /**
+     * Age after which a PENDING order is assumed to have lost its worker (e.g. in a crash or
+     * restart) and its saga is run again. Must comfortably exceed the remote call timeouts.
+     */
+    private Duration pendingTimeout = Duration.ofMinutes(5);
+
+    /**
+     * How often PENDING orders older than {@link #pendingTimeout} are looked for.
+     */
+    private Duration pendingSweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * How often orders with an open status stream are re-read, to see changes made elsewhere.
+     */
+    private Duration statusPollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound on how long one {@code GET /orders/{id}/events} stream stays open.
+     */
+    private Duration statusStreamTimeout = Duration.ofMinutes(2);
+
+    public boolean isParallelLookups() {
+        return parallelLookups;
+    }
+
+    public void setParallelLookups(boolean parallelLookups) {
+        this.parallelLookups = parallelLookups;
+    }
+
+    public Duration getPhoneLookupTimeout() {
+        return phoneLookupTimeout;
+    }
+
+    public void setPhoneLookupTimeout(Duration phoneLookupTimeout) {
+        this.phoneLookupTimeout = phoneLookupTimeout;
+    }
+
+    public Duration getCartLookupTimeout() {
+        return cartLookupTimeout;
+    }
+
+    public void setCartLookupTimeout(Duration cartLookupTimeout) {
+        this.cartLookupTimeout = cartLookupTimeout;
+    }
+
+    public int getAsyncWorkers() {
+        return asyncWorkers;
+    }
+
+    public void setAsyncWorkers(int asyncWorkers) {
+        this.asyncWorkers = asyncWorkers;
+    }
+
+    public int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
+    public Duration getPendingTimeout() {
+        return pendingTimeout;
+    }
+
+    public void setPendingTimeout(Duration pendingTimeout) {
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    public Duration getPendingSweepInterval() {
+        return pendingSweepInterval;
+    }
+
+    public void setPendingSweepInterval(Duration pendingSweepInterval) {
+        this.pendingSweepInterval = pendingSweepInterval;
+    }
+
+    public Duration getStatusPollInterval() {
+        return statusPollInterval;
+    }
+
+    public void setStatusPollInterval(Duration statusPollInterval) {
+        this.statusPollInterval = statusPollInterval;
+    }
+
+    public Duration getStatusStreamTimeout() {
+        return statusStreamTimeout;
+    }
+
+    public void setStatusStreamTimeout(Duration statusStreamTimeout) {
+        this.statusStreamTimeout = statusStreamTimeout;
+    }
+}
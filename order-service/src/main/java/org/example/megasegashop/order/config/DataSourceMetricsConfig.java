@@ -0,0 +1,41 @@
+package org.example.megasegashop.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Exposes how much of the Hikari pool is in use, so connection pinning by the checkout saga
+ * shows up next to the built-in {@code hikaricp_connections_pending} metric.
+ */
+@Configuration
+public class DataSourceMetricsConfig {
+    @Bean
+    public MeterBinder hikariPoolSaturationMetrics(DataSource dataSource) {
+        return registry -> {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            if (hikari == null) {
+                return;
+            }
+            Gauge.builder("hikaricp.connections.saturation", hikari, DataSourceMetricsConfig::saturation)
+                    .description("Active connections divided by the maximum pool size")
+                    .tag("pool", String.valueOf(hikari.getPoolName()))
+                    .register(registry);
+        };
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        int maximum = hikari.getMaximumPoolSize();
+        if (pool == null || maximum <= 0) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / maximum;
+    }
+}
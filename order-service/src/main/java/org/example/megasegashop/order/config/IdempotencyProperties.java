@@ -0,0 +1,76 @@
+package org.example.megasegashop.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+    /**
+     * How long a completed response is replayed for its key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Age after which an unfinished claim is treated as abandoned (its instance died) and the
+     * request may run again. Must comfortably exceed the slowest checkout.
+     */
+    private Duration abandonAfter = Duration.ofMinutes(2);
+
+    /**
+     * How long a duplicate waits for the first request to finish before answering 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How often a waiting duplicate re-reads the key.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * How often expired keys are deleted.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getAbandonAfter() {
+        return abandonAfter;
+    }
+
+    public void setAbandonAfter(Duration abandonAfter) {
+        this.abandonAfter = abandonAfter;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.megasegashop.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnBean(KafkaProperties.class)
+public class KafkaListenerConfig {
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderSnapshotEvent>
+            orderSnapshotKafkaListenerContainerFactory(
+                    KafkaProperties kafkaProperties,
+                    ObjectMapper objectMapper
+            ) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        // Avoid double-configuring JsonDeserializer via properties and setters.
+        props.keySet().removeIf(key -> key.startsWith("spring.json."));
+        // The read model must see every snapshot, including those published before the group existed.
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Outbox payloads carry no type headers.
+        JsonDeserializer<OrderSnapshotEvent> deserializer =
+                new JsonDeserializer<>(OrderSnapshotEvent.class, objectMapper, false);
+
+        DefaultKafkaConsumerFactory<String, OrderSnapshotEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderSnapshotEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        return factory;
+    }
+}
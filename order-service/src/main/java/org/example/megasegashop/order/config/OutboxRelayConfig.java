@@ -0,0 +1,44 @@
+package org.example.megasegashop.order.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer used by the outbox relay. Payloads are already JSON, so values are written as plain
+ * strings; linger and compression let one poll go out as a few large Kafka batches.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "order.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayConfig {
+    @Bean
+    public ProducerFactory<String, String> outboxProducerFactory(
+            KafkaProperties kafkaProperties,
+            OutboxProperties outboxProperties
+    ) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+        props.keySet().removeIf(key -> key.startsWith("spring.json."));
+        props.put(ProducerConfig.LINGER_MS_CONFIG, outboxProperties.getLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, outboxProperties.getProducerBatchBytes());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outboxProperties.getCompressionType());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new StringSerializer());
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(ProducerFactory<String, String> outboxProducerFactory) {
+        return new KafkaTemplate<>(outboxProducerFactory);
+    }
+}
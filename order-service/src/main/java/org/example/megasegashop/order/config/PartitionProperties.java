@@ -0,0 +1,50 @@
+package org.example.megasegashop.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.partitions")
+public class PartitionProperties {
+    /**
+     * Whether monthly {@code orders} partitions are created ahead of time and dropped once
+     * archival has emptied them. Requires PostgreSQL.
+     */
+    private boolean maintenanceEnabled = true;
+
+    /**
+     * Months after the current one that must already have a partition.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * How often missing partitions are looked for.
+     */
+    private Duration checkInterval = Duration.ofHours(12);
+
+    public boolean isMaintenanceEnabled() {
+        return maintenanceEnabled;
+    }
+
+    public void setMaintenanceEnabled(boolean maintenanceEnabled) {
+        this.maintenanceEnabled = maintenanceEnabled;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+}
@@ -1,11 +1,20 @@
 package org.example.megasegashop.order.controller;
 
 import jakarta.validation.Valid;
+import org.example.megasegashop.order.dto.OrderHistoryPageResponse;
 import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.dto.OrderStatusEvent;
 import org.example.megasegashop.order.dto.PlaceOrderRequest;
 import org.example.megasegashop.order.dto.UpdateOrderStatusRequest;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.service.AsyncCheckoutService;
+import org.example.megasegashop.order.service.IdempotencyService;
+import org.example.megasegashop.order.service.OrderHistoryService;
+import org.example.megasegashop.order.service.OrderQueryService;
 import org.example.megasegashop.order.service.OrderService;
+import org.example.megasegashop.order.service.OrderStatusStream;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,40 +23,79 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.example.megasegashop.shared.web.AdminOnly;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final AsyncCheckoutService asyncCheckoutService;
+    private final OrderStatusStream orderStatusStream;
+    private final IdempotencyService idempotencyService;
+    private final OrderHistoryService orderHistoryService;
+    private final OrderQueryService orderQueryService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(
+            OrderService orderService,
+            AsyncCheckoutService asyncCheckoutService,
+            OrderStatusStream orderStatusStream,
+            IdempotencyService idempotencyService,
+            OrderHistoryService orderHistoryService,
+            OrderQueryService orderQueryService
+    ) {
         this.orderService = orderService;
+        this.asyncCheckoutService = asyncCheckoutService;
+        this.orderStatusStream = orderStatusStream;
+        this.idempotencyService = idempotencyService;
+        this.orderHistoryService = orderHistoryService;
+        this.orderQueryService = orderQueryService;
     }
 
+    /**
+     * Places the order and answers 201 once it is PLACED. With {@code Prefer: respond-async} the
+     * order is answered with 202 as soon as it is stored as PENDING; follow it through
+     * {@code GET /orders/{orderId}} or {@code GET /orders/{orderId}/events}.
+     * <p>
+     * A retry carrying the same {@code Idempotency-Key} gets the first attempt's response back
+     * instead of placing a second order.
+     */
     @PostMapping
     public ResponseEntity<OrderResponse> placeOrder(
             @Valid @RequestBody PlaceOrderRequest request,
-            @RequestHeader(value = "X-User-Email", required = false) String userEmail
+            @RequestHeader(value = "X-User-Email", required = false) String userEmail,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
         // Validate that the order email matches the authenticated user
         if (userEmail != null && !userEmail.equalsIgnoreCase(request.email())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot place order for different user");
         }
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.placeOrder(request));
+        boolean async = prefer != null && prefer.toLowerCase(Locale.ROOT).contains("respond-async");
+        if (idempotencyKey == null) {
+            return place(request, async);
+        }
+        return idempotencyService.placeOnce(idempotencyKey, request, async ? "async" : "sync",
+                () -> place(request, async));
     }
 
+    /**
+     * Served from the read model, so a status change may show up a moment after it was made.
+     */
     @GetMapping("/{orderId}")
     public OrderResponse getOrder(
             @PathVariable Long orderId,
             @RequestHeader(value = "X-User-Email", required = false) String userEmail,
             @RequestHeader(value = "X-User-Role", required = false) String userRole
     ) {
-        OrderResponse order = orderService.getOrder(orderId);
+        OrderResponse order = orderQueryService.getOrder(orderId);
         // Allow admins to view any order, but regular users can only view their own orders
         if (userEmail != null && !isAdmin(userRole) && !userEmail.equalsIgnoreCase(order.email())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
@@ -55,19 +103,51 @@ public class OrderController {
         return order;
     }
 
+    /**
+     * Server-sent {@code status} events for the order, starting with its current status and
+     * ending once it is no longer PENDING.
+     */
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(
+            @PathVariable Long orderId,
+            @RequestHeader(value = "X-User-Email", required = false) String userEmail,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole
+    ) {
+        OrderResponse order = getOrder(orderId, userEmail, userRole);
+        return orderStatusStream.subscribe(new OrderStatusEvent(order.orderId(), order.status(), order.failureReason()));
+    }
+
+    /**
+     * Unpaged listing with items, kept for existing clients. New callers should use
+     * {@link #getOrderHistory} for paged summaries.
+     */
     @GetMapping("/user/{userId}")
     public List<OrderResponse> getOrdersByUser(
             @PathVariable Long userId,
             @RequestHeader(value = "X-User-Email", required = false) String userEmail,
             @RequestHeader(value = "X-User-Role", required = false) String userRole
     ) {
-        // Admins can view any user's orders
-        // For security, non-admins should only be able to see their own orders
-        // This would require userId-to-email mapping; for now, we restrict to admin-only
-        if (!isAdmin(userRole)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin access required");
-        }
-        return orderService.getOrdersByUserId(userId);
+        requireAdminForUserOrders(userRole);
+        return orderQueryService.getOrdersByUserId(userId);
+    }
+
+    /**
+     * Paged order summaries, newest first. Pass {@code nextCursor} from the previous page as
+     * {@code cursor} together with the same filters; {@code from} is inclusive, {@code to} exclusive.
+     * Fetch an order's items with {@code GET /orders/{orderId}}.
+     */
+    @GetMapping("/user/{userId}/history")
+    public OrderHistoryPageResponse getOrderHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole
+    ) {
+        requireAdminForUserOrders(userRole);
+        return orderHistoryService.getOrderHistory(userId, status, from, to, limit, cursor);
     }
 
     @AdminOnly
@@ -93,6 +173,24 @@ public class OrderController {
         return orderService.cancelOrder(orderId);
     }
     
+    private ResponseEntity<OrderResponse> place(PlaceOrderRequest request, boolean async) {
+        if (async) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Preference-Applied", "respond-async")
+                    .body(asyncCheckoutService.placeOrder(request));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.placeOrder(request));
+    }
+
+    private void requireAdminForUserOrders(String userRole) {
+        // Admins can view any user's orders
+        // For security, non-admins should only be able to see their own orders
+        // This would require userId-to-email mapping; for now, we restrict to admin-only
+        if (!isAdmin(userRole)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin access required");
+        }
+    }
+
     private boolean isAdmin(String role) {
         return role != null && (role.equals("ROLE_ADMIN") || role.equals("ADMIN"));
     }
@@ -0,0 +1,12 @@
+package org.example.megasegashop.order.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's order history, newest first. {@code nextCursor} is {@code null} on the last page.
+ */
+public record OrderHistoryPageResponse(
+        List<OrderSummary> items,
+        String nextCursor
+) {
+}
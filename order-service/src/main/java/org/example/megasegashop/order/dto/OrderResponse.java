@@ -12,7 +12,8 @@ public record OrderResponse(
         OrderStatus status,
         BigDecimal totalAmount,
         Instant createdAt,
-        List<OrderItemResponse> items
+        List<OrderItemResponse> items,
+        String failureReason
 ) {
 }
 
@@ -0,0 +1,13 @@
+package org.example.megasegashop.order.dto;
+
+import org.example.megasegashop.order.entity.OrderStatus;
+
+/**
+ * Payload of the {@code status} events on {@code GET /orders/{orderId}/events}.
+ */
+public record OrderStatusEvent(
+        Long orderId,
+        OrderStatus status,
+        String failureReason
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.megasegashop.order.dto;
+
+import org.example.megasegashop.order.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Order history row; read from {@code orders} alone, without the items.
+ */
+public record OrderSummary(
+        Long orderId,
+        String email,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        Instant createdAt,
+        String failureReason
+) {
+}
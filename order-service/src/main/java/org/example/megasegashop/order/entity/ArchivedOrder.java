@@ -0,0 +1,45 @@
+package org.example.megasegashop.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Closed order moved out of {@code orders} by {@code OrderArchiveService}. Only what is needed to
+ * find the row is kept in columns; the order itself is a gzip-compressed JSON document.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "orders_archive")
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    private Long userId;
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    /**
+     * The order as gzip-compressed {@code OrderResponse} JSON.
+     */
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] document;
+}
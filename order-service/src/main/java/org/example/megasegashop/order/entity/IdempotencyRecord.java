@@ -0,0 +1,56 @@
+package org.example.megasegashop.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key}. The row is inserted before the
+ * request runs; {@code responseStatus} and {@code responseBody} stay {@code null} until it
+ * completes successfully.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord {
+    /**
+     * The client's key prefixed with the user it belongs to, so keys never collide across users.
+     */
+    @Id
+    @Column(length = 320)
+    private String scopedKey;
+
+    /**
+     * SHA-256 of the request, to reject a key reused for a different request.
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
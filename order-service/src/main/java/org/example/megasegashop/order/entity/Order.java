@@ -12,7 +12,9 @@ import jakarta.persistence.Index;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,19 +25,27 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * In PostgreSQL {@code orders} is range-partitioned by {@code created_at} month, see
+ * {@code OrderPartitionMaintainer}; closed orders past retention move to {@link ArchivedOrder}.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Table(name = "orders", indexes = {
-        @Index(name = "idx_orders_user_id", columnList = "userId"),
-        @Index(name = "idx_orders_email", columnList = "email"),
-        @Index(name = "idx_orders_status", columnList = "status")
+        @Index(name = "idx_orders_status_created", columnList = "status, createdAt")
 })
 public class Order {
+    /**
+     * Drawn from {@code orders_seq} in blocks of 50 (pooled-lo), so inserts need no round trip
+     * for the id and can be batched. The table's primary key is {@code (id, created_at)}, so a
+     * lookup by id alone visits every live partition; see the V14 migration.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private Long userId;
@@ -45,6 +55,37 @@ public class Order {
     private BigDecimal totalAmount;
     private Instant createdAt;
 
+    /**
+     * Saga id under which inventory-service holds this order's stock.
+     */
+    @JsonIgnore
+    private String reservationId;
+
+    /**
+     * Why asynchronous checkout failed; only set on {@link OrderStatus#FAILED} orders.
+     */
+    private String failureReason;
+
+    /**
+     * Token of the worker running this PENDING order's checkout, see
+     * {@code OrderRepository#claimCheckout}; cleared once the order leaves PENDING.
+     */
+    @JsonIgnore
+    private String checkoutClaim;
+
+    /**
+     * When {@link #checkoutClaim} lapses and another worker may take the checkout over.
+     */
+    @JsonIgnore
+    private Instant checkoutClaimExpiresAt;
+
+    /**
+     * Incremented on every change; carried by {@code order.snapshot} events so the read model
+     * can ignore snapshots older than the one it already holds.
+     */
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<OrderItem> items = new ArrayList<>();
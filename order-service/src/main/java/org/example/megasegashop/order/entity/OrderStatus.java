@@ -1,10 +1,14 @@
 package org.example.megasegashop.order.entity;
 
 public enum OrderStatus {
+    /** Accepted by asynchronous checkout; stock is not reserved yet. */
+    PENDING,
     PLACED,
     CANCELLING,
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED,
+    /** Asynchronous checkout gave up; see the order's failure reason. No stock is held. */
+    FAILED
 }
@@ -0,0 +1,57 @@
+package org.example.megasegashop.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Read model of an order: one row per order with its items embedded as JSON. Written only by
+ * {@code OrderViewProjector} from {@code order.snapshot} events, so it lags the {@code orders}
+ * table slightly and never takes part in checkout transactions.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_views", indexes = {
+        @Index(name = "idx_order_views_user_created", columnList = "userId, createdAt DESC, id DESC")
+})
+public class OrderView {
+    /**
+     * Id of the order in {@code orders}.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * {@link Order#getVersion()} of the snapshot this row was built from.
+     */
+    @Column(nullable = false)
+    private Long version;
+
+    private Long userId;
+    private String email;
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Instant createdAt;
+    private String failureReason;
+
+    /**
+     * The order items as a JSON array of {@code OrderItemResponse}.
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String items;
+}
@@ -6,6 +6,7 @@ public record OrderPlacedEvent(
         Long orderId,
         String email,
         String phone,
-        BigDecimal totalAmount
+        BigDecimal totalAmount,
+        String reservationId
 ) {
 }
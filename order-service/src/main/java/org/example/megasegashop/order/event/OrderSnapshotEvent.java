@@ -0,0 +1,31 @@
+package org.example.megasegashop.order.event;
+
+import org.example.megasegashop.order.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Full state of an order after a change, published on {@code order.snapshot} for every change.
+ * Later snapshots of the same order have a higher {@code version}.
+ */
+public record OrderSnapshotEvent(
+        Long orderId,
+        Long version,
+        Long userId,
+        String email,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        Instant createdAt,
+        String failureReason,
+        List<Item> items
+) {
+    public record Item(
+            Long productId,
+            String productName,
+            BigDecimal unitPrice,
+            int quantity
+    ) {
+    }
+}
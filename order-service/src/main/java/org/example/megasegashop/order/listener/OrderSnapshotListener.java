@@ -0,0 +1,34 @@
+package org.example.megasegashop.order.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
+import org.example.megasegashop.order.service.OrderViewProjector;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds order snapshots into the read model. All instances share one group, so each snapshot is
+ * applied once; the order id is the message key, so one order's snapshots arrive in order.
+ */
+@Slf4j
+@Component
+public class OrderSnapshotListener {
+    private final OrderViewProjector orderViewProjector;
+
+    public OrderSnapshotListener(OrderViewProjector orderViewProjector) {
+        this.orderViewProjector = orderViewProjector;
+    }
+
+    @KafkaListener(
+            topics = "order.snapshot",
+            groupId = "order-service-read-model",
+            containerFactory = "orderSnapshotKafkaListenerContainerFactory"
+    )
+    public void handleSnapshot(OrderSnapshotEvent event) {
+        if (event.orderId() == null || event.version() == null) {
+            log.warn("Ignoring order snapshot without orderId or version");
+            return;
+        }
+        orderViewProjector.apply(event);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.megasegashop.order.repository;
+
+import org.example.megasegashop.order.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+}
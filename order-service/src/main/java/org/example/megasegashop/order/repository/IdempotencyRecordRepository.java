@@ -0,0 +1,58 @@
+package org.example.megasegashop.order.repository;
+
+import org.example.megasegashop.order.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims the key. Fails with a constraint violation if another request holds it.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (scoped_key, request_hash, created_at, expires_at)
+            VALUES (:key, :requestHash, :createdAt, :expiresAt)
+            """, nativeQuery = true)
+    void insertClaim(
+            @Param("key") String key,
+            @Param("requestHash") String requestHash,
+            @Param("createdAt") Instant createdAt,
+            @Param("expiresAt") Instant expiresAt
+    );
+
+    /**
+     * Deletes the key if it has expired, or if it was claimed before {@code abandonedBefore} and
+     * never completed, so that it can be claimed again.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyRecord r
+            WHERE r.scopedKey = :key
+              AND (r.expiresAt < :now OR (r.responseStatus IS NULL AND r.createdAt < :abandonedBefore))
+            """)
+    int deleteIfReclaimable(
+            @Param("key") String key,
+            @Param("now") Instant now,
+            @Param("abandonedBefore") Instant abandonedBefore
+    );
+
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.responseBody = :body
+            WHERE r.scopedKey = :key AND r.responseStatus IS NULL
+            """)
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopedKey = :key AND r.responseStatus IS NULL")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,27 @@
+package org.example.megasegashop.order.repository;
+
+import org.example.megasegashop.order.dto.OrderSummary;
+import org.example.megasegashop.order.entity.OrderStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OrderHistoryRepository {
+
+    /**
+     * A user's orders newest first, as summaries. Null filters produce no restriction; with
+     * {@code afterCreatedAt} and {@code afterId} only rows strictly after that position are returned.
+     *
+     * @param from inclusive lower bound on the creation time
+     * @param to   exclusive upper bound on the creation time
+     */
+    List<OrderSummary> findSummaries(
+            Long userId,
+            OrderStatus status,
+            Instant from,
+            Instant to,
+            Instant afterCreatedAt,
+            Long afterId,
+            int limit
+    );
+}
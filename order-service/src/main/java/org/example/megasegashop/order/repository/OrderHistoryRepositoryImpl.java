@@ -0,0 +1,77 @@
+package org.example.megasegashop.order.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.megasegashop.order.dto.OrderSummary;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.entity.OrderView;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Built with the Criteria API so that absent filters are left out of the SQL instead of being
+ * bound as nulls. The ordering matches {@code idx_order_views_user_created}, so each page is a
+ * range scan of that index.
+ */
+class OrderHistoryRepositoryImpl implements OrderHistoryRepository {
+    private final EntityManager entityManager;
+
+    OrderHistoryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<OrderSummary> findSummaries(
+            Long userId,
+            OrderStatus status,
+            Instant from,
+            Instant to,
+            Instant afterCreatedAt,
+            Long afterId,
+            int limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummary> query = cb.createQuery(OrderSummary.class);
+        Root<OrderView> order = query.from(OrderView.class);
+        Path<Instant> createdAt = order.get("createdAt");
+        Path<Long> id = order.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(order.get("userId"), userId));
+        if (status != null) {
+            predicates.add(cb.equal(order.get("status"), status));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(createdAt, to));
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(id, afterId))
+            ));
+        }
+
+        query.select(cb.construct(OrderSummary.class,
+                        id,
+                        order.get("email"),
+                        order.get("status"),
+                        order.get("totalAmount"),
+                        createdAt,
+                        order.get("failureReason")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,9 +1,21 @@
 package org.example.megasegashop.order.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.megasegashop.order.dto.OrderStatusEvent;
 import org.example.megasegashop.order.entity.Order;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +25,56 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = "items")
     Optional<Order> findById(Long id);
 
+    /**
+     * Ids of orders in {@code status} created before {@code before} whose checkout no worker has
+     * an unexpired claim on at {@code now}.
+     */
+    @Query("select o.id from Order o where o.status = :status and o.createdAt < :before "
+            + "and (o.checkoutClaimExpiresAt is null or o.checkoutClaimExpiresAt < :now) order by o.id")
+    List<Long> findUnclaimedIdsByStatusCreatedBefore(
+            @Param("status") OrderStatus status,
+            @Param("before") Instant before,
+            @Param("now") Instant now,
+            Pageable pageable
+    );
+
+    /**
+     * Hands the checkout of the order to {@code claim} if the order is still in {@code status} and
+     * no other claim is live at {@code now}. The version is bumped, so a worker whose claim was
+     * taken over can no longer save the order.
+     *
+     * @return 1 if the claim was taken, 0 otherwise
+     */
+    @Modifying
+    @Query("update Order o set o.checkoutClaim = :claim, o.checkoutClaimExpiresAt = :expiresAt, "
+            + "o.version = o.version + 1 "
+            + "where o.id = :id and o.status = :status "
+            + "and (o.checkoutClaimExpiresAt is null or o.checkoutClaimExpiresAt < :now)")
+    int claimCheckout(
+            @Param("id") Long id,
+            @Param("status") OrderStatus status,
+            @Param("claim") String claim,
+            @Param("now") Instant now,
+            @Param("expiresAt") Instant expiresAt
+    );
+
+    @Query("select new org.example.megasegashop.order.dto.OrderStatusEvent(o.id, o.status, o.failureReason) "
+            + "from Order o where o.id in :ids")
+    List<OrderStatusEvent> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks up to a page of orders in the given statuses created before {@code before}. Rows
+     * already locked by another instance are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from Order o where o.status in :statuses and o.createdAt < :before order by o.id")
+    List<Order> lockByStatusInCreatedBefore(
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("before") Instant before,
+            Pageable pageable
+    );
+
     @EntityGraph(attributePaths = "items")
-    List<Order> findByUserId(Long userId);
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,11 @@
+package org.example.megasegashop.order.repository;
+
+import org.example.megasegashop.order.entity.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, Long>, OrderHistoryRepository {
+
+    List<OrderView> findByUserIdOrderByCreatedAtDescIdDesc(Long userId);
+}
@@ -0,0 +1,46 @@
+package org.example.megasegashop.order.repository;
+
+import org.example.megasegashop.order.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest unsent events that are due. Rows already locked by another relay instance are
+     * skipped, so several order-service nodes can drain the outbox concurrently without double-publishing.
+     * Events backing off after a failed send and dead-lettered events are left out.
+     */
+    @Query(value = """
+            SELECT * FROM outbox
+            WHERE sent_at IS NULL
+              AND dead_lettered_at IS NULL
+              AND (next_attempt_at IS NULL OR next_attempt_at <= :now)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockUnsentBatch(@Param("limit") int limit, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids")
+    int scheduleRetry(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.deadLetteredAt = :deadLetteredAt WHERE e.id IN :ids")
+    int deadLetter(@Param("ids") Collection<Long> ids, @Param("deadLetteredAt") Instant deadLetteredAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.sentAt IS NOT NULL AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
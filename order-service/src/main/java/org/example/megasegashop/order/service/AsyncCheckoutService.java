@@ -0,0 +1,141 @@
+package org.example.megasegashop.order.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.config.CheckoutProperties;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.dto.PlaceOrderRequest;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.repository.OrderRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checkout that answers as soon as the order is persisted as PENDING. The inventory and outbox
+ * steps then run on a bounded worker pool, so request threads never wait on them; when the
+ * queue is full the order is failed straight away and the caller gets 503.
+ * <p>
+ * Orders stuck in PENDING for longer than {@code order.checkout.pending-timeout}, e.g. because
+ * the instance running them stopped, are picked up again by {@link #resumeStalePendingOrders}.
+ * Orders already queued here are not queued again, and a worker only runs an order once it
+ * has claimed it, so an order resumed elsewhere is never processed twice.
+ */
+@Slf4j
+@Service
+public class AsyncCheckoutService {
+    private static final int RESUME_BATCH_SIZE = 100;
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final CheckoutProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public AsyncCheckoutService(
+            OrderService orderService,
+            OrderRepository orderRepository,
+            CheckoutProperties properties
+    ) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getAsyncWorkers(),
+                properties.getAsyncWorkers(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getAsyncQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "checkout-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    public OrderResponse placeOrder(PlaceOrderRequest request) {
+        OrderResponse pending = orderService.acceptOrder(request);
+        if (!enqueue(pending.orderId())) {
+            orderService.failPendingOrder(pending.orderId(), "Checkout is busy");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Checkout is busy, please retry");
+        }
+        return pending;
+    }
+
+    @Scheduled(
+            initialDelayString = "${order.checkout.pending-timeout:PT5M}",
+            fixedDelayString = "${order.checkout.pending-sweep-interval:PT1M}"
+    )
+    public void resumeStalePendingOrders() {
+        Instant now = Instant.now();
+        List<Long> stale;
+        try {
+            stale = orderRepository.findUnclaimedIdsByStatusCreatedBefore(OrderStatus.PENDING,
+                    now.minus(properties.getPendingTimeout()), now, PageRequest.of(0, RESUME_BATCH_SIZE));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to look up stale pending orders: {}", ex.getMessage());
+            return;
+        }
+        int resumed = 0;
+        for (Long orderId : stale) {
+            if (queued.contains(orderId)) {
+                continue;
+            }
+            if (!enqueue(orderId)) {
+                // Workers are busy; the rest is picked up by the next sweep
+                break;
+            }
+            resumed++;
+        }
+        if (resumed > 0) {
+            log.info("Resumed checkout of {} stale pending order(s)", resumed);
+        }
+    }
+
+    /**
+     * Queues the order unless it is already queued here.
+     *
+     * @return false if the queue is full
+     */
+    private boolean enqueue(Long orderId) {
+        if (!queued.add(orderId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> process(orderId));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            queued.remove(orderId);
+            return false;
+        }
+    }
+
+    private void process(Long orderId) {
+        try {
+            orderService.processPendingOrder(orderId);
+        } catch (RuntimeException ex) {
+            log.error("Checkout of order {} failed unexpectedly: {}", orderId, ex.getMessage());
+        } finally {
+            queued.remove(orderId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
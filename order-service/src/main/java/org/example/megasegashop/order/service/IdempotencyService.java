@@ -0,0 +1,185 @@
+package org.example.megasegashop.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.config.IdempotencyProperties;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.dto.PlaceOrderRequest;
+import org.example.megasegashop.order.entity.IdempotencyRecord;
+import org.example.megasegashop.order.repository.IdempotencyRecordRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Runs order placement at most once per user and {@code Idempotency-Key}.
+ * <p>
+ * The key is claimed by inserting its row before placement starts, so of several concurrent
+ * duplicates exactly one runs; the others wait for its response and replay it. A successful
+ * response is kept for {@code order.idempotency.ttl}. A failed placement releases the key,
+ * since the saga has already compensated and a retry may legitimately succeed.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            IdempotencyProperties properties,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs {@code placement} unless this user already sent {@code idempotencyKey}, in which case
+     * the stored response is returned with the {@value #REPLAYED_HEADER} header.
+     *
+     * @param variant anything besides the body that changes the outcome, e.g. the checkout mode
+     * @throws ResponseStatusException 422 if the key was used for a different request, 409 if the
+     *                                 first request is still running after the wait timeout
+     */
+    public ResponseEntity<OrderResponse> placeOnce(
+            String idempotencyKey,
+            PlaceOrderRequest request,
+            String variant,
+            Supplier<ResponseEntity<OrderResponse>> placement
+    ) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = request.userId() + ":" + idempotencyKey;
+        String requestHash = hash(toJson(request) + "|" + variant);
+        Instant deadline = Instant.now().plus(properties.getWaitTimeout());
+
+        while (true) {
+            if (tryClaim(key, requestHash)) {
+                return run(key, placement);
+            }
+            IdempotencyRecord existing = idempotencyRecordRepository.findById(key).orElse(null);
+            if (existing != null && !existing.getRequestHash().equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different request");
+            }
+            if (existing != null && existing.isCompleted()) {
+                return replay(existing);
+            }
+            // Still running, or just released by a failed first attempt and free to claim again
+            if (Instant.now().isAfter(deadline)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed");
+            }
+            if (existing != null) {
+                pause();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency key(s)", deleted);
+        }
+    }
+
+    private boolean tryClaim(String key, String requestHash) {
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                idempotencyRecordRepository.deleteIfReclaimable(key, now, now.minus(properties.getAbandonAfter()));
+                idempotencyRecordRepository.insertClaim(key, requestHash, now, now.plus(properties.getTtl()));
+            });
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<OrderResponse> run(String key, Supplier<ResponseEntity<OrderResponse>> placement) {
+        ResponseEntity<OrderResponse> response;
+        try {
+            response = placement.get();
+        } catch (RuntimeException ex) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(key));
+            } catch (RuntimeException releaseEx) {
+                log.error("Failed to release idempotency key {}: {}", key, releaseEx.getMessage());
+            }
+            throw ex;
+        }
+
+        try {
+            String body = toJson(response.getBody());
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.complete(key, response.getStatusCode().value(), body));
+        } catch (RuntimeException ex) {
+            // The order exists; a retry after abandon-after would place it again
+            log.error("Failed to store response for idempotency key {}: {}", key, ex.getMessage());
+        }
+        return response;
+    }
+
+    private ResponseEntity<OrderResponse> replay(IdempotencyRecord record) {
+        OrderResponse body;
+        try {
+            body = objectMapper.readValue(record.getResponseBody(), OrderResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", ex);
+        }
+        return ResponseEntity.status(record.getResponseStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.megasegashop.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.config.ArchiveProperties;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.entity.ArchivedOrder;
+import org.example.megasegashop.order.entity.Order;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.repository.ArchivedOrderRepository;
+import org.example.megasegashop.order.repository.OrderRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves DELIVERED and CANCELLED orders older than {@code order.archive.retention} out of
+ * {@code orders} and {@code order_items} into {@code orders_archive}, one gzip-compressed
+ * document per order. Archived orders can still be read with {@link #find}, and their
+ * {@code order_views} rows are kept, so order history still lists them.
+ * <p>
+ * Each batch is locked with {@code SKIP LOCKED}, so several instances can archive at once.
+ */
+@Slf4j
+@Service
+public class OrderArchiveService {
+    private static final Set<OrderStatus> CLOSED_STATUSES = Set.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchiveProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderArchiveService(
+            OrderRepository orderRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            ArchiveProperties properties,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Optional<OrderResponse> find(Long orderId) {
+        return archivedOrderRepository.findById(orderId).map(archived -> fromDocument(archived.getDocument()));
+    }
+
+    @Scheduled(
+            initialDelayString = "${order.archive.interval:PT1H}",
+            fixedDelayString = "${order.archive.interval:PT1H}"
+    )
+    public void archiveClosedOrders() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        Instant before = Instant.now().minus(properties.getRetention());
+        int total = 0;
+        try {
+            Integer archived;
+            do {
+                archived = transactionTemplate.execute(status -> archiveBatch(before, batchSize));
+                total += archived != null ? archived : 0;
+            } while (archived != null && archived == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Order archival failed after {} order(s): {}", total, ex.getMessage());
+        }
+        if (total > 0) {
+            log.info("Archived {} closed order(s) created before {}", total, before);
+        }
+    }
+
+    private int archiveBatch(Instant before, int batchSize) {
+        List<Order> orders = orderRepository.lockByStatusInCreatedBefore(
+                CLOSED_STATUSES, before, PageRequest.of(0, batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        // Loads the items of the locked orders in one query
+        orderRepository.findWithItemsByIdIn(ids);
+
+        Instant now = Instant.now();
+        archivedOrderRepository.saveAll(orders.stream()
+                .map(order -> new ArchivedOrder(order.getId(), order.getUserId(), order.getStatus(),
+                        order.getCreatedAt(), now, toDocument(OrderService.toResponse(order))))
+                .toList());
+        orderRepository.deleteAll(orders);
+        return orders.size();
+    }
+
+    private byte[] toDocument(OrderResponse order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, order);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to archive order " + order.orderId(), ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OrderResponse fromDocument(byte[] document) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(document))) {
+            return objectMapper.readValue(in, OrderResponse.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Archived order is unreadable", ex);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.megasegashop.order.service;
+
+import org.example.megasegashop.order.dto.OrderHistoryPageResponse;
+import org.example.megasegashop.order.dto.OrderSummary;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.repository.OrderViewRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Paged order history. Pages use keyset pagination on {@code (created_at, id)}: the cursor
+ * carries the position of the last row, so each page is a bounded index range scan no matter
+ * how deep the client pages. Rows are summaries read from the {@code order_views} read model,
+ * without the order items.
+ */
+@Service
+public class OrderHistoryService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final OrderViewRepository orderViewRepository;
+
+    public OrderHistoryService(OrderViewRepository orderViewRepository) {
+        this.orderViewRepository = orderViewRepository;
+    }
+
+    /**
+     * @param from inclusive lower bound on the creation time
+     * @param to   exclusive upper bound on the creation time
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPageResponse getOrderHistory(
+            Long userId,
+            OrderStatus status,
+            Instant from,
+            Instant to,
+            Integer limit,
+            String cursor
+    ) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Cursor position = cursor != null ? Cursor.decode(cursor) : null;
+
+        List<OrderSummary> rows = orderViewRepository.findSummaries(
+                userId,
+                status,
+                from,
+                to,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1
+        );
+
+        if (rows.size() <= pageSize) {
+            return new OrderHistoryPageResponse(rows, null);
+        }
+        List<OrderSummary> page = rows.subList(0, pageSize);
+        OrderSummary last = page.get(pageSize - 1);
+        return new OrderHistoryPageResponse(page, new Cursor(last.createdAt(), last.orderId()).encode());
+    }
+
+    /**
+     * Opaque position token: {@code createdAt|id}, base64url-encoded.
+     */
+    private record Cursor(Instant createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 2);
+                return new Cursor(Instant.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.megasegashop.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.config.ArchiveProperties;
+import org.example.megasegashop.order.config.PartitionProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps monthly {@code orders} partitions in place ahead of time, so new orders never fall into
+ * the default partition. Partitions are created by the {@code create_orders_partition} function
+ * (see the V11 migration), which does nothing for a month that already has one and moves any rows
+ * the default partition holds for the month into the new partition.
+ * <p>
+ * Lookups by order id cannot be pruned to one partition, so months older than the archive
+ * retention are dropped by {@code drop_empty_orders_partitions} (see the V14 migration) once
+ * {@link OrderArchiveService} has moved all of their orders out.
+ * <p>
+ * Failures are counted in {@code orders.partitions.maintenance.failures}; a non-zero rate means
+ * new orders are about to land in, or already sit in, {@code orders_default}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order.partitions", name = "maintenance-enabled", havingValue = "true", matchIfMissing = true)
+public class OrderPartitionMaintainer {
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+    private final ArchiveProperties archiveProperties;
+    private final Counter failures;
+
+    public OrderPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            PartitionProperties properties,
+            ArchiveProperties archiveProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.archiveProperties = archiveProperties;
+        this.failures = Counter.builder("orders.partitions.maintenance.failures")
+                .description("Runs that failed to create the upcoming orders partitions or drop emptied ones")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.partitions.check-interval:PT12H}")
+    public void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        try {
+            for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+                LocalDate partitionMonth = month.plusMonths(i);
+                Long moved = jdbcTemplate.queryForObject("SELECT create_orders_partition(?)", Long.class, partitionMonth);
+                if (moved != null && moved > 0) {
+                    log.warn("Moved {} order(s) for {} out of orders_default into their new partition",
+                            moved, partitionMonth);
+                }
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.error("Failed to create orders partitions: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.partitions.check-interval:PT12H}")
+    public void dropEmptiedPartitions() {
+        LocalDate retainedFrom = LocalDate.ofInstant(Instant.now().minus(archiveProperties.getRetention()), ZoneOffset.UTC);
+        try {
+            Integer dropped = jdbcTemplate.queryForObject("SELECT drop_empty_orders_partitions(?)", Integer.class,
+                    retainedFrom.withDayOfMonth(1));
+            if (dropped != null && dropped > 0) {
+                log.info("Dropped {} emptied orders partition(s) before {}", dropped, retainedFrom.withDayOfMonth(1));
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.error("Failed to drop emptied orders partitions: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.megasegashop.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.megasegashop.order.dto.OrderItemResponse;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.entity.OrderView;
+import org.example.megasegashop.order.repository.OrderViewRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Order reads served from the {@code order_views} read model, so lookups and listings never
+ * touch the tables checkout writes to. The read model is updated asynchronously and may lag
+ * the last change by the outbox relay and consumer delay.
+ */
+@Service
+public class OrderQueryService {
+    private static final TypeReference<List<OrderItemResponse>> ITEMS_TYPE = new TypeReference<>() {
+    };
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+
+    public OrderQueryService(
+            OrderViewRepository orderViewRepository,
+            OrderService orderService,
+            ObjectMapper objectMapper
+    ) {
+        this.orderViewRepository = orderViewRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * An order placed a moment ago may not be projected yet; it is then read from the write
+     * model so that clients can always fetch the order they just created. Archived orders have
+     * no view either and are read from the archive the same way.
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long orderId) {
+        return orderViewRepository.findById(orderId)
+                .map(this::toResponse)
+                .orElseGet(() -> orderService.getOrder(orderId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByUserId(Long userId) {
+        return orderViewRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    private OrderResponse toResponse(OrderView view) {
+        List<OrderItemResponse> items;
+        try {
+            items = objectMapper.readValue(view.getItems(), ITEMS_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored items of order " + view.getId() + " are unreadable", ex);
+        }
+        return new OrderResponse(view.getId(), view.getEmail(), view.getStatus(), view.getTotalAmount(),
+                view.getCreatedAt(), items, view.getFailureReason());
+    }
+}
@@ -3,6 +3,7 @@ package org.example.megasegashop.order.service;
 import org.example.megasegashop.order.client.CartClient;
 import org.example.megasegashop.order.client.InventoryClient;
 import org.example.megasegashop.order.client.UserProfileClient;
+import org.example.megasegashop.order.config.CheckoutProperties;
 import org.example.megasegashop.order.dto.CartItemSnapshot;
 import org.example.megasegashop.order.dto.CartSnapshot;
 import org.example.megasegashop.shared.dto.InventoryItemRequest;
@@ -10,6 +11,7 @@ import org.example.megasegashop.shared.dto.InventoryReserveRequest;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
 import org.example.megasegashop.order.dto.OrderItemResponse;
 import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.dto.OrderStatusEvent;
 import org.example.megasegashop.order.dto.PlaceOrderRequest;
 import org.example.megasegashop.order.dto.UserProfileSnapshot;
 import org.example.megasegashop.order.entity.OrderStatus;
@@ -17,72 +19,94 @@ import org.example.megasegashop.order.entity.Order;
 import org.example.megasegashop.order.entity.OrderItem;
 import org.example.megasegashop.order.event.OrderCancelledEvent;
 import org.example.megasegashop.order.event.OrderPlacedEvent;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
 import org.example.megasegashop.order.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 public class OrderService {
     private static final String ORDER_PLACED_TOPIC = "order.placed";
     private static final String ORDER_CANCELLED_TOPIC = "order.cancelled";
+    private static final String ORDER_SNAPSHOT_TOPIC = "order.snapshot";
 
     private final CartClient cartClient;
     private final InventoryClient inventoryClient;
     private final UserProfileClient userProfileClient;
     private final OrderRepository orderRepository;
-    private final KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate;
-    private final KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate;
+    private final OrderEventOutbox orderEventOutbox;
     private final TransactionTemplate requiresNewTransaction;
+    private final CheckoutProperties checkoutProperties;
+    private final OrderStatusStream orderStatusStream;
+    private final OrderArchiveService orderArchiveService;
+    private final ExecutorService checkoutLookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     public OrderService(
             CartClient cartClient,
             InventoryClient inventoryClient,
             UserProfileClient userProfileClient,
             OrderRepository orderRepository,
-            KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate,
-            KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate,
-            PlatformTransactionManager transactionManager
+            OrderEventOutbox orderEventOutbox,
+            PlatformTransactionManager transactionManager,
+            CheckoutProperties checkoutProperties,
+            OrderStatusStream orderStatusStream,
+            OrderArchiveService orderArchiveService
     ) {
         this.cartClient = cartClient;
         this.inventoryClient = inventoryClient;
         this.userProfileClient = userProfileClient;
         this.orderRepository = orderRepository;
-        this.orderPlacedKafkaTemplate = orderPlacedKafkaTemplate;
-        this.orderCancelledKafkaTemplate = orderCancelledKafkaTemplate;
+        this.orderEventOutbox = orderEventOutbox;
         this.requiresNewTransaction = new TransactionTemplate(transactionManager);
         this.requiresNewTransaction.setPropagationBehaviorName("PROPAGATION_REQUIRES_NEW");
+        this.checkoutProperties = checkoutProperties;
+        this.orderStatusStream = orderStatusStream;
+        this.orderArchiveService = orderArchiveService;
+    }
+
+    @PreDestroy
+    void shutdownCheckoutLookups() {
+        checkoutLookupExecutor.shutdown();
     }
 
     /**
      * Places an order using Saga pattern with compensating transactions.
      * 
      * Saga steps:
-     * 1. Get cart
+     * 1. Get cart (together with the phone lookup, see {@link #loadCheckoutContext(Long)})
      * 2. Reserve inventory (compensate: release inventory)
-     * 3. Save order
-     * 4. Send Kafka event
-     * 5. Clear cart
+     * 3. Save order and record order.placed and its snapshot in the outbox (same transaction)
+     * 4. Clear cart
      * 
      * If any step fails after inventory reservation, we compensate by releasing inventory.
+     * Only step 3 runs in a database transaction; remote calls never hold a JDBC connection.
      */
-    @Transactional
     public OrderResponse placeOrder(PlaceOrderRequest request) {
-        String phone = resolvePhone(request.userId());
-
-        // Step 1: Get cart
-        CartSnapshot cart = cartClient.getCart(request.userId());
+        // Step 1: Get cart and phone
+        CheckoutContext context = loadCheckoutContext(request.userId());
+        String phone = context.phone();
+        CartSnapshot cart = context.cart();
         if (cart == null || cart.items() == null || cart.items().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
         }
@@ -94,34 +118,36 @@ public class OrderService {
                         .toList()
         );
 
+        // Saga id: makes reserve/release retries idempotent on the inventory side
+        String reservationId = UUID.randomUUID().toString();
         boolean reserveAttempted = false;
-        boolean reservationConfirmed = false;
+        boolean reservationRejected = false;
 
         try {
             // Step 2: Reserve inventory
             reserveAttempted = true;
-            InventoryReserveResponse reserveResponse = inventoryClient.reserve(reserveRequest);
+            InventoryReserveResponse reserveResponse = inventoryClient.reserve(reservationId, reserveRequest);
             if (!reserveResponse.success()) {
+                reservationRejected = true;
                 throw new ResponseStatusException(HttpStatus.CONFLICT, reserveResponse.message());
             }
-            reservationConfirmed = true;
-
-            // Step 3: Create and save order
-            Order order = createOrder(request, cart);
-            Order saved = orderRepository.save(order);
 
-            // Step 4: Send Kafka event (async, but we catch exceptions)
-            try {
-                orderPlacedKafkaTemplate.send(ORDER_PLACED_TOPIC, 
-                        new OrderPlacedEvent(saved.getId(), request.email(), phone, saved.getTotalAmount()))
-                        .get(5, TimeUnit.SECONDS);
-            } catch (Exception kafkaEx) {
-                log.error("Failed to send Kafka event for order {}: {}", saved.getId(), kafkaEx.getMessage());
-                // Kafka failure is not critical for order success - order is saved
-                // In production, consider using Transactional Outbox pattern
+            // Step 3: Create and save order; the event is published later by OutboxRelay
+            Order order = createOrder(request, cart, OrderStatus.PLACED);
+            order.setReservationId(reservationId);
+            Order saved = requiresNewTransaction.execute(status -> {
+                Order persisted = saveAndRecord(order);
+                orderEventOutbox.enqueue(ORDER_PLACED_TOPIC, persisted.getId(),
+                        new OrderPlacedEvent(persisted.getId(), request.email(), phone,
+                                persisted.getTotalAmount(), reservationId));
+                return persisted;
+            });
+            if (saved == null) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Order creation failed");
             }
+            confirmReservation(reservationId);
 
-            // Step 5: Clear cart
+            // Step 4: Clear cart
             try {
                 cartClient.clearCart(request.userId());
             } catch (Exception cartEx) {
@@ -131,26 +157,174 @@ public class OrderService {
 
             return toResponse(saved);
         } catch (ResponseStatusException rse) {
-            if (reservationConfirmed) {
-                compensateInventoryRelease(reserveRequest);
+            // Only a rejected reservation is known to hold no stock; an unavailable inventory-service
+            // (503 from the fallback) may have reserved it before failing.
+            if (reserveAttempted && !reservationRejected) {
+                compensateInventoryRelease(reservationId, reserveRequest);
             }
             throw rse;
         } catch (Exception ex) {
-            // Only compensate if reservation was actually confirmed (success=true)
-            // Do NOT compensate if reservation was merely attempted but failed
-            if (reservationConfirmed) {
-                compensateInventoryRelease(reserveRequest);
+            // A reserve call that failed in transit may still have reserved stock. Releasing by
+            // reservation id is idempotent and blocks a late reserve, so compensate on any attempt.
+            if (reserveAttempted) {
+                compensateInventoryRelease(reservationId, reserveRequest);
             }
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Order creation failed: " + ex.getMessage());
         }
     }
 
-    private Order createOrder(PlaceOrderRequest request, CartSnapshot cart) {
+    /**
+     * First half of asynchronous checkout: snapshots the cart into a {@link OrderStatus#PENDING}
+     * order and returns without touching inventory. {@link #processPendingOrder} runs the rest
+     * of the saga.
+     */
+    public OrderResponse acceptOrder(PlaceOrderRequest request) {
+        CartSnapshot cart = loadCart(request.userId());
+        if (cart == null || cart.items() == null || cart.items().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
+        }
+
+        Order order = createOrder(request, cart, OrderStatus.PENDING);
+        order.setReservationId(UUID.randomUUID().toString());
+        Order saved = requiresNewTransaction.execute(status -> saveAndRecord(order));
+        if (saved == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Order creation failed");
+        }
+        return toResponse(saved);
+    }
+
+    /**
+     * Second half of asynchronous checkout, run by {@link AsyncCheckoutService}: reserves stock,
+     * marks the order PLACED together with its order.placed event, then confirms the reservation
+     * and clears the cart. A failure marks the order FAILED and releases the stock.
+     * <p>
+     * The worker first claims the order (see {@link OrderRepository#claimCheckout}); an order that
+     * is no longer PENDING or that another worker holds is left alone. A worker whose claim lapsed
+     * and was taken over can neither place nor fail the order, and only the worker that marks the
+     * order FAILED releases the stock, so it never releases stock the new owner reserved under
+     * the same reservation id.
+     */
+    public void processPendingOrder(Long orderId) {
+        String claim = UUID.randomUUID().toString();
+        if (!claimCheckout(orderId, claim)) {
+            return;
+        }
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            return;
+        }
+
+        String reservationId = order.getReservationId();
+        InventoryReserveRequest reserveRequest = buildInventoryReleaseRequest(order);
+        boolean reserveAttempted = false;
+        try {
+            reserveAttempted = true;
+            InventoryReserveResponse reserveResponse = inventoryClient.reserve(reservationId, reserveRequest);
+            if (!reserveResponse.success()) {
+                failPendingOrder(orderId, claim, reserveResponse.message());
+                return;
+            }
+
+            String phone = resolvePhone(order.getUserId());
+            Order placed = requiresNewTransaction.execute(status -> {
+                Order loaded = orderRepository.findById(orderId).orElse(null);
+                if (!isClaimedBy(loaded, claim)) {
+                    return null;
+                }
+                loaded.setStatus(OrderStatus.PLACED);
+                releaseClaim(loaded);
+                Order persisted = saveAndRecord(loaded);
+                orderEventOutbox.enqueue(ORDER_PLACED_TOPIC, persisted.getId(),
+                        new OrderPlacedEvent(persisted.getId(), persisted.getEmail(), phone,
+                                persisted.getTotalAmount(), reservationId));
+                return persisted;
+            });
+            if (placed == null) {
+                log.warn("Checkout of order {} was taken over by another worker; leaving it to that worker", orderId);
+                return;
+            }
+            reserveAttempted = false;
+            orderStatusStream.publish(toStatusEvent(placed));
+            confirmReservation(reservationId);
+
+            try {
+                cartClient.clearCart(placed.getUserId());
+            } catch (Exception cartEx) {
+                log.error("Failed to clear cart for user {}: {}", placed.getUserId(), cartEx.getMessage());
+            }
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            log.warn("Order {} changed while its checkout was running; leaving it to the new owner", orderId);
+        } catch (Exception ex) {
+            boolean failed = failPendingOrder(orderId, claim, "Order creation failed: " + ex.getMessage());
+            if (failed && reserveAttempted) {
+                compensateInventoryRelease(reservationId, reserveRequest);
+            }
+        }
+    }
+
+    /**
+     * Marks a PENDING order that no worker has claimed FAILED. Its stock must never have been reserved.
+     */
+    public void failPendingOrder(Long orderId, String reason) {
+        failPendingOrder(orderId, null, reason);
+    }
+
+    /**
+     * Marks the order FAILED if it is still PENDING and its checkout claim is {@code claim}.
+     *
+     * @return whether this call failed the order
+     */
+    private boolean failPendingOrder(Long orderId, String claim, String reason) {
+        Order failed;
+        try {
+            failed = requiresNewTransaction.execute(status -> {
+                Order loaded = orderRepository.findById(orderId).orElse(null);
+                if (loaded == null || loaded.getStatus() != OrderStatus.PENDING
+                        || !Objects.equals(loaded.getCheckoutClaim(), claim)) {
+                    return null;
+                }
+                loaded.setStatus(OrderStatus.FAILED);
+                loaded.setFailureReason(truncate(reason, 255));
+                releaseClaim(loaded);
+                return saveAndRecord(loaded);
+            });
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            return false;
+        }
+        if (failed == null) {
+            return false;
+        }
+        log.warn("Asynchronous checkout of order {} failed: {}", orderId, failed.getFailureReason());
+        orderStatusStream.publish(toStatusEvent(failed));
+        return true;
+    }
+
+    /**
+     * Claims the checkout for {@code order.checkout.pending-timeout}, after which the pending
+     * sweep may hand it to another worker.
+     */
+    private boolean claimCheckout(Long orderId, String claim) {
+        Instant now = Instant.now();
+        Integer claimed = requiresNewTransaction.execute(status -> orderRepository.claimCheckout(
+                orderId, OrderStatus.PENDING, claim, now, now.plus(checkoutProperties.getPendingTimeout())));
+        return claimed != null && claimed > 0;
+    }
+
+    private static boolean isClaimedBy(Order order, String claim) {
+        return order != null && order.getStatus() == OrderStatus.PENDING && claim.equals(order.getCheckoutClaim());
+    }
+
+    private static void releaseClaim(Order order) {
+        order.setCheckoutClaim(null);
+        order.setCheckoutClaimExpiresAt(null);
+    }
+
+    private Order createOrder(PlaceOrderRequest request, CartSnapshot cart, OrderStatus initialStatus) {
         Order order = new Order();
         order.setUserId(request.userId());
         order.setEmail(request.email());
-        order.setStatus(OrderStatus.PLACED);
+        order.setStatus(initialStatus);
         order.setItems(new ArrayList<>());
 
         BigDecimal total = BigDecimal.ZERO;
@@ -171,6 +345,48 @@ public class OrderService {
         return order;
     }
 
+    /**
+     * Fetches the cart and the user's phone. With {@code order.checkout.parallel-lookups} enabled the two
+     * independent calls run concurrently on virtual threads. A phone lookup that times out yields no phone,
+     * and a cart lookup that times out is treated like the cart-service fallback (empty cart).
+     */
+    private CheckoutContext loadCheckoutContext(Long userId) {
+        if (!checkoutProperties.isParallelLookups()) {
+            return new CheckoutContext(resolvePhone(userId), cartClient.getCart(userId));
+        }
+
+        CompletableFuture<String> phone = CompletableFuture
+                .supplyAsync(() -> resolvePhone(userId), checkoutLookupExecutor)
+                .completeOnTimeout(null, checkoutProperties.getPhoneLookupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        CompletableFuture<CartSnapshot> cart = CompletableFuture
+                .supplyAsync(() -> cartClient.getCart(userId), checkoutLookupExecutor)
+                .orTimeout(checkoutProperties.getCartLookupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        return new CheckoutContext(phone.join(), awaitCart(cart, userId));
+    }
+
+    private CartSnapshot loadCart(Long userId) {
+        CompletableFuture<CartSnapshot> cart = CompletableFuture
+                .supplyAsync(() -> cartClient.getCart(userId), checkoutLookupExecutor)
+                .orTimeout(checkoutProperties.getCartLookupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        return awaitCart(cart, userId);
+    }
+
+    private CartSnapshot awaitCart(CompletableFuture<CartSnapshot> cart, Long userId) {
+        try {
+            return cart.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                log.warn("Cart lookup timed out for user {}", userId);
+                return new CartSnapshot(userId, Collections.emptyList(), BigDecimal.ZERO);
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
     private String resolvePhone(Long userId) {
         try {
             UserProfileSnapshot profile = userProfileClient.getByAuthUserId(userId);
@@ -187,32 +403,39 @@ public class OrderService {
         return null;
     }
 
+    /**
+     * Falls back to the archive for closed orders moved there by {@link OrderArchiveService}.
+     */
     public OrderResponse getOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        return orderRepository.findById(id)
+                .map(OrderService::toResponse)
+                .or(() -> orderArchiveService.find(id))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
-        return toResponse(order);
-    }
-
-    public List<OrderResponse> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
-                .map(this::toResponse)
-                .toList();
     }
 
     public OrderResponse updateStatus(Long orderId, OrderStatus newStatus) {
         if (newStatus == OrderStatus.CANCELLED) {
             return cancelOrder(orderId);
         }
+        if (newStatus == OrderStatus.PENDING || newStatus == OrderStatus.FAILED) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status is managed by checkout");
+        }
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        Order saved = requiresNewTransaction.execute(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
 
-        if (order.getStatus() == OrderStatus.CANCELLED) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order is cancelled");
-        }
+            if (order.getStatus() == OrderStatus.PENDING || order.getStatus() == OrderStatus.FAILED) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Order has not been placed");
+            }
 
-        order.setStatus(newStatus);
-        Order saved = orderRepository.save(order);
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order is cancelled");
+            }
+
+            order.setStatus(newStatus);
+            return saveAndRecord(order);
+        });
         return toResponse(saved);
     }
 
@@ -227,9 +450,15 @@ public class OrderService {
             if (loaded.getStatus() == OrderStatus.DELIVERED) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Delivered orders cannot be cancelled");
             }
+            if (loaded.getStatus() == OrderStatus.PENDING) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Order is still being placed");
+            }
+            if (loaded.getStatus() == OrderStatus.FAILED) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed orders cannot be cancelled");
+            }
             if (loaded.getStatus() != OrderStatus.CANCELLING) {
                 loaded.setStatus(OrderStatus.CANCELLING);
-                return orderRepository.save(loaded);
+                return saveAndRecord(loaded);
             }
             return loaded;
         });
@@ -244,7 +473,7 @@ public class OrderService {
         InventoryReserveRequest releaseRequest = buildInventoryReleaseRequest(order);
         InventoryReserveResponse releaseResponse;
         try {
-            releaseResponse = inventoryClient.release(releaseRequest);
+            releaseResponse = inventoryClient.release(order.getReservationId(), releaseRequest);
         } catch (Exception ex) {
             log.error("Failed to release inventory for order {}: {}", orderId, ex.getMessage());
             throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory service unavailable");
@@ -254,12 +483,21 @@ public class OrderService {
             throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory release failed");
         }
 
+        String phone = resolvePhone(order.getUserId());
         Order saved = requiresNewTransaction.execute(status -> {
             Order loaded = orderRepository.findById(orderId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
             if (loaded.getStatus() != OrderStatus.CANCELLED) {
                 loaded.setStatus(OrderStatus.CANCELLED);
-                return orderRepository.save(loaded);
+                Order cancelled = saveAndRecord(loaded);
+                orderEventOutbox.enqueue(ORDER_CANCELLED_TOPIC, cancelled.getId(), new OrderCancelledEvent(
+                        cancelled.getId(),
+                        cancelled.getUserId(),
+                        cancelled.getEmail(),
+                        phone,
+                        cancelled.getTotalAmount()
+                ));
+                return cancelled;
             }
             return loaded;
         });
@@ -268,29 +506,29 @@ public class OrderService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Order cancellation failed");
         }
 
+        return toResponse(saved);
+    }
+
+    /**
+     * Once the order is saved its reservation must outlive the inventory-side TTL. This call is
+     * only the fast path: inventory-service also confirms the reservation when it consumes the
+     * order.placed event, which the outbox delivers even if this call fails.
+     */
+    private void confirmReservation(String reservationId) {
         try {
-            String phone = resolvePhone(saved.getUserId());
-            orderCancelledKafkaTemplate.send(
-                    ORDER_CANCELLED_TOPIC,
-                    new OrderCancelledEvent(
-                            saved.getId(),
-                            saved.getUserId(),
-                            saved.getEmail(),
-                            phone,
-                            saved.getTotalAmount()
-                    )
-            ).get(5, TimeUnit.SECONDS);
-        } catch (Exception kafkaEx) {
-            log.error("Failed to send order cancellation event for order {}: {}", saved.getId(), kafkaEx.getMessage());
+            InventoryReserveResponse response = inventoryClient.confirm(reservationId);
+            if (!response.success()) {
+                log.error("Failed to confirm inventory reservation {}: {}", reservationId, response.message());
+            }
+        } catch (Exception ex) {
+            log.error("Failed to confirm inventory reservation {}: {}", reservationId, ex.getMessage());
         }
-
-        return toResponse(saved);
     }
 
-    private void compensateInventoryRelease(InventoryReserveRequest reserveRequest) {
+    private void compensateInventoryRelease(String reservationId, InventoryReserveRequest reserveRequest) {
         log.warn("Order creation failed, executing compensating transaction to release inventory");
         try {
-            InventoryReserveResponse releaseResponse = inventoryClient.release(reserveRequest);
+            InventoryReserveResponse releaseResponse = inventoryClient.release(reservationId, reserveRequest);
             if (releaseResponse.success()) {
                 log.info("Inventory released successfully");
                 return;
@@ -302,7 +540,30 @@ public class OrderService {
         }
     }
 
-    private OrderResponse toResponse(Order order) {
+    /**
+     * Saves the order and records its snapshot for the read model. Must run in a transaction;
+     * the flush assigns the new version that the snapshot carries.
+     */
+    private Order saveAndRecord(Order order) {
+        Order saved = orderRepository.saveAndFlush(order);
+        orderEventOutbox.enqueue(ORDER_SNAPSHOT_TOPIC, saved.getId(), toSnapshotEvent(saved));
+        return saved;
+    }
+
+    private static OrderSnapshotEvent toSnapshotEvent(Order order) {
+        List<OrderSnapshotEvent.Item> items = order.getItems().stream()
+                .map(item -> new OrderSnapshotEvent.Item(
+                        item.getProductId(),
+                        item.getProductName(),
+                        item.getUnitPrice(),
+                        item.getQuantity()
+                ))
+                .toList();
+        return new OrderSnapshotEvent(order.getId(), order.getVersion(), order.getUserId(), order.getEmail(),
+                order.getStatus(), order.getTotalAmount(), order.getCreatedAt(), order.getFailureReason(), items);
+    }
+
+    static OrderResponse toResponse(Order order) {
         List<OrderItemResponse> items = order.getItems().stream()
                 .map(item -> new OrderItemResponse(
                         item.getProductId(),
@@ -311,7 +572,16 @@ public class OrderService {
                         item.getQuantity()
                 ))
                 .toList();
-        return new OrderResponse(order.getId(), order.getEmail(), order.getStatus(), order.getTotalAmount(), order.getCreatedAt(), items);
+        return new OrderResponse(order.getId(), order.getEmail(), order.getStatus(), order.getTotalAmount(),
+                order.getCreatedAt(), items, order.getFailureReason());
+    }
+
+    private static OrderStatusEvent toStatusEvent(Order order) {
+        return new OrderStatusEvent(order.getId(), order.getStatus(), order.getFailureReason());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
 
     private InventoryReserveRequest buildInventoryReleaseRequest(Order order) {
@@ -320,4 +590,7 @@ public class OrderService {
                 .toList();
         return new InventoryReserveRequest(items);
     }
+
+    private record CheckoutContext(String phone, CartSnapshot cart) {
+    }
 }
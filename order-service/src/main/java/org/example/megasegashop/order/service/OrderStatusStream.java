@@ -0,0 +1,123 @@
+package org.example.megasegashop.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.config.CheckoutProperties;
+import org.example.megasegashop.order.dto.OrderStatusEvent;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.repository.OrderRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Server-sent status events for orders going through asynchronous checkout. Each stream starts
+ * with the current status and ends once the order leaves {@link OrderStatus#PENDING}.
+ * <p>
+ * Changes made on this instance are pushed immediately. The saga may also run on another
+ * instance than the one holding the stream, so subscribed orders are polled as well.
+ */
+@Slf4j
+@Component
+public class OrderStatusStream {
+    private static final String EVENT_NAME = "status";
+
+    private final OrderRepository orderRepository;
+    private final CheckoutProperties properties;
+    private final ConcurrentMap<Long, Subscribers> subscribers = new ConcurrentHashMap<>();
+
+    public OrderStatusStream(OrderRepository orderRepository, CheckoutProperties properties) {
+        this.orderRepository = orderRepository;
+        this.properties = properties;
+    }
+
+    public SseEmitter subscribe(OrderStatusEvent current) {
+        SseEmitter emitter = new SseEmitter(properties.getStatusStreamTimeout().toMillis());
+        if (!send(emitter, current) || isSettled(current.status())) {
+            emitter.complete();
+            return emitter;
+        }
+
+        Long orderId = current.orderId();
+        subscribers.compute(orderId, (id, existing) -> {
+            Subscribers subscribed = existing != null ? existing : new Subscribers(current);
+            subscribed.emitters.add(emitter);
+            return subscribed;
+        });
+        Runnable unsubscribe = () -> unsubscribe(orderId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(ex -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * Pushes the status to the order's open streams, if it differs from the last one sent.
+     */
+    public void publish(OrderStatusEvent event) {
+        Subscribers subscribed = subscribers.get(event.orderId());
+        if (subscribed == null || !subscribed.advance(event)) {
+            return;
+        }
+        for (SseEmitter emitter : subscribed.emitters) {
+            if (!send(emitter, event) || isSettled(event.status())) {
+                emitter.complete();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.checkout.status-poll-interval:PT1S}")
+    public void pollSubscribedOrders() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            orderRepository.findStatusesByIdIn(Set.copyOf(subscribers.keySet())).forEach(this::publish);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to poll order statuses: {}", ex.getMessage());
+        }
+    }
+
+    private void unsubscribe(Long orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, subscribed) -> {
+            subscribed.emitters.remove(emitter);
+            return subscribed.emitters.isEmpty() ? null : subscribed;
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, OrderStatusEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping order status stream for order {}: {}", event.orderId(), ex.toString());
+            return false;
+        }
+    }
+
+    private static boolean isSettled(OrderStatus status) {
+        return status != OrderStatus.PENDING;
+    }
+
+    private static final class Subscribers {
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private OrderStatusEvent last;
+
+        private Subscribers(OrderStatusEvent initial) {
+            this.last = initial;
+        }
+
+        synchronized boolean advance(OrderStatusEvent event) {
+            if (Objects.equals(last, event)) {
+                return false;
+            }
+            last = event;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.megasegashop.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.megasegashop.order.dto.OrderItemResponse;
+import org.example.megasegashop.order.entity.OrderView;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
+import org.example.megasegashop.order.repository.OrderViewRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Applies {@code order.snapshot} events to the {@code order_views} read model. Snapshots carry
+ * the whole order, so applying one is idempotent, and a snapshot older than the stored row
+ * (e.g. one re-published by the outbox relay after a failed send) is ignored.
+ */
+@Component
+public class OrderViewProjector {
+    private final OrderViewRepository orderViewRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderViewProjector(OrderViewRepository orderViewRepository, ObjectMapper objectMapper) {
+        this.orderViewRepository = orderViewRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return {@code true} if the view was created or updated
+     */
+    @Transactional
+    public boolean apply(OrderSnapshotEvent event) {
+        OrderView view = orderViewRepository.findById(event.orderId()).orElse(null);
+        if (view != null && view.getVersion() >= event.version()) {
+            return false;
+        }
+        if (view == null) {
+            view = new OrderView();
+            view.setId(event.orderId());
+        }
+        view.setVersion(event.version());
+        view.setUserId(event.userId());
+        view.setEmail(event.email());
+        view.setStatus(event.status());
+        view.setTotalAmount(event.totalAmount());
+        view.setCreatedAt(event.createdAt());
+        view.setFailureReason(event.failureReason());
+        view.setItems(toJson(event.orderId(), event.items()));
+        orderViewRepository.save(view);
+        return true;
+    }
+
+    private String toJson(Long orderId, List<OrderSnapshotEvent.Item> items) {
+        List<OrderItemResponse> embedded = items == null ? List.of() : items.stream()
+                .map(item -> new OrderItemResponse(
+                        item.productId(),
+                        item.productName(),
+                        item.unitPrice(),
+                        item.quantity()
+                ))
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(embedded);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize items of order " + orderId, ex);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.megasegashop.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.order.config.OutboxProperties;
+import org.example.megasegashop.order.entity.OutboxEvent;
+import org.example.megasegashop.order.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox rows to Kafka in batches.
+ * <p>
+ * Each poll locks up to {@code order.outbox.batch-size} unsent rows with {@code SKIP LOCKED},
+ * sends them all before waiting on any acknowledgement and marks the acknowledged rows as sent
+ * in one statement. Delivery is at-least-once: a crash between send and commit re-publishes
+ * the batch, which consumers already de-duplicate by order id. A failed event is retried with
+ * exponential backoff and dead-lettered after {@code order.outbox.max-attempts}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaTemplate<String, String> outboxKafkaTemplate,
+            OutboxProperties properties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:200}")
+    public void relay() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> publishBatch(batchSize));
+        } while (published != null && published == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(before));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} sent outbox event(s)", deleted);
+        }
+    }
+
+    private int publishBatch(int batchSize) {
+        List<OutboxEvent> batch = outboxEventRepository.lockUnsentBatch(batchSize, Instant.now());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(outboxKafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+        }
+        outboxKafkaTemplate.flush();
+
+        // The batch's row locks are held while waiting, so the whole batch shares one deadline.
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // Each send's own outcome is read below.
+        }
+
+        List<Long> sent = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            CompletableFuture<SendResult<String, String>> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                sent.add(event.getId());
+                continue;
+            }
+            String reason = future.isDone() ? future.exceptionNow().getMessage() : "no acknowledgement before the deadline";
+            log.warn("Failed to publish outbox event {} to {}: {}", event.getId(), event.getTopic(), reason);
+            failed.add(event);
+        }
+
+        if (!sent.isEmpty()) {
+            outboxEventRepository.markSent(sent, Instant.now());
+        }
+        if (!failed.isEmpty()) {
+            recordFailures(failed);
+        }
+        return failed.isEmpty() ? sent.size() : 0;
+    }
+
+    /**
+     * Backs each failed event off exponentially by its number of attempts, or dead-letters it
+     * once it has used up {@code order.outbox.max-attempts}.
+     */
+    private void recordFailures(List<OutboxEvent> failed) {
+        Instant now = Instant.now();
+        List<Long> dead = new ArrayList<>();
+        Map<Instant, List<Long>> retries = new HashMap<>();
+        for (OutboxEvent event : failed) {
+            int attempts = event.getAttempts() + 1;
+            if (attempts >= properties.getMaxAttempts()) {
+                log.error("Dead-lettering outbox event {} to {} after {} failed attempts",
+                        event.getId(), event.getTopic(), attempts);
+                dead.add(event.getId());
+            } else {
+                retries.computeIfAbsent(now.plus(backoff(attempts)), at -> new ArrayList<>()).add(event.getId());
+            }
+        }
+        if (!dead.isEmpty()) {
+            outboxEventRepository.deadLetter(dead, now);
+        }
+        retries.forEach((nextAttemptAt, ids) -> outboxEventRepository.scheduleRetry(ids, nextAttemptAt));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : backoff;
+    }
+}
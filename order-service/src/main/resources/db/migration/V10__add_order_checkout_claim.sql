@@ -0,0 +1,4 @@
+-- Lease on a PENDING order's checkout, taken by the worker running it; see OrderService.processPendingOrder.
+ALTER TABLE orders
+    ADD COLUMN IF NOT EXISTS checkout_claim VARCHAR(36),
+    ADD COLUMN IF NOT EXISTS checkout_claim_expires_at TIMESTAMP;
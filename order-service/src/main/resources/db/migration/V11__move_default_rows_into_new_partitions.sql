@@ -0,0 +1,30 @@
+-- create_orders_partition used to fail for good once orders for that month had landed in
+-- orders_default, since PostgreSQL refuses a partition whose rows the default partition holds.
+-- The partition is now built as a plain table, those rows are moved into it, and it is then
+-- attached. Returns how many rows were moved.
+DROP FUNCTION IF EXISTS create_orders_partition(DATE);
+
+CREATE FUNCTION create_orders_partition(for_month DATE) RETURNS BIGINT AS $$
+DECLARE
+    start_date DATE := date_trunc('month', for_month)::date;
+    end_date DATE := (date_trunc('month', for_month) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'orders_' || to_char(start_date, 'YYYY_MM');
+    moved BIGINT;
+BEGIN
+    -- Instances maintaining partitions at the same time take turns
+    PERFORM pg_advisory_xact_lock(hashtext('create_orders_partition'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN 0;
+    END IF;
+
+    -- Keeps new rows for this month out of the default partition until the partition is attached
+    LOCK TABLE orders_default IN EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM orders_default WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', start_date, end_date, partition_name);
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    EXECUTE format('ALTER TABLE orders ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, start_date, end_date);
+    RETURN moved;
+END;
+$$ LANGUAGE plpgsql;
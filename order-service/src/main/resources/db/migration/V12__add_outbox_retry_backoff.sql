@@ -0,0 +1,8 @@
+-- Failed sends back off until next_attempt_at; after order.outbox.max-attempts the row is dead-lettered
+-- and left for an operator instead of being retried on every poll.
+ALTER TABLE outbox
+    ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS dead_lettered_at TIMESTAMP;
+
+DROP INDEX IF EXISTS idx_outbox_unsent;
+CREATE INDEX idx_outbox_unsent ON outbox(id) WHERE sent_at IS NULL AND dead_lettered_at IS NULL;
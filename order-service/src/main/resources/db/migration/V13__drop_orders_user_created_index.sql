@@ -0,0 +1,3 @@
+-- Order history is served from order_views since V7, so nothing reads orders by user any more and
+-- the per-partition (user_id, created_at, id) index only cost every checkout insert.
+DROP INDEX IF EXISTS idx_orders_user_created;
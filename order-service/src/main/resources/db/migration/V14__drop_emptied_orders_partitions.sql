@@ -0,0 +1,36 @@
+-- The primary key of the partitioned orders table has to include created_at, so a lookup by id
+-- alone cannot be pruned and probes the primary key index of every partition. Id lookups are
+-- kept rather than carrying created_at through the API and the checkout queue; instead the
+-- number of live partitions is bounded: OrderArchiveService moves closed orders out once they
+-- pass the retention, and OrderPartitionMaintainer detaches and drops the months this leaves
+-- empty. A month still holding an open order is kept.
+CREATE FUNCTION drop_empty_orders_partitions(before_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    partition_name TEXT;
+    is_empty BOOLEAN;
+    dropped INTEGER := 0;
+BEGIN
+    -- Shares the lock with create_orders_partition
+    PERFORM pg_advisory_xact_lock(hashtext('create_orders_partition'));
+    FOR partition_name IN
+        SELECT child.relname
+        FROM pg_inherits
+                 JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                 JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'orders'
+          AND child.relname ~ '^orders_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(child.relname, 8), 'YYYY_MM') < date_trunc('month', before_month)::date
+        ORDER BY child.relname
+    LOOP
+        -- Blocks inserts and moves into the month until it is gone
+        EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', partition_name);
+        EXECUTE format('SELECT NOT EXISTS (SELECT 1 FROM %I)', partition_name) INTO is_empty;
+        IF is_empty THEN
+            EXECUTE format('ALTER TABLE orders DETACH PARTITION %I', partition_name);
+            EXECUTE format('DROP TABLE %I', partition_name);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,11 @@
+CREATE TABLE idempotency_keys (
+    scoped_key VARCHAR(320) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INTEGER,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Purge job deletes expired keys.
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
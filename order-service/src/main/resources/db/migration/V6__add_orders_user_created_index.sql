@@ -0,0 +1,4 @@
+-- Order history is read per user newest first and keyset-paginated on (created_at, id).
+-- The composite index serves those pages and plain user_id lookups, so it replaces idx_orders_user_id.
+CREATE INDEX idx_orders_user_created ON orders(user_id, created_at DESC, id DESC);
+DROP INDEX idx_orders_user_id;
@@ -0,0 +1,32 @@
+-- Optimistic lock version; order.snapshot events carry it so the read model can drop stale snapshots.
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Read model: one row per order with its items embedded, written only from order.snapshot events.
+CREATE TABLE order_views (
+    id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    user_id BIGINT,
+    email VARCHAR(255),
+    status VARCHAR(32),
+    total_amount NUMERIC(19, 2),
+    created_at TIMESTAMP,
+    failure_reason VARCHAR(255),
+    items TEXT NOT NULL
+);
+
+CREATE INDEX idx_order_views_user_created ON order_views(user_id, created_at DESC, id DESC);
+
+-- Seed the read model with orders placed before it existed.
+INSERT INTO order_views (id, version, user_id, email, status, total_amount, created_at, failure_reason, items)
+SELECT o.id, o.version, o.user_id, o.email, o.status, o.total_amount, o.created_at, o.failure_reason,
+       COALESCE((
+           SELECT json_agg(json_build_object(
+                   'productId', i.product_id,
+                   'productName', i.product_name,
+                   'unitPrice', i.unit_price,
+                   'quantity', i.quantity
+                  ) ORDER BY i.id)::text
+           FROM order_items i
+           WHERE i.order_id = o.id
+       ), '[]')
+FROM orders o;
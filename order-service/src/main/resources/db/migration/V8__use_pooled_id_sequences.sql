@@ -0,0 +1,16 @@
+-- Ids are allocated by Hibernate in blocks of 50 (pooled-lo) instead of by BIGSERIAL defaults,
+-- so inserts can be batched. INCREMENT BY must match allocationSize on the entities.
+CREATE SEQUENCE orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 1, false);
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE orders_id_seq;
+
+CREATE SEQUENCE order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
+ALTER TABLE order_items ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE order_items_id_seq;
+
+CREATE SEQUENCE outbox_seq INCREMENT BY 50;
+SELECT setval('outbox_seq', COALESCE((SELECT MAX(id) FROM outbox), 0) + 1, false);
+ALTER TABLE outbox ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE outbox_id_seq;
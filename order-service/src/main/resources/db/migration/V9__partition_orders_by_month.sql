@@ -0,0 +1,77 @@
+-- Range-partition orders by created_at month so that indexes stay per-month and old months can
+-- be emptied by the archival job without bloating the indexes checkout writes to.
+
+-- A foreign key to a partitioned table must include the partition key; order_items only has the
+-- order id, so item rows are now removed together with their order by the application.
+ALTER TABLE order_items DROP CONSTRAINT IF EXISTS order_items_order_id_fkey;
+
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+ALTER TABLE orders_unpartitioned RENAME CONSTRAINT orders_pkey TO orders_unpartitioned_pkey;
+DROP INDEX idx_orders_user_created;
+DROP INDEX idx_orders_email;
+DROP INDEX idx_orders_status;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL,
+    user_id BIGINT,
+    email VARCHAR(255),
+    status VARCHAR(32),
+    total_amount NUMERIC(19, 2),
+    created_at TIMESTAMP NOT NULL,
+    reservation_id VARCHAR(64),
+    failure_reason VARCHAR(255),
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside every monthly partition; stays empty while partitions are created ahead.
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+
+-- Called from here and by OrderPartitionMaintainer; safe to call repeatedly for the same month.
+CREATE OR REPLACE FUNCTION create_orders_partition(for_month DATE) RETURNS VOID AS $$
+DECLARE
+    start_date DATE := date_trunc('month', for_month)::date;
+    end_date DATE := (date_trunc('month', for_month) + INTERVAL '1 month')::date;
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                   'orders_' || to_char(start_date, 'YYYY_MM'), start_date, end_date);
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    partition_month DATE;
+BEGIN
+    FOR partition_month IN
+        SELECT generate_series(
+                       date_trunc('month', COALESCE((SELECT MIN(created_at) FROM orders_unpartitioned), now())),
+                       date_trunc('month', now()) + INTERVAL '3 months',
+                       INTERVAL '1 month')::date
+    LOOP
+        PERFORM create_orders_partition(partition_month);
+    END LOOP;
+END;
+$$;
+
+-- History pages per user; pending sweep and archival scan by status and age.
+CREATE INDEX idx_orders_user_created ON orders(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_status_created ON orders(status, created_at);
+
+INSERT INTO orders (id, user_id, email, status, total_amount, created_at, reservation_id, failure_reason, version)
+SELECT id, user_id, email, status, total_amount, COALESCE(created_at, now()), reservation_id, failure_reason, version
+FROM orders_unpartitioned;
+
+DROP TABLE orders_unpartitioned;
+
+-- Closed orders past the retention window, moved here by OrderArchiveService. The document is
+-- the gzip-compressed order JSON, so TOAST compression is skipped for it.
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT,
+    status VARCHAR(32),
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    document BYTEA NOT NULL
+);
+
+ALTER TABLE orders_archive ALTER COLUMN document SET STORAGE EXTERNAL;
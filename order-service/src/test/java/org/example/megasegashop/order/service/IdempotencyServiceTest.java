@@ -0,0 +1,151 @@
+package org.example.megasegashop.order.service;
+
+import org.example.megasegashop.order.client.CartClient;
+import org.example.megasegashop.order.client.InventoryClient;
+import org.example.megasegashop.order.client.UserProfileClient;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.dto.PlaceOrderRequest;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.event.OrderCancelledEvent;
+import org.example.megasegashop.order.event.OrderPlacedEvent;
+import org.example.megasegashop.order.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private CartClient cartClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private UserProfileClient userProfileClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void placeOnce_duplicateReplaysFirstResponse() {
+        PlaceOrderRequest request = new PlaceOrderRequest(1L, "test@test.com");
+        AtomicInteger placements = new AtomicInteger();
+        Supplier<ResponseEntity<OrderResponse>> placement = () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(order(placements.incrementAndGet()));
+
+        ResponseEntity<OrderResponse> first = idempotencyService.placeOnce("key-1", request, "sync", placement);
+        ResponseEntity<OrderResponse> second = idempotencyService.placeOnce("key-1", request, "sync", placement);
+
+        assertEquals(1, placements.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void placeOnce_sameKeyForDifferentRequest_throwsUnprocessableEntity() {
+        idempotencyService.placeOnce("key-1", new PlaceOrderRequest(1L, "test@test.com"), "sync",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(order(1L)));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> idempotencyService.placeOnce("key-1", new PlaceOrderRequest(1L, "other@test.com"), "sync",
+                        () -> fail("Placement must not run")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatusCode());
+    }
+
+    @Test
+    void placeOnce_keysAreScopedPerUser() {
+        AtomicInteger placements = new AtomicInteger();
+        Supplier<ResponseEntity<OrderResponse>> placement = () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(order(placements.incrementAndGet()));
+
+        idempotencyService.placeOnce("key-1", new PlaceOrderRequest(1L, "test@test.com"), "sync", placement);
+        idempotencyService.placeOnce("key-1", new PlaceOrderRequest(2L, "test@test.com"), "sync", placement);
+
+        assertEquals(2, placements.get());
+    }
+
+    @Test
+    void placeOnce_failedPlacementReleasesKey() {
+        PlaceOrderRequest request = new PlaceOrderRequest(1L, "test@test.com");
+
+        assertThrows(ResponseStatusException.class, () -> idempotencyService.placeOnce("key-1", request, "sync", () -> {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock");
+        }));
+        ResponseEntity<OrderResponse> retry = idempotencyService.placeOnce("key-1", request, "sync",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(order(1L)));
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void placeOnce_concurrentDuplicateWaitsForFirstResponse() throws Exception {
+        PlaceOrderRequest request = new PlaceOrderRequest(1L, "test@test.com");
+        AtomicInteger placements = new AtomicInteger();
+        CountDownLatch placementStarted = new CountDownLatch(1);
+        CountDownLatch releasePlacement = new CountDownLatch(1);
+        Supplier<ResponseEntity<OrderResponse>> placement = () -> {
+            placements.incrementAndGet();
+            placementStarted.countDown();
+            try {
+                releasePlacement.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(order(1L));
+        };
+
+        CompletableFuture<ResponseEntity<OrderResponse>> first = CompletableFuture.supplyAsync(
+                () -> idempotencyService.placeOnce("key-1", request, "sync", placement));
+        assertTrue(placementStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<OrderResponse>> duplicate = CompletableFuture.supplyAsync(
+                () -> idempotencyService.placeOnce("key-1", request, "sync", placement));
+        releasePlacement.countDown();
+
+        assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+        ResponseEntity<OrderResponse> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, placements.get());
+    }
+
+    private static OrderResponse order(long orderId) {
+        return new OrderResponse(orderId, "test@test.com", OrderStatus.PLACED, new BigDecimal("20.00"),
+                Instant.now().truncatedTo(ChronoUnit.MILLIS), List.of(), null);
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.megasegashop.order.service;
+
+import org.example.megasegashop.order.client.CartClient;
+import org.example.megasegashop.order.client.InventoryClient;
+import org.example.megasegashop.order.client.UserProfileClient;
+import org.example.megasegashop.order.config.ArchiveProperties;
+import org.example.megasegashop.order.dto.OrderItemResponse;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.entity.Order;
+import org.example.megasegashop.order.entity.OrderItem;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.event.OrderCancelledEvent;
+import org.example.megasegashop.order.event.OrderPlacedEvent;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
+import org.example.megasegashop.order.repository.ArchivedOrderRepository;
+import org.example.megasegashop.order.repository.OrderRepository;
+import org.example.megasegashop.order.repository.OrderViewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderArchiveServiceTest {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderViewProjector orderViewProjector;
+
+    @Autowired
+    private ArchiveProperties archiveProperties;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @MockBean
+    private CartClient cartClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private UserProfileClient userProfileClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate;
+
+    private Duration retention;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        archivedOrderRepository.deleteAll();
+        retention = archiveProperties.getRetention();
+        // Every order created so far is past retention
+        archiveProperties.setRetention(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveProperties.setRetention(retention);
+    }
+
+    @Test
+    void archiveClosedOrders_movesOnlyClosedOrders() {
+        Order delivered = saveOrder(OrderStatus.DELIVERED);
+        Order cancelled = saveOrder(OrderStatus.CANCELLED);
+        Order shipped = saveOrder(OrderStatus.SHIPPED);
+        orderViewProjector.apply(new OrderSnapshotEvent(delivered.getId(), delivered.getVersion(), 1L,
+                "archive@test.com", OrderStatus.DELIVERED, delivered.getTotalAmount(), delivered.getCreatedAt(),
+                null, List.of()));
+
+        orderArchiveService.archiveClosedOrders();
+
+        assertTrue(orderRepository.findById(delivered.getId()).isEmpty());
+        assertTrue(orderRepository.findById(cancelled.getId()).isEmpty());
+        assertTrue(orderRepository.findById(shipped.getId()).isPresent());
+        // History still lists the archived order
+        assertEquals(OrderStatus.DELIVERED, orderViewRepository.findById(delivered.getId()).orElseThrow().getStatus());
+        assertEquals(2, archivedOrderRepository.count());
+    }
+
+    @Test
+    void getOrder_readsArchivedOrderWithItems() {
+        Order delivered = saveOrder(OrderStatus.DELIVERED);
+
+        orderArchiveService.archiveClosedOrders();
+
+        OrderResponse order = orderService.getOrder(delivered.getId());
+        assertEquals(OrderStatus.DELIVERED, order.status());
+        assertEquals("archive@test.com", order.email());
+        assertEquals(List.of(new OrderItemResponse(4040L, "Game", new BigDecimal("10.00"), 2)), order.items());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.getOrder(Long.MAX_VALUE));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    private Order saveOrder(OrderStatus status) {
+        Order order = new Order();
+        order.setUserId(1L);
+        order.setEmail("archive@test.com");
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("20.00"));
+        order.setItems(new ArrayList<>());
+        OrderItem item = new OrderItem();
+        item.setProductId(4040L);
+        item.setProductName("Game");
+        item.setUnitPrice(new BigDecimal("10.00"));
+        item.setQuantity(2);
+        item.setOrder(order);
+        order.getItems().add(item);
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.megasegashop.order.service;
+
+import org.example.megasegashop.order.client.CartClient;
+import org.example.megasegashop.order.client.InventoryClient;
+import org.example.megasegashop.order.client.UserProfileClient;
+import org.example.megasegashop.order.dto.OrderHistoryPageResponse;
+import org.example.megasegashop.order.dto.OrderSummary;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.event.OrderCancelledEvent;
+import org.example.megasegashop.order.event.OrderPlacedEvent;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
+import org.example.megasegashop.order.repository.OrderViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderHistoryServiceTest {
+
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    @Autowired
+    private OrderViewProjector orderViewProjector;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @MockBean
+    private CartClient cartClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private UserProfileClient userProfileClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate;
+
+    private long nextOrderId;
+    private Instant nextCreatedAt;
+
+    @BeforeEach
+    void setUp() {
+        orderViewRepository.deleteAll();
+        nextOrderId = 1;
+        nextCreatedAt = Instant.parse("2026-01-01T00:00:00Z");
+    }
+
+    @Test
+    void getOrderHistory_pagesThroughAllOrdersNewestFirst() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, projectOrder(1L, OrderStatus.PLACED));
+        }
+        projectOrder(2L, OrderStatus.PLACED);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderHistoryPageResponse page = orderHistoryService.getOrderHistory(1L, null, null, null, 2, cursor);
+            page.items().stream().map(OrderSummary::orderId).forEach(seen::add);
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void getOrderHistory_filtersByStatusAndCreationTime() {
+        projectOrder(1L, OrderStatus.CANCELLED);
+        Long placed = projectOrder(1L, OrderStatus.PLACED);
+
+        OrderHistoryPageResponse byStatus = orderHistoryService.getOrderHistory(
+                1L, OrderStatus.PLACED, null, null, null, null);
+        assertEquals(List.of(placed), byStatus.items().stream().map(OrderSummary::orderId).toList());
+        assertNull(byStatus.nextCursor());
+
+        OrderHistoryPageResponse inFuture = orderHistoryService.getOrderHistory(
+                1L, null, nextCreatedAt, null, null, null);
+        assertTrue(inFuture.items().isEmpty());
+    }
+
+    @Test
+    void getOrderHistory_rejectsInvalidInput() {
+        ResponseStatusException badCursor = assertThrows(ResponseStatusException.class,
+                () -> orderHistoryService.getOrderHistory(1L, null, null, null, null, "not-a-cursor"));
+        assertEquals(HttpStatus.BAD_REQUEST, badCursor.getStatusCode());
+
+        Instant now = Instant.now();
+        ResponseStatusException badRange = assertThrows(ResponseStatusException.class,
+                () -> orderHistoryService.getOrderHistory(1L, null, now, now, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, badRange.getStatusCode());
+    }
+
+    private Long projectOrder(Long userId, OrderStatus status) {
+        Long orderId = nextOrderId++;
+        orderViewProjector.apply(new OrderSnapshotEvent(orderId, 0L, userId, "test@test.com", status,
+                new BigDecimal("10.00"), nextCreatedAt, null, List.of()));
+        nextCreatedAt = nextCreatedAt.plusSeconds(1);
+        return orderId;
+    }
+}
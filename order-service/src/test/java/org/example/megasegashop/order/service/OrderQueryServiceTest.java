@@ -0,0 +1,143 @@
+package org.example.megasegashop.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.megasegashop.order.client.CartClient;
+import org.example.megasegashop.order.client.InventoryClient;
+import org.example.megasegashop.order.client.UserProfileClient;
+import org.example.megasegashop.order.dto.CartItemSnapshot;
+import org.example.megasegashop.order.dto.CartSnapshot;
+import org.example.megasegashop.order.dto.OrderItemResponse;
+import org.example.megasegashop.order.dto.OrderResponse;
+import org.example.megasegashop.order.dto.PlaceOrderRequest;
+import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.entity.OutboxEvent;
+import org.example.megasegashop.order.event.OrderCancelledEvent;
+import org.example.megasegashop.order.event.OrderPlacedEvent;
+import org.example.megasegashop.order.event.OrderSnapshotEvent;
+import org.example.megasegashop.order.repository.OrderRepository;
+import org.example.megasegashop.order.repository.OrderViewRepository;
+import org.example.megasegashop.order.repository.OutboxEventRepository;
+import org.example.megasegashop.shared.dto.InventoryReserveResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class OrderQueryServiceTest {
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderViewProjector orderViewProjector;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CartClient cartClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private UserProfileClient userProfileClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void getOrder_servesProjectedSnapshotWithItems() throws Exception {
+        OrderResponse placed = placeOrder(30L);
+        orderService.updateStatus(placed.orderId(), OrderStatus.SHIPPED);
+
+        projectOutbox();
+
+        OrderResponse view = orderQueryService.getOrder(placed.orderId());
+        assertEquals(OrderStatus.SHIPPED, view.status());
+        assertEquals(List.of(new OrderItemResponse(3030L, "Game", new BigDecimal("10.00"), 2)), view.items());
+        assertEquals(List.of(placed.orderId()),
+                orderQueryService.getOrdersByUserId(30L).stream().map(OrderResponse::orderId).toList());
+    }
+
+    @Test
+    void apply_ignoresSnapshotOlderThanView() {
+        OrderSnapshotEvent shipped = snapshot(1L, 2L, OrderStatus.SHIPPED);
+        OrderSnapshotEvent placed = snapshot(1L, 1L, OrderStatus.PLACED);
+
+        assertTrue(orderViewProjector.apply(shipped));
+        assertFalse(orderViewProjector.apply(placed));
+        assertFalse(orderViewProjector.apply(shipped));
+
+        assertEquals(OrderStatus.SHIPPED, orderQueryService.getOrder(1L).status());
+    }
+
+    @Test
+    void getOrder_notYetProjected_readsWriteModel() {
+        OrderResponse placed = placeOrder(31L);
+
+        OrderResponse order = orderQueryService.getOrder(placed.orderId());
+
+        assertEquals(OrderStatus.PLACED, order.status());
+        assertTrue(orderViewRepository.findById(placed.orderId()).isEmpty());
+        assertTrue(orderQueryService.getOrdersByUserId(31L).isEmpty());
+    }
+
+    private OrderResponse placeOrder(Long userId) {
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(userId * 101, "Game", new BigDecimal("10.00"), 2)),
+                new BigDecimal("20.00")
+        ));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+        return orderService.placeOrder(new PlaceOrderRequest(userId, "read-model@test.com"));
+    }
+
+    /**
+     * Stands in for the outbox relay and the Kafka listener.
+     */
+    private void projectOutbox() throws Exception {
+        for (OutboxEvent event : outboxEventRepository.findAll()) {
+            if (event.getTopic().equals("order.snapshot")) {
+                orderViewProjector.apply(objectMapper.readValue(event.getPayload(), OrderSnapshotEvent.class));
+            }
+        }
+    }
+
+    private static OrderSnapshotEvent snapshot(Long orderId, Long version, OrderStatus status) {
+        return new OrderSnapshotEvent(orderId, version, 1L, "test@test.com", status, new BigDecimal("10.00"),
+                null, null, List.of());
+    }
+}
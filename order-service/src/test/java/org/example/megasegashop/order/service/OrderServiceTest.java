@@ -2,6 +2,7 @@ package org.example.megasegashop.order.service;
 
 import org.example.megasegashop.order.client.CartClient;
 import org.example.megasegashop.order.client.InventoryClient;
+import org.example.megasegashop.order.client.InventoryClientFallback;
 import org.example.megasegashop.order.client.UserProfileClient;
 import org.example.megasegashop.order.dto.CartItemSnapshot;
 import org.example.megasegashop.order.dto.CartSnapshot;
@@ -10,23 +11,33 @@ import org.example.megasegashop.order.dto.OrderResponse;
 import org.example.megasegashop.order.dto.UserProfileSnapshot;
 import org.example.megasegashop.order.entity.Order;
 import org.example.megasegashop.order.entity.OrderStatus;
+import org.example.megasegashop.order.entity.OutboxEvent;
 import org.example.megasegashop.order.event.OrderCancelledEvent;
 import org.example.megasegashop.order.event.OrderPlacedEvent;
 import org.example.megasegashop.order.repository.OrderRepository;
+import org.example.megasegashop.order.repository.OutboxEventRepository;
 import org.example.megasegashop.shared.dto.InventoryReserveResponse;
 import org.springframework.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +52,12 @@ class OrderServiceTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @MockBean
     private CartClient cartClient;
 
@@ -59,6 +76,7 @@ class OrderServiceTest {
     @BeforeEach
     void setUp() {
         orderRepository.deleteAll();
+        outboxEventRepository.deleteAll();
     }
 
     @Test
@@ -104,7 +122,7 @@ class OrderServiceTest {
                 List.of(new CartItemSnapshot(101L, "Game", BigDecimal.TEN, 1)),
                 BigDecimal.TEN
         ));
-        when(inventoryClient.reserve(any())).thenReturn(new InventoryReserveResponse(false, "Insufficient stock"));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(false, "Insufficient stock"));
 
         PlaceOrderRequest request = new PlaceOrderRequest(userId, "reserve-fail@test.com");
 
@@ -112,7 +130,29 @@ class OrderServiceTest {
                 () -> orderService.placeOrder(request));
 
         assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
-        verify(inventoryClient, never()).release(any());
+        verify(inventoryClient, never()).release(any(), any());
+    }
+
+    @Test
+    void placeOrder_whenInventoryUnavailable_releasesByReservationIdAndAnswers503() {
+        Long userId = 12L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(101L, "Game", BigDecimal.TEN, 1)),
+                BigDecimal.TEN
+        ));
+        ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+        when(inventoryClient.reserve(reservationId.capture(), any()))
+                .thenAnswer(invocation -> new InventoryClientFallback().reserve(invocation.getArgument(0), invocation.getArgument(1)));
+        when(inventoryClient.release(any(), any())).thenReturn(new InventoryReserveResponse(true, "Released"));
+
+        PlaceOrderRequest request = new PlaceOrderRequest(userId, "unavailable@test.com");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.placeOrder(request));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        verify(inventoryClient).release(eq(reservationId.getValue()), any());
     }
 
     @Test
@@ -125,14 +165,78 @@ class OrderServiceTest {
         ));
         when(userProfileClient.getByAuthUserId(userId))
                 .thenReturn(new UserProfileSnapshot(1L, userId, "persist-fail@test.com", null));
-        when(inventoryClient.reserve(any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
-        when(inventoryClient.release(any())).thenReturn(new InventoryReserveResponse(true, "Released"));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+        when(inventoryClient.release(any(), any())).thenReturn(new InventoryReserveResponse(true, "Released"));
 
         PlaceOrderRequest request = new PlaceOrderRequest(userId, "persist-fail@test.com");
 
         assertThrows(ResponseStatusException.class, () -> orderService.placeOrder(request));
 
-        verify(inventoryClient).release(any());
+        verify(inventoryClient).release(any(), any());
+    }
+
+    @Test
+    void placeOrder_success_recordsOrderPlacedInOutbox() {
+        Long userId = 13L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(303L, "Game", BigDecimal.TEN, 2)),
+                BigDecimal.valueOf(20)
+        ));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+
+        OrderResponse response = orderService.placeOrder(new PlaceOrderRequest(userId, "outbox@test.com"));
+
+        List<OutboxEvent> events = lifecycleEvents();
+        assertEquals(1, events.size());
+        assertEquals("order.placed", events.get(0).getTopic());
+        assertEquals(response.orderId().toString(), events.get(0).getMessageKey());
+        assertNull(events.get(0).getSentAt());
+        verifyNoInteractions(orderPlacedKafkaTemplate);
+    }
+
+    @Test
+    void placeOrder_remoteCallsRunOutsideTransaction() {
+        Long userId = 14L;
+        when(cartClient.getCart(userId)).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return new CartSnapshot(userId, List.of(new CartItemSnapshot(404L, "Game", BigDecimal.TEN, 1)), BigDecimal.TEN);
+        });
+        when(inventoryClient.reserve(any(), any())).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return new InventoryReserveResponse(true, "Reserved");
+        });
+        doAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        }).when(cartClient).clearCart(userId);
+
+        OrderResponse response = orderService.placeOrder(new PlaceOrderRequest(userId, "no-tx@test.com"));
+
+        assertEquals(OrderStatus.PLACED, response.status());
+        verify(cartClient).clearCart(userId);
+    }
+
+    @Test
+    void placeOrder_fetchesCartAndPhoneConcurrently() {
+        Long userId = 15L;
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(userProfileClient.getByAuthUserId(userId)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(2, TimeUnit.SECONDS));
+            return new UserProfileSnapshot(1L, userId, "parallel@test.com", "+100200300");
+        });
+        when(cartClient.getCart(userId)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(2, TimeUnit.SECONDS));
+            return new CartSnapshot(userId, List.of(new CartItemSnapshot(505L, "Game", BigDecimal.TEN, 1)), BigDecimal.TEN);
+        });
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+
+        OrderResponse response = orderService.placeOrder(new PlaceOrderRequest(userId, "parallel@test.com"));
+
+        assertEquals(OrderStatus.PLACED, response.status());
+        assertTrue(lifecycleEvents().get(0).getPayload().contains("+100200300"));
     }
 
     @Test
@@ -144,12 +248,242 @@ class OrderServiceTest {
         order.setTotalAmount(BigDecimal.valueOf(50));
         Order saved = orderRepository.save(order);
 
-        when(inventoryClient.release(any())).thenReturn(new InventoryReserveResponse(true, "Released"));
+        when(inventoryClient.release(any(), any())).thenReturn(new InventoryReserveResponse(true, "Released"));
 
         OrderResponse response = orderService.cancelOrder(saved.getId());
 
         assertEquals(OrderStatus.CANCELLED, response.status());
         Order reloaded = orderRepository.findById(saved.getId()).orElseThrow();
         assertEquals(OrderStatus.CANCELLED, reloaded.getStatus());
+        assertEquals(List.of("order.cancelled"),
+                lifecycleEvents().stream().map(OutboxEvent::getTopic).toList());
+    }
+
+    @Test
+    void placeOrder_usesOneReservationIdForReserveConfirmAndCancel() {
+        Long userId = 16L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(606L, "Game", BigDecimal.TEN, 1)),
+                BigDecimal.TEN
+        ));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+        when(inventoryClient.confirm(any())).thenReturn(new InventoryReserveResponse(true, "Confirmed"));
+        when(inventoryClient.release(any(), any())).thenReturn(new InventoryReserveResponse(true, "Released"));
+
+        OrderResponse placed = orderService.placeOrder(new PlaceOrderRequest(userId, "saga@test.com"));
+
+        ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+        verify(inventoryClient).reserve(reservationId.capture(), any());
+        assertNotNull(reservationId.getValue());
+        verify(inventoryClient).confirm(reservationId.getValue());
+        assertEquals(reservationId.getValue(),
+                orderRepository.findById(placed.orderId()).orElseThrow().getReservationId());
+
+        orderService.cancelOrder(placed.orderId());
+        verify(inventoryClient).release(eq(reservationId.getValue()), any());
+    }
+
+    @Test
+    void acceptOrder_storesPendingOrderWithoutReserving() {
+        Long userId = 17L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(707L, "Game", BigDecimal.TEN, 2)),
+                BigDecimal.valueOf(20)
+        ));
+
+        OrderResponse accepted = orderService.acceptOrder(new PlaceOrderRequest(userId, "async@test.com"));
+
+        assertEquals(OrderStatus.PENDING, accepted.status());
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(accepted.totalAmount()));
+        assertNotNull(orderRepository.findById(accepted.orderId()).orElseThrow().getReservationId());
+        verifyNoInteractions(inventoryClient);
+        assertTrue(lifecycleEvents().isEmpty());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.cancelOrder(accepted.orderId()));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void processPendingOrder_placesOrderUnderItsReservationId() {
+        Long userId = 18L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(808L, "Game", BigDecimal.TEN, 1)),
+                BigDecimal.TEN
+        ));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+        when(inventoryClient.confirm(any())).thenReturn(new InventoryReserveResponse(true, "Confirmed"));
+        OrderResponse accepted = orderService.acceptOrder(new PlaceOrderRequest(userId, "async-ok@test.com"));
+        String reservationId = orderRepository.findById(accepted.orderId()).orElseThrow().getReservationId();
+
+        orderService.processPendingOrder(accepted.orderId());
+        orderService.processPendingOrder(accepted.orderId());
+
+        assertEquals(OrderStatus.PLACED, orderService.getOrder(accepted.orderId()).status());
+        verify(inventoryClient, times(1)).reserve(eq(reservationId), any());
+        verify(inventoryClient).confirm(reservationId);
+        verify(cartClient).clearCart(userId);
+        assertEquals(List.of("order.placed"),
+                lifecycleEvents().stream().map(OutboxEvent::getTopic).toList());
+    }
+
+    @Test
+    void processPendingOrder_whenReserveFails_marksOrderFailed() {
+        Long userId = 19L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(909L, "Game", BigDecimal.TEN, 1)),
+                BigDecimal.TEN
+        ));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(false, "Insufficient stock"));
+        OrderResponse accepted = orderService.acceptOrder(new PlaceOrderRequest(userId, "async-fail@test.com"));
+
+        orderService.processPendingOrder(accepted.orderId());
+
+        OrderResponse failed = orderService.getOrder(accepted.orderId());
+        assertEquals(OrderStatus.FAILED, failed.status());
+        assertEquals("Insufficient stock", failed.failureReason());
+        verify(inventoryClient, never()).release(any(), any());
+        verify(cartClient, never()).clearCart(any());
+        assertTrue(lifecycleEvents().isEmpty());
+    }
+
+    @Test
+    void processPendingOrder_whenClaimedByAnotherWorker_leavesOrderAlone() {
+        Long userId = 23L;
+        OrderResponse accepted = acceptPendingOrder(userId, 1111L);
+        takeOverCheckout(accepted.orderId(), Instant.now());
+
+        orderService.processPendingOrder(accepted.orderId());
+
+        assertEquals(OrderStatus.PENDING, orderService.getOrder(accepted.orderId()).status());
+        verifyNoInteractions(inventoryClient);
+    }
+
+    @Test
+    void processPendingOrder_whenClaimTakenOverMidCheckout_neitherPlacesNorReleases() {
+        Long userId = 24L;
+        OrderResponse accepted = acceptPendingOrder(userId, 1212L);
+        when(inventoryClient.reserve(any(), any())).thenAnswer(invocation -> {
+            // The claim lapsed while the reserve call hung, and the sweep handed the order on
+            takeOverCheckout(accepted.orderId(), Instant.now().plus(Duration.ofHours(1)));
+            return new InventoryReserveResponse(true, "Reserved");
+        });
+
+        orderService.processPendingOrder(accepted.orderId());
+
+        assertEquals(OrderStatus.PENDING, orderService.getOrder(accepted.orderId()).status());
+        verify(inventoryClient, never()).release(any(), any());
+        verify(inventoryClient, never()).confirm(any());
+        assertTrue(lifecycleEvents().isEmpty());
+    }
+
+    @Test
+    void processPendingOrder_whenFailingAfterTakeover_doesNotReleaseNewOwnersStock() {
+        Long userId = 25L;
+        OrderResponse accepted = acceptPendingOrder(userId, 1313L);
+        when(inventoryClient.reserve(any(), any())).thenAnswer(invocation -> {
+            takeOverCheckout(accepted.orderId(), Instant.now().plus(Duration.ofHours(1)));
+            throw new IllegalStateException("Read timed out");
+        });
+
+        orderService.processPendingOrder(accepted.orderId());
+
+        assertEquals(OrderStatus.PENDING, orderService.getOrder(accepted.orderId()).status());
+        verify(inventoryClient, never()).release(any(), any());
+    }
+
+    @Test
+    void processPendingOrder_whenReserveCallFails_releasesAndMarksOrderFailed() {
+        Long userId = 26L;
+        OrderResponse accepted = acceptPendingOrder(userId, 1414L);
+        when(inventoryClient.reserve(any(), any())).thenThrow(new IllegalStateException("Read timed out"));
+
+        orderService.processPendingOrder(accepted.orderId());
+
+        assertEquals(OrderStatus.FAILED, orderService.getOrder(accepted.orderId()).status());
+        verify(inventoryClient).release(any(), any());
+    }
+
+    @Test
+    void orderChanges_recordSnapshotWithIncreasingVersion() {
+        Long userId = 20L;
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(1010L, "Game", BigDecimal.TEN, 1)),
+                BigDecimal.TEN
+        ));
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+        OrderResponse placed = orderService.placeOrder(new PlaceOrderRequest(userId, "snapshot@test.com"));
+
+        orderService.updateStatus(placed.orderId(), OrderStatus.SHIPPED);
+
+        List<OutboxEvent> snapshots = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getTopic().equals("order.snapshot"))
+                .toList();
+        assertEquals(2, snapshots.size());
+        assertTrue(snapshots.get(0).getPayload().contains("\"version\":0"));
+        assertTrue(snapshots.get(0).getPayload().contains("\"productId\":1010"));
+        assertTrue(snapshots.get(1).getPayload().contains("\"version\":1"));
+        assertTrue(snapshots.get(1).getPayload().contains("\"status\":\"SHIPPED\""));
+    }
+
+    @Test
+    void placeOrder_insertsAreBatchedRegardlessOfItemCount() {
+        when(inventoryClient.reserve(any(), any())).thenReturn(new InventoryReserveResponse(true, "Reserved"));
+        placeOrderWithItems(21L, 1);
+
+        SqlStatementCounter.reset();
+        placeOrderWithItems(22L, 1);
+        int singleItem = SqlStatementCounter.inserts();
+
+        SqlStatementCounter.reset();
+        OrderResponse large = placeOrderWithItems(23L, 20);
+        int twentyItems = SqlStatementCounter.inserts();
+
+        // One batched insert each into orders, order_items and outbox
+        assertEquals(3, singleItem);
+        assertEquals(3, twentyItems);
+        assertEquals(20, orderRepository.findById(large.orderId()).orElseThrow().getItems().size());
+    }
+
+    private OrderResponse placeOrderWithItems(Long userId, int itemCount) {
+        List<CartItemSnapshot> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new CartItemSnapshot(2000L + i, "Game " + i, BigDecimal.TEN, 1));
+        }
+        when(cartClient.getCart(userId)).thenReturn(
+                new CartSnapshot(userId, items, BigDecimal.TEN.multiply(BigDecimal.valueOf(itemCount))));
+        return orderService.placeOrder(new PlaceOrderRequest(userId, "batch@test.com"));
+    }
+
+    private OrderResponse acceptPendingOrder(Long userId, Long productId) {
+        when(cartClient.getCart(userId)).thenReturn(new CartSnapshot(
+                userId,
+                List.of(new CartItemSnapshot(productId, "Game", BigDecimal.TEN, 1)),
+                BigDecimal.TEN
+        ));
+        return orderService.acceptOrder(new PlaceOrderRequest(userId, "claim@test.com"));
+    }
+
+    /**
+     * Claims the order's checkout the way another worker would at {@code now}.
+     */
+    private void takeOverCheckout(Long orderId, Instant now) {
+        Integer claimed = new TransactionTemplate(transactionManager).execute(status -> orderRepository.claimCheckout(
+                orderId, OrderStatus.PENDING, "another-worker", now, now.plus(Duration.ofMinutes(5))));
+        assertEquals(1, claimed);
+    }
+
+    /**
+     * Outbox events other than the order.snapshot events that feed the read model.
+     */
+    private List<OutboxEvent> lifecycleEvents() {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> !event.getTopic().equals("order.snapshot"))
+                .toList();
     }
 }
@@ -0,0 +1,124 @@
+package org.example.megasegashop.order.service;
+
+import org.example.megasegashop.order.client.CartClient;
+import org.example.megasegashop.order.client.InventoryClient;
+import org.example.megasegashop.order.client.UserProfileClient;
+import org.example.megasegashop.order.config.OutboxProperties;
+import org.example.megasegashop.order.entity.OutboxEvent;
+import org.example.megasegashop.order.event.OrderCancelledEvent;
+import org.example.megasegashop.order.event.OrderPlacedEvent;
+import org.example.megasegashop.order.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private CartClient cartClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private UserProfileClient userProfileClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderPlacedEvent> orderPlacedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCancelledEvent> orderCancelledKafkaTemplate;
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxProperties properties;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        kafkaTemplate = mock(KafkaTemplate.class);
+        properties = new OutboxProperties();
+        properties.setSendTimeout(Duration.ofMillis(200));
+        properties.setMaxAttempts(2);
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, properties, transactionManager);
+    }
+
+    @Test
+    void failedSend_backsOffAndIsNotRetriedUntilDue() {
+        OutboxEvent event = save();
+        when(kafkaTemplate.send(anyString(), any(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.relay();
+        relay.relay();
+
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), anyString());
+        OutboxEvent failed = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getNextAttemptAt().isAfter(Instant.now()));
+        assertNull(failed.getSentAt());
+    }
+
+    @Test
+    void eventFailingMaxAttempts_isDeadLettered() {
+        OutboxEvent event = save();
+        when(kafkaTemplate.send(anyString(), any(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+        properties.setRetryBackoff(Duration.ZERO);
+
+        relay.relay();
+        relay.relay();
+        relay.relay();
+
+        verify(kafkaTemplate, times(2)).send(anyString(), any(), anyString());
+        OutboxEvent dead = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(2, dead.getAttempts());
+        assertNotNull(dead.getDeadLetteredAt());
+    }
+
+    @Test
+    void unacknowledgedSend_failsAtTheBatchDeadline() {
+        OutboxEvent acknowledged = save();
+        OutboxEvent pending = save();
+        when(kafkaTemplate.send(anyString(), any(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        relay.relay();
+
+        assertNotNull(outboxEventRepository.findById(acknowledged.getId()).orElseThrow().getSentAt());
+        OutboxEvent unsent = outboxEventRepository.findById(pending.getId()).orElseThrow();
+        assertNull(unsent.getSentAt());
+        assertEquals(1, unsent.getAttempts());
+    }
+
+    private OutboxEvent save() {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic("order-placed");
+        event.setMessageKey("1");
+        event.setPayload("{}");
+        return outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.megasegashop.order.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the INSERT statements Hibernate prepares. A JDBC batch is prepared once however many
+ * rows it carries, so the count is the number of insert round trips.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final AtomicInteger INSERTS = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("insert")) {
+            INSERTS.incrementAndGet();
+        }
+        return sql;
+    }
+
+    static void reset() {
+        INSERTS.set(0);
+    }
+
+    static int inserts() {
+        return INSERTS.get();
+    }
+}
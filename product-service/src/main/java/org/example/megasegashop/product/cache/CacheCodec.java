@@ -0,0 +1,16 @@
+package org.example.megasegashop.product.cache;
+
+/**
+ * Wire format of values in the Redis product cache.
+ */
+public enum CacheCodec {
+    /**
+     * Jackson JSON with class names as type hints; readable with redis-cli.
+     */
+    JSON,
+    /**
+     * Jackson Smile (binary JSON) with shared property names and string values, so
+     * repeated class names and field names are written once per entry.
+     */
+    SMILE
+}
@@ -0,0 +1,112 @@
+package org.example.megasegashop.product.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-modify-write of a single cache entry that is safe across instances.
+ *
+ * <p>Entries of a Redis cache, with or without the near tier, are changed in a
+ * {@code WATCH}/{@code MULTI}/{@code EXEC} transaction: if another instance writes the key in
+ * between, the transaction is discarded and the change is applied again to the new value. After
+ * {@value #MAX_ATTEMPTS} lost races the entry is evicted so that the next read reloads it. Other
+ * caches are not shared between instances and are updated under a local lock.
+ */
+@Slf4j
+public class CacheEntryUpdater {
+    static final int MAX_ATTEMPTS = 5;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    public CacheEntryUpdater(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Replaces the entry with {@code change} applied to its current value, which is {@code null}
+     * if there is none. A change returning {@code null} leaves the entry as it is.
+     *
+     * @return the value written, or {@code null} if nothing was written
+     */
+    public <T> T update(Cache cache, String key, Class<T> type, UnaryOperator<T> change) {
+        TwoLevelCache twoLevelCache = cache instanceof TwoLevelCache twoLevel ? twoLevel : null;
+        Cache target = twoLevelCache != null ? twoLevelCache.getRemoteCache() : cache;
+        if (!(target instanceof RedisCache redisCache) || connectionFactory == null) {
+            synchronized (this) {
+                T next = change.apply(cache.get(key, type));
+                if (next != null) {
+                    cache.put(key, next);
+                }
+                return next;
+            }
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Write<T> write = tryUpdate(redisCache, key, type, change);
+            if (write.applied()) {
+                if (write.value() != null && twoLevelCache != null) {
+                    twoLevelCache.afterRemoteWrite(key);
+                }
+                return write.value();
+            }
+        }
+        log.warn("Evicting {}::{} after {} conflicting updates", cache.getName(), key, MAX_ATTEMPTS);
+        cache.evict(key);
+        return null;
+    }
+
+    private <T> Write<T> tryUpdate(RedisCache cache, String key, Class<T> type, UnaryOperator<T> change) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        String prefixedKey = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) + key : key;
+        byte[] redisKey = ByteUtils.getBytes(config.getKeySerializationPair().write(prefixedKey));
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.watch(redisKey);
+            byte[] raw = connection.stringCommands().get(redisKey);
+            T next = change.apply(raw != null ? read(config, raw, type) : null);
+            if (next == null) {
+                connection.unwatch();
+                return new Write<>(true, null);
+            }
+
+            Duration ttl = config.getTtlFunction().getTimeToLive(key, next);
+            Expiration expiration = ttl != null && !ttl.isZero() && !ttl.isNegative()
+                    ? Expiration.from(ttl)
+                    : Expiration.persistent();
+            connection.multi();
+            connection.stringCommands().set(redisKey, ByteUtils.getBytes(config.getValueSerializationPair().write(next)),
+                    expiration, RedisStringCommands.SetOption.upsert());
+            // EXEC answers no replies when a watched key changed
+            List<Object> replies = connection.exec();
+            boolean applied = replies != null && !replies.isEmpty();
+            return new Write<>(applied, applied ? next : null);
+        }
+    }
+
+    private static <T> T read(RedisCacheConfiguration config, byte[] raw, Class<T> type) {
+        Object value = config.getValueSerializationPair().read(ByteBuffer.wrap(raw));
+        if (value == null || value instanceof NullValue) {
+            return null;
+        }
+        if (!type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return type.cast(value);
+    }
+
+    private record Write<T>(boolean applied, T value) {
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.megasegashop.product.cache;
+
+/**
+ * Broadcasts local cache invalidations to the other product-service instances.
+ */
+public interface CacheInvalidationPublisher {
+    void publishEvict(String cacheName, String key);
+
+    void publishClear(String cacheName);
+}
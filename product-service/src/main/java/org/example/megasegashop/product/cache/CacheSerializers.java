@@ -0,0 +1,70 @@
+package org.example.megasegashop.product.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.example.megasegashop.product.config.CacheCodecProperties;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+
+/**
+ * Builds the value serializer for the Redis product cache from {@link CacheCodecProperties}.
+ */
+public final class CacheSerializers {
+
+    private CacheSerializers() {
+    }
+
+    public static RedisSerializer<Object> create(CacheCodecProperties properties, ObjectMapper objectMapper) {
+        RedisSerializer<Object> serializer = codec(properties.getType(), objectMapper);
+        if (properties.isCompressionEnabled()) {
+            serializer = new CompressingRedisSerializer(serializer, properties.getCompressionThresholdBytes());
+        }
+        return serializer;
+    }
+
+    public static RedisSerializer<Object> codec(CacheCodec codec, ObjectMapper objectMapper) {
+        ObjectMapper cacheObjectMapper = switch (codec) {
+            case JSON -> objectMapper.copy();
+            case SMILE -> objectMapper.copyWith(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+        };
+        cacheObjectMapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return new TypeHintedRedisSerializer(cacheObjectMapper);
+    }
+
+    /**
+     * Segment added to cache key prefixes so that entries written with a different codec
+     * are never read back; JSON keeps the original prefix for existing entries.
+     */
+    public static String keySegment(CacheCodec codec) {
+        return codec == CacheCodec.JSON ? "" : codec.name().toLowerCase() + "::";
+    }
+
+    /**
+     * Takes the concrete type from the embedded type hint. The stock serializer peeks at the
+     * hint with its own JSON-only mapper first, which cannot read Smile payloads.
+     */
+    private static final class TypeHintedRedisSerializer extends GenericJackson2JsonRedisSerializer {
+
+        private TypeHintedRedisSerializer(ObjectMapper mapper) {
+            super(mapper);
+        }
+
+        @Override
+        protected JavaType resolveType(byte[] source, Class<?> type) throws IOException {
+            return getObjectMapper().constructType(type);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.megasegashop.product.cache;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LZ4-compresses serialized values at or above a size threshold.
+ *
+ * <p>Each value is framed with one marker byte: {@code 0x00} followed by the raw payload, or
+ * {@code 0x01}, the original length and the LZ4 block. Neither marker can start a JSON or
+ * Smile document, so unframed entries written before compression was enabled are still read.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+    private static final byte RAW = 0x00;
+    private static final byte LZ4 = 0x01;
+    private static final int LZ4_HEADER_BYTES = 1 + Integer.BYTES;
+
+    private final RedisSerializer<Object> delegate;
+    private final int thresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null) {
+            return null;
+        }
+        if (raw.length < thresholdBytes) {
+            byte[] framed = new byte[raw.length + 1];
+            framed[0] = RAW;
+            System.arraycopy(raw, 0, framed, 1, raw.length);
+            return framed;
+        }
+
+        byte[] framed = new byte[LZ4_HEADER_BYTES + compressor.maxCompressedLength(raw.length)];
+        framed[0] = LZ4;
+        ByteBuffer.wrap(framed, 1, Integer.BYTES).putInt(raw.length);
+        int compressedLength = compressor.compress(raw, 0, raw.length, framed, LZ4_HEADER_BYTES);
+        byte[] result = new byte[LZ4_HEADER_BYTES + compressedLength];
+        System.arraycopy(framed, 0, result, 0, result.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return delegate.deserialize(bytes);
+        }
+        if (bytes[0] == RAW) {
+            byte[] raw = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, raw, 0, raw.length);
+            return delegate.deserialize(raw);
+        }
+        if (bytes[0] == LZ4) {
+            int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+            byte[] raw = new byte[length];
+            try {
+                decompressor.decompress(bytes, LZ4_HEADER_BYTES, raw, 0, length);
+            } catch (RuntimeException ex) {
+                throw new SerializationException("Corrupt LZ4 cache entry", ex);
+            }
+            return delegate.deserialize(raw);
+        }
+        return delegate.deserialize(bytes);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.megasegashop.product.config;
+
+import org.example.megasegashop.product.cache.CacheCodec;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "product.cache.codec")
+public class CacheCodecProperties {
+    private CacheCodec type = CacheCodec.SMILE;
+    private boolean compressionEnabled = true;
+    private int compressionThresholdBytes = 1024;
+
+    public CacheCodec getType() {
+        return type;
+    }
+
+    public void setType(CacheCodec type) {
+        this.type = type;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public int getCompressionThresholdBytes() {
+        return compressionThresholdBytes;
+    }
+
+    public void setCompressionThresholdBytes(int compressionThresholdBytes) {
+        this.compressionThresholdBytes = compressionThresholdBytes;
+    }
+}
@@ -1,30 +1,34 @@
 package org.example.megasegashop.product.config;
 
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import org.example.megasegashop.product.cache.CacheEntryUpdater;
+import org.example.megasegashop.product.cache.CacheSerializers;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class CacheConfig {
     @Bean
-    public RedisCacheConfiguration redisCacheConfiguration(ObjectMapper objectMapper) {
-        ObjectMapper cacheObjectMapper = objectMapper.copy();
-        cacheObjectMapper.activateDefaultTyping(
-                LaissezFaireSubTypeValidator.instance,
-                ObjectMapper.DefaultTyping.NON_FINAL,
-                JsonTypeInfo.As.PROPERTY
-        );
-
+    public RedisCacheConfiguration redisCacheConfiguration(
+            ObjectMapper objectMapper,
+            CacheCodecProperties codecProperties
+    ) {
+        String codecSegment = CacheSerializers.keySegment(codecProperties.getType());
         return RedisCacheConfiguration.defaultCacheConfig()
+                .computePrefixWith(cacheName -> cacheName + "::" + codecSegment)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
-                        new GenericJackson2JsonRedisSerializer(cacheObjectMapper)
+                        CacheSerializers.create(codecProperties, objectMapper)
                 ));
     }
+
+    @Bean
+    public CacheEntryUpdater cacheEntryUpdater(ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        return new CacheEntryUpdater(connectionFactory.getIfAvailable());
+    }
 }
@@ -0,0 +1,105 @@
+package org.example.megasegashop.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "product.images.delivery")
+public class ImageDeliveryProperties {
+    /**
+     * How long browsers and shared caches may reuse an image without revalidating it.
+     * The ETag is the content hash, so revalidation after expiry is a cheap 304.
+     */
+    private Duration cacheMaxAge = Duration.ofDays(7);
+
+    /**
+     * Widths in pixels of the resized variants generated for every image; {@code ?w=} picks the
+     * smallest one at least as wide as requested.
+     */
+    private List<Integer> variantWidths = List.of(128, 512, 1024);
+
+    /**
+     * JPEG quality of the variants, from 0 to 1.
+     */
+    private float variantQuality = 0.85f;
+
+    /**
+     * Threads resizing images; each holds a decoded original in memory.
+     */
+    private int variantWorkers = 2;
+
+    /**
+     * Largest width times height accepted for an image. Checked against the image header on upload
+     * and before decoding, since a decoded raster takes about four bytes per pixel.
+     */
+    private long maxSourcePixels = 25_000_000;
+
+    /**
+     * Pending resize jobs beyond which new jobs are dropped and generated on first request instead.
+     */
+    private int variantQueueCapacity = 64;
+
+    /**
+     * How long a download waits for a missing variant before falling back to the original.
+     */
+    private Duration variantTimeout = Duration.ofSeconds(10);
+
+    public Duration getCacheMaxAge() {
+        return cacheMaxAge;
+    }
+
+    public void setCacheMaxAge(Duration cacheMaxAge) {
+        this.cacheMaxAge = cacheMaxAge;
+    }
+
+    public List<Integer> getVariantWidths() {
+        return variantWidths;
+    }
+
+    public void setVariantWidths(List<Integer> variantWidths) {
+        this.variantWidths = variantWidths;
+    }
+
+    public float getVariantQuality() {
+        return variantQuality;
+    }
+
+    public void setVariantQuality(float variantQuality) {
+        this.variantQuality = variantQuality;
+    }
+
+    public int getVariantWorkers() {
+        return variantWorkers;
+    }
+
+    public void setVariantWorkers(int variantWorkers) {
+        this.variantWorkers = variantWorkers;
+    }
+
+    public long getMaxSourcePixels() {
+        return maxSourcePixels;
+    }
+
+    public void setMaxSourcePixels(long maxSourcePixels) {
+        this.maxSourcePixels = maxSourcePixels;
+    }
+
+    public int getVariantQueueCapacity() {
+        return variantQueueCapacity;
+    }
+
+    public void setVariantQueueCapacity(int variantQueueCapacity) {
+        this.variantQueueCapacity = variantQueueCapacity;
+    }
+
+    public Duration getVariantTimeout() {
+        return variantTimeout;
+    }
+
+    public void setVariantTimeout(Duration variantTimeout) {
+        this.variantTimeout = variantTimeout;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.megasegashop.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "product.images.storage")
+public class ImageStorageProperties {
+    /**
+     * Directory holding image files, named by the SHA-256 of their content.
+     */
+    private Path root = Path.of("data", "images");
+
+    /**
+     * Whether image bytes still stored in the database are moved to the blob store at startup.
+     */
+    private boolean migrateLegacyBlobs = true;
+
+    private int migrationBatchSize = 50;
+
+    /**
+     * How long a blob no image references is kept. An upload stores its blob before the image row
+     * commits, so this must exceed the longest upload transaction.
+     */
+    private Duration orphanGracePeriod = Duration.ofHours(1);
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public void setRoot(Path root) {
+        this.root = root;
+    }
+
+    public boolean isMigrateLegacyBlobs() {
+        return migrateLegacyBlobs;
+    }
+
+    public void setMigrateLegacyBlobs(boolean migrateLegacyBlobs) {
+        this.migrateLegacyBlobs = migrateLegacyBlobs;
+    }
+
+    public int getMigrationBatchSize() {
+        return migrationBatchSize;
+    }
+
+    public void setMigrationBatchSize(int migrationBatchSize) {
+        this.migrationBatchSize = migrationBatchSize;
+    }
+
+    public Duration getOrphanGracePeriod() {
+        return orphanGracePeriod;
+    }
+
+    public void setOrphanGracePeriod(Duration orphanGracePeriod) {
+        this.orphanGracePeriod = orphanGracePeriod;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.megasegashop.product.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.megasegashop.product.event.ProductChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnBean(KafkaProperties.class)
+public class KafkaListenerConfig {
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductChangedEvent>
+            productChangedKafkaListenerContainerFactory(
+                    KafkaProperties kafkaProperties,
+                    ObjectMapper objectMapper
+            ) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        // Avoid double-configuring JsonDeserializer via properties and setters.
+        props.keySet().removeIf(key -> key.startsWith("spring.json."));
+        // Every instance consumes in its own group and has already loaded current state at startup.
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        JsonDeserializer<ProductChangedEvent> deserializer =
+                new JsonDeserializer<>(ProductChangedEvent.class, objectMapper);
+        deserializer.addTrustedPackages("org.example.megasegashop.product.event");
+
+        DefaultKafkaConsumerFactory<String, ProductChangedEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+
+        ConcurrentKafkaListenerContainerFactory<String, ProductChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        return factory;
+    }
+}
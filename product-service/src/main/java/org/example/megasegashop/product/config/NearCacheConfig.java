@@ -0,0 +1,67 @@
+package org.example.megasegashop.product.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.megasegashop.product.cache.TwoLevelCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Replaces Boot's Redis cache manager when {@code spring.cache.type=redis}, putting a per-instance
+ * Caffeine tier in front of Redis unless {@code product.cache.near.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.cache", name = "type", havingValue = "redis")
+public class NearCacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration redisCacheConfiguration,
+            StringRedisTemplate stringRedisTemplate,
+            NearCacheProperties nearCacheProperties,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration)
+                .enableStatistics()
+                .build();
+        if (!nearCacheProperties.isEnabled()) {
+            return redisCacheManager;
+        }
+
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(
+                redisCacheManager,
+                stringRedisTemplate,
+                nearCacheProperties,
+                meterRegistry.getIfAvailable()
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.cache.near", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheManager cacheManager,
+            NearCacheProperties nearCacheProperties
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(
+                    twoLevelCacheManager,
+                    new ChannelTopic(nearCacheProperties.getInvalidationChannel())
+            );
+        }
+        return container;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.megasegashop.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "product.cache.catalog")
+public class ProductCatalogCacheProperties {
+    /**
+     * Age after which the cached catalog is reloaded in the background of one request
+     * while all other readers keep getting the current snapshot.
+     */
+    private Duration refreshAfter = Duration.ofMinutes(10);
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    public void setRefreshAfter(Duration refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+}
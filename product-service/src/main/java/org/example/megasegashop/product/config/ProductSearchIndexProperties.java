@@ -0,0 +1,88 @@
+package org.example.megasegashop.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "product.search.index")
+public class ProductSearchIndexProperties {
+    /**
+     * BM25 term-frequency saturation.
+     */
+    private double k1 = 1.2;
+
+    /**
+     * BM25 document-length normalization, from 0 (none) to 1 (full).
+     */
+    private double b = 0.75;
+
+    /**
+     * Query terms shorter than this are matched exactly or as a prefix, never fuzzily.
+     */
+    private int fuzzyMinTermLength = 4;
+
+    /**
+     * Upper bound on indexed terms a single query term expands to as a prefix.
+     */
+    private int maxPrefixExpansions = 50;
+
+    /**
+     * Upper bound on ranked hits returned for one query, before filters and paging.
+     */
+    private int maxResults = 1000;
+
+    /**
+     * How often the index is rebuilt from the database to pick up anything events missed.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+
+    public double getK1() {
+        return k1;
+    }
+
+    public void setK1(double k1) {
+        this.k1 = k1;
+    }
+
+    public double getB() {
+        return b;
+    }
+
+    public void setB(double b) {
+        this.b = b;
+    }
+
+    public int getFuzzyMinTermLength() {
+        return fuzzyMinTermLength;
+    }
+
+    public void setFuzzyMinTermLength(int fuzzyMinTermLength) {
+        this.fuzzyMinTermLength = fuzzyMinTermLength;
+    }
+
+    public int getMaxPrefixExpansions() {
+        return maxPrefixExpansions;
+    }
+
+    public void setMaxPrefixExpansions(int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -1,8 +1,12 @@
 package org.example.megasegashop.product.controller;
 
+import org.example.megasegashop.product.config.ImageDeliveryProperties;
 import org.example.megasegashop.product.dto.ImageResponse;
 import org.example.megasegashop.product.model.Image;
+import org.example.megasegashop.product.service.image.ImageContent;
 import org.example.megasegashop.product.service.image.ImageService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,19 +18,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.server.ResponseStatusException;
 
-import java.sql.Blob;
-import java.sql.SQLException;
 import java.util.List;
 
 @RestController
 @RequestMapping
 public class ImageController {
     private final ImageService imageService;
+    private final ImageDeliveryProperties deliveryProperties;
 
-    public ImageController(ImageService imageService) {
+    public ImageController(ImageService imageService, ImageDeliveryProperties deliveryProperties) {
         this.imageService = imageService;
+        this.deliveryProperties = deliveryProperties;
     }
 
     @PostMapping("/products/{productId}/images")
@@ -45,21 +48,32 @@ public class ImageController {
                 .toList();
     }
 
+    /**
+     * Streams the stored file; the body is never loaded onto the heap. The content hash is a
+     * strong ETag, so Spring answers {@code If-None-Match} with 304 and {@code Range} requests
+     * with 206 partial content served as resource regions. {@code w} selects the resized variant
+     * nearest to that width in pixels.
+     */
     @GetMapping("/images/{imageId}")
-    public ResponseEntity<byte[]> download(@PathVariable Long imageId) {
+    public ResponseEntity<Resource> download(
+            @PathVariable Long imageId,
+            @RequestParam(required = false) Integer w
+    ) {
         Image image = imageService.getImage(imageId);
-        byte[] content = readBlob(image.getImage());
+        ImageContent content = imageService.getContent(image, w);
 
         MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        if (image.getFileType() != null && !image.getFileType().isBlank()) {
-            mediaType = MediaType.parseMediaType(image.getFileType());
+        if (content.contentType() != null && !content.contentType().isBlank()) {
+            mediaType = MediaType.parseMediaType(content.contentType());
         }
 
         return ResponseEntity.ok()
                 .contentType(mediaType)
+                .eTag(content.key())
+                .cacheControl(CacheControl.maxAge(deliveryProperties.getCacheMaxAge()).cachePublic())
                 .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + image.getFileName() + "\"")
-                .body(content);
+                        "attachment; filename=\"" + fileName(image, content, mediaType) + "\"")
+                .body(content.resource());
     }
 
     @DeleteMapping("/images/{imageId}")
@@ -68,6 +82,21 @@ public class ImageController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * The uploaded file name, with the extension swapped for the variant's format when a resized
+     * variant is served instead of the original.
+     */
+    private static String fileName(Image image, ImageContent content, MediaType mediaType) {
+        String fileName = image.getFileName();
+        if (fileName == null || content.key().equals(image.getContentHash())) {
+            return fileName;
+        }
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = "jpeg".equals(mediaType.getSubtype()) ? "jpg" : mediaType.getSubtype();
+        return baseName + "." + extension;
+    }
+
     private ImageResponse toResponse(Image image) {
         String downloadUrl = image.getDownloadUrl();
         if (downloadUrl == null || downloadUrl.isBlank()) {
@@ -80,18 +109,4 @@ public class ImageController {
                 downloadUrl
         );
     }
-
-    private byte[] readBlob(Blob blob) {
-        if (blob == null) {
-            return new byte[0];
-        }
-        try {
-            return blob.getBytes(1, (int) blob.length());
-        } catch (SQLException ex) {
-            throw new ResponseStatusException(
-                    org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to read image content"
-            );
-        }
-    }
 }
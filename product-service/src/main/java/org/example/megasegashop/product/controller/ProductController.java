@@ -4,13 +4,18 @@ import jakarta.validation.Valid;
 import feign.FeignException;
 import org.example.megasegashop.product.client.InventoryClient;
 import org.example.megasegashop.product.dto.InventoryItemResponse;
+import org.example.megasegashop.product.dto.ProductBatchRequest;
 import org.example.megasegashop.product.dto.ProductCreateRequest;
+import org.example.megasegashop.product.dto.ProductPageResponse;
 import org.example.megasegashop.product.dto.ProductResponse;
+import org.example.megasegashop.product.dto.ProductSearchCriteria;
+import org.example.megasegashop.product.dto.ProductSort;
 import org.example.megasegashop.product.dto.ProductStockResponse;
 import org.example.megasegashop.product.dto.ProductUpdateRequest;
 import org.example.megasegashop.product.model.Category;
 import org.example.megasegashop.product.model.Product;
 import org.example.megasegashop.product.repository.CategoryRepository;
+import org.example.megasegashop.product.service.product.ProductSearchService;
 import org.example.megasegashop.product.service.product.ProductService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
@@ -34,19 +39,26 @@ import java.math.BigDecimal;
 @RequestMapping("/products")
 public class ProductController {
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
     private final CategoryRepository categoryRepository;
     private final InventoryClient inventoryClient;
 
     public ProductController(
             ProductService productService,
+            ProductSearchService productSearchService,
             CategoryRepository categoryRepository,
             InventoryClient inventoryClient
     ) {
         this.productService = productService;
+        this.productSearchService = productSearchService;
         this.categoryRepository = categoryRepository;
         this.inventoryClient = inventoryClient;
     }
 
+    /**
+     * Unpaged listing kept for existing clients; filters may be combined freely.
+     * New callers should use {@link #search} for paged results.
+     */
     @GetMapping
     public List<ProductResponse> getProducts(
             @RequestParam(required = false) String category,
@@ -56,8 +68,43 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice
     ) {
-        List<Product> products = resolveProducts(category, brand, name, price, minPrice, maxPrice);
-        return products.stream().map(this::toResponse).toList();
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                category, brand, name, null, price, minPrice, maxPrice);
+        return productSearchService.search(criteria).stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Paginated search. Pass {@code nextCursor} from the previous page as {@code cursor} together
+     * with the same parameters. With {@code q} the results are ranked by relevance from the
+     * in-memory text index; otherwise they are keyset-paginated in the requested sort order.
+     */
+    @GetMapping("/search")
+    public ProductPageResponse search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) ProductSort sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                category, brand, null, namePrefix, null, minPrice, maxPrice);
+        ProductSearchService.SearchPage page;
+        if (q != null && !q.isBlank()) {
+            if (sort != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort cannot be combined with q");
+            }
+            page = productSearchService.searchText(q, criteria, limit, cursor);
+        } else {
+            page = productSearchService.searchPage(criteria, sort, limit, cursor);
+        }
+        return new ProductPageResponse(
+                page.products().stream().map(this::toResponse).toList(),
+                page.nextCursor()
+        );
     }
 
     @GetMapping("/{id}")
@@ -65,6 +112,15 @@ public class ProductController {
         return toResponse(productService.getProductById(id));
     }
 
+    /**
+     * Products for up to {@value ProductBatchRequest#MAX_IDS} ids in one call, in request order.
+     * Ids that do not exist are left out rather than failing the whole batch.
+     */
+    @PostMapping("/batch")
+    public List<ProductResponse> getByIds(@Valid @RequestBody ProductBatchRequest request) {
+        return productService.getProductsByIds(request.ids()).stream().map(this::toResponse).toList();
+    }
+
     @AdminOnly
     @PostMapping
     public ResponseEntity<ProductResponse> create(@Valid @RequestBody ProductCreateRequest request) {
@@ -116,66 +172,6 @@ public class ProductController {
         }
     }
 
-    private List<Product> resolveProducts(
-            String category,
-            String brand,
-            String name,
-            BigDecimal price,
-            BigDecimal minPrice,
-            BigDecimal maxPrice
-    ) {
-        if (minPrice != null || maxPrice != null) {
-            if (minPrice == null || maxPrice == null) {
-                throw unsupportedSearch("minPrice and maxPrice must be provided together");
-            }
-            if (category != null || brand != null || name != null || price != null) {
-                throw unsupportedSearch("price range cannot be combined with other filters");
-            }
-            return productService.getProductsByPriceRange(minPrice, maxPrice);
-        }
-
-        if (price != null) {
-            if (category != null && name != null && brand == null) {
-                return productService.getProductsByCategoryAndPriceAndName(category, price, name);
-            }
-            if (category != null && name == null && brand == null) {
-                return productService.getProductsByCategoryAndPrice(category, price);
-            }
-            if (category == null && brand == null && name == null) {
-                return productService.getProductsByPrice(price);
-            }
-            throw unsupportedSearch("unsupported filter combination with price");
-        }
-
-        if (name != null) {
-            if (brand != null && category == null) {
-                return productService.getProductsByBrandAndName(brand, name);
-            }
-            if (brand == null && category == null) {
-                return productService.getProductsByName(name);
-            }
-            throw unsupportedSearch("unsupported filter combination with name");
-        }
-
-        if (category != null && brand != null) {
-            return productService.getProductsByCategoryAndBrand(category, brand);
-        }
-        if (category != null) {
-            return productService.getProductsByCategory(category);
-        }
-        if (brand != null) {
-            return productService.getProductsByBrand(brand);
-        }
-        return productService.getAllProducts();
-    }
-
-    private ResponseStatusException unsupportedSearch(String reason) {
-        String message = reason + ". Supported filters: " +
-                "category, brand, category+brand, name, brand+name, price, category+price, " +
-                "category+price+name, minPrice+maxPrice.";
-        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
-    }
-
     private ProductResponse toResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
@@ -0,0 +1,13 @@
+package org.example.megasegashop.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductBatchRequest(
+        @NotEmpty @Size(max = ProductBatchRequest.MAX_IDS) List<@NotNull Long> ids
+) {
+    public static final int MAX_IDS = 500;
+}
@@ -0,0 +1,12 @@
+package org.example.megasegashop.product.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results. {@code nextCursor} is {@code null} on the last page.
+ */
+public record ProductPageResponse(
+        List<ProductResponse> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,21 @@
+package org.example.megasegashop.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Catalog filters; every field is optional and any combination may be used.
+ */
+public record ProductSearchCriteria(
+        String category,
+        String brand,
+        String name,
+        String namePrefix,
+        BigDecimal price,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {
+    public boolean isEmpty() {
+        return category == null && brand == null && name == null && namePrefix == null
+                && price == null && minPrice == null && maxPrice == null;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.megasegashop.product.dto;
+
+/**
+ * Orderings supported by keyset pagination. Every ordering ends with the product id so
+ * that the (sort value, id) pair in a cursor identifies exactly one position.
+ */
+public enum ProductSort {
+    ID,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME_ASC
+}
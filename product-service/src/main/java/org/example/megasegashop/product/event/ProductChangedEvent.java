@@ -0,0 +1,9 @@
+package org.example.megasegashop.product.event;
+
+/**
+ * Common view of the {@code product.*} events for consumers that only need the product id.
+ */
+public record ProductChangedEvent(
+        Long productId
+) {
+}
@@ -0,0 +1,34 @@
+package org.example.megasegashop.product.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.product.event.ProductChangedEvent;
+import org.example.megasegashop.product.service.search.ProductSearchIndexer;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies product writes made by other product-service instances to this instance's search index.
+ * The group id is unique per instance so that every instance sees every event.
+ */
+@Slf4j
+@Component
+public class ProductChangeListener {
+    private final ProductSearchIndexer productSearchIndexer;
+
+    public ProductChangeListener(ProductSearchIndexer productSearchIndexer) {
+        this.productSearchIndexer = productSearchIndexer;
+    }
+
+    @KafkaListener(
+            topics = {"product.created", "product.updated", "product.deleted"},
+            groupId = "product-search-${random.uuid}",
+            containerFactory = "productChangedKafkaListenerContainerFactory"
+    )
+    public void handleProductChanged(ProductChangedEvent event) {
+        if (event.productId() == null) {
+            log.warn("Ignoring product event without productId");
+            return;
+        }
+        productSearchIndexer.refresh(event.productId());
+    }
+}
@@ -7,8 +7,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import java.sql.Blob;
-
 @Setter
 @Getter
 @AllArgsConstructor
@@ -21,11 +19,17 @@ public class Image {
     private String fileName;
     private String fileType;
 
-    @Lob
-    @JsonIgnore
-    private Blob image;
     private String downloadUrl;
 
+    /**
+     * Blob store key: hex SHA-256 of the image bytes, shared by images with identical content.
+     */
+    @Column(length = 64)
+    @JsonIgnore
+    private String contentHash;
+
+    private Long contentLength;
+
     @ManyToOne
     @JoinColumn(name = "product_id")
     @JsonIgnore
@@ -7,4 +7,6 @@ import java.util.List;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
     List<Image> findByProductId(Long productId);
+
+    boolean existsByContentHash(String contentHash);
 }
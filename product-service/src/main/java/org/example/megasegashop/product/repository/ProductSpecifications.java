@@ -0,0 +1,117 @@
+package org.example.megasegashop.product.repository;
+
+import jakarta.persistence.criteria.Path;
+import org.example.megasegashop.product.dto.ProductSearchCriteria;
+import org.example.megasegashop.product.dto.ProductSort;
+import org.example.megasegashop.product.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Criteria building blocks for catalog search. Null arguments produce no restriction.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductSearchCriteria criteria) {
+        return Specification.where(categoryName(criteria.category()))
+                .and(brand(criteria.brand()))
+                .and(name(criteria.name()))
+                .and(namePrefix(criteria.namePrefix()))
+                .and(price(criteria.price()))
+                .and(priceBetween(criteria.minPrice(), criteria.maxPrice()));
+    }
+
+    public static Specification<Product> categoryName(String category) {
+        return category == null ? null
+                : (root, query, cb) -> cb.equal(root.join("category").get("name"), category);
+    }
+
+    public static Specification<Product> brand(String brand) {
+        return brand == null ? null : (root, query, cb) -> cb.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Product> name(String name) {
+        return name == null ? null : (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+
+    /**
+     * Case-insensitive prefix match; served by the {@code lower(name) text_pattern_ops} index.
+     */
+    public static Specification<Product> namePrefix(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Product> price(BigDecimal price) {
+        return price == null ? null : (root, query, cb) -> cb.equal(root.get("price"), price);
+    }
+
+    public static Specification<Product> priceBetween(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<BigDecimal> price = root.get("price");
+            if (min == null) {
+                return cb.lessThanOrEqualTo(price, max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(price, min);
+            }
+            return cb.between(price, min, max);
+        };
+    }
+
+    /**
+     * Rows that come strictly after the cursor position in the given ordering. Price and name
+     * orderings skip products without a price or name, which have no position in the keyset.
+     */
+    public static Specification<Product> after(ProductSort sort, Object sortValue, Long lastId) {
+        return switch (sort) {
+            case ID -> lastId == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+            case PRICE_ASC -> seek("price", (BigDecimal) sortValue, lastId, true);
+            case PRICE_DESC -> seek("price", (BigDecimal) sortValue, lastId, false);
+            case NAME_ASC -> seek("name", (String) sortValue, lastId, true);
+        };
+    }
+
+    public static Sort sortOf(ProductSort sort) {
+        return switch (sort) {
+            case ID -> Sort.by("id");
+            case PRICE_ASC -> Sort.by("price", "id");
+            case PRICE_DESC -> Sort.by(Sort.Direction.DESC, "price", "id");
+            case NAME_ASC -> Sort.by("name", "id");
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Product> seek(
+            String attribute,
+            T value,
+            Long lastId,
+            boolean ascending
+    ) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(attribute);
+            if (lastId == null) {
+                return cb.isNotNull(path);
+            }
+            Path<Long> id = root.get("id");
+            return ascending
+                    ? cb.or(cb.greaterThan(path, value), cb.and(cb.equal(path, value), cb.greaterThan(id, lastId)))
+                    : cb.or(cb.lessThan(path, value), cb.and(cb.equal(path, value), cb.lessThan(id, lastId)));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
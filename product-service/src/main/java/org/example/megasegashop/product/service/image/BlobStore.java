@@ -0,0 +1,56 @@
+package org.example.megasegashop.product.service.image;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage for image bytes. The key of a blob is the lowercase hex SHA-256 of its
+ * content, so storing the same bytes twice returns the same key and keeps a single copy.
+ */
+public interface BlobStore {
+
+    /**
+     * Streams the content into the store without holding it in memory. The caller closes the stream.
+     */
+    StoredBlob put(InputStream content) throws IOException;
+
+    Optional<Resource> get(String key);
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Keys of all stored blobs, derived blobs excluded. The caller closes the stream.
+     */
+    Stream<String> keys() throws IOException;
+
+    /**
+     * Deletes the blob and everything derived from it unless it was last stored at or after
+     * {@code cutoff}. Storing the same content again counts as storing it, so content that an
+     * upload has just been given is never deleted under it.
+     *
+     * @return whether the blob was deleted
+     */
+    boolean deleteIfUnchangedSince(String key, Instant cutoff) throws IOException;
+
+    /**
+     * Stores content derived deterministically from the blob {@code sourceKey}, such as a resized
+     * copy, under a name chosen by the caller. Derived blobs are kept apart from the content
+     * hashes and are removed together by {@link #deleteDerived}.
+     */
+    StoredBlob putDerived(String sourceKey, String name, InputStream content) throws IOException;
+
+    Optional<Resource> getDerived(String sourceKey, String name);
+
+    /**
+     * Deletes every blob derived from {@code sourceKey}, whatever its name.
+     */
+    void deleteDerived(String sourceKey) throws IOException;
+
+    record StoredBlob(String key, long size) {
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.megasegashop.product.service.image;
+
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores each blob as {@code <root>/ab/cd/abcd...}, fanned out by the first two bytes of the hash
+ * so that no directory grows too large. Content is written to a temporary file while it is hashed
+ * and then renamed into place, so readers never see a partial file. Blobs derived from
+ * {@code abcd...} live in their own directory, {@code <root>/derived/ab/cd/abcd.../<name>}.
+ *
+ * <p>A blob's modification time is when it was last stored: storing content that already exists
+ * touches the file. Storing and {@link #deleteIfUnchangedSince} take a lock per key, so a blob is
+ * never deleted between an upload finding it and the upload returning its key.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern FAN_OUT = Pattern.compile("[0-9a-f]{2}");
+    private static final Pattern DERIVED_NAME = Pattern.compile("[a-z0-9][a-z0-9-]{0,63}");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path incoming;
+    private final Path derived;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public FileSystemBlobStore(ImageStorageProperties properties) {
+        this.root = properties.getRoot().toAbsolutePath().normalize();
+        this.incoming = root.resolve("incoming");
+        this.derived = root.resolve("derived");
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create image storage directory " + incoming, ex);
+        }
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                size = new DigestInputStream(content, digest).transferTo(out);
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path path = pathOf(key);
+            synchronized (lockFor(key)) {
+                if (Files.exists(path)) {
+                    Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(path.getParent());
+                    // Another process storing the same content races harmlessly: both renames install the same bytes.
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return new StoredBlob(key, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String key) {
+        return resourceAt(pathOf(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(pathOf(key));
+    }
+
+    @Override
+    public Stream<String> keys() throws IOException {
+        // Listed level by level rather than walked, so temporary files vanishing meanwhile do no harm.
+        return Files.list(root)
+                .filter(FileSystemBlobStore::isFanOut)
+                .flatMap(FileSystemBlobStore::list)
+                .filter(FileSystemBlobStore::isFanOut)
+                .flatMap(FileSystemBlobStore::list)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> KEY.matcher(name).matches());
+    }
+
+    @Override
+    public boolean deleteIfUnchangedSince(String key, Instant cutoff) throws IOException {
+        Path path = pathOf(key);
+        synchronized (lockFor(key)) {
+            try {
+                if (!Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+                    return false;
+                }
+            } catch (NoSuchFileException ex) {
+                return false;
+            }
+            Files.deleteIfExists(path);
+        }
+        deleteDerived(key);
+        return true;
+    }
+
+    @Override
+    public StoredBlob putDerived(String sourceKey, String name, InputStream content) throws IOException {
+        Path path = derivedPathOf(sourceKey, name);
+        Path temp = Files.createTempFile(incoming, "derived-", ".part");
+        try {
+            long size;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                size = content.transferTo(out);
+            }
+            Files.createDirectories(path.getParent());
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new StoredBlob(sourceKey + "/" + name, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> getDerived(String sourceKey, String name) {
+        return resourceAt(derivedPathOf(sourceKey, name));
+    }
+
+    @Override
+    public void deleteDerived(String sourceKey) throws IOException {
+        Path directory = derivedDirectoryOf(sourceKey);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        try {
+            Files.deleteIfExists(directory);
+        } catch (DirectoryNotEmptyException ex) {
+            // A derived blob was written concurrently; it goes with the next deletion.
+        }
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    private Path pathOf(String key) {
+        checkKey(key);
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Path derivedDirectoryOf(String sourceKey) {
+        checkKey(sourceKey);
+        return derived.resolve(sourceKey.substring(0, 2)).resolve(sourceKey.substring(2, 4)).resolve(sourceKey);
+    }
+
+    private Path derivedPathOf(String sourceKey, String name) {
+        if (name == null || !DERIVED_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid derived blob name: " + name);
+        }
+        return derivedDirectoryOf(sourceKey).resolve(name);
+    }
+
+    private static boolean isFanOut(Path path) {
+        return FAN_OUT.matcher(path.getFileName().toString()).matches();
+    }
+
+    private static Stream<Path> list(Path directory) {
+        try {
+            return Files.list(directory);
+        } catch (NoSuchFileException | NotDirectoryException ex) {
+            return Stream.empty();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Optional<Resource> resourceAt(Path path) {
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    private static void checkKey(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
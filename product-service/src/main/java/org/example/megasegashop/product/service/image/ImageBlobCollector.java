@@ -0,0 +1,61 @@
+package org.example.megasegashop.product.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.example.megasegashop.product.repository.ImageRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Deletes stored images that no image row references: content of deleted images, and content of
+ * uploads whose transaction rolled back. A blob is only deleted once it has not been stored for
+ * {@code product.images.storage.orphan-grace-period}, so an upload still on its way to the
+ * database keeps its blob, and an upload of the same content renews it.
+ */
+@Slf4j
+@Component
+public class ImageBlobCollector {
+    private final BlobStore blobStore;
+    private final ImageRepository imageRepository;
+    private final ImageStorageProperties properties;
+
+    public ImageBlobCollector(BlobStore blobStore, ImageRepository imageRepository, ImageStorageProperties properties) {
+        this.blobStore = blobStore;
+        this.imageRepository = imageRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(
+            initialDelayString = "${product.images.storage.collection-interval:PT6H}",
+            fixedDelayString = "${product.images.storage.collection-interval:PT6H}"
+    )
+    public void collect() {
+        Instant cutoff = Instant.now().minus(properties.getOrphanGracePeriod());
+        int deleted = 0;
+        try (Stream<String> keys = blobStore.keys()) {
+            for (String key : (Iterable<String>) keys::iterator) {
+                if (imageRepository.existsByContentHash(key)) {
+                    continue;
+                }
+                try {
+                    if (blobStore.deleteIfUnchangedSince(key, cutoff)) {
+                        deleted++;
+                    }
+                } catch (IOException ex) {
+                    log.warn("Failed to delete unreferenced image content {}: {}", key, ex.getMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Failed to list stored images: {}", ex.getMessage());
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced stored images", deleted);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.megasegashop.product.service.image;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Bytes to serve for an image request, with the blob key that identifies them.
+ */
+public record ImageContent(
+        Resource resource,
+        String key,
+        String contentType
+) {
+}
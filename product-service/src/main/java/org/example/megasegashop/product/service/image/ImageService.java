@@ -4,7 +4,9 @@ import org.example.megasegashop.product.model.Image;
 import org.example.megasegashop.product.model.Product;
 import org.example.megasegashop.product.repository.ImageRepository;
 import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.support.AfterCommit;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,10 +14,10 @@ import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.sql.rowset.serial.SerialBlob;
 import java.io.IOException;
-import java.sql.SQLException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -24,12 +26,24 @@ public class ImageService {
 
     private final ImageRepository imageRepository;
     private final ProductRepository productRepository;
+    private final BlobStore blobStore;
+    private final ImageVariantService imageVariantService;
 
-    public ImageService(ImageRepository imageRepository, ProductRepository productRepository) {
+    public ImageService(
+            ImageRepository imageRepository,
+            ProductRepository productRepository,
+            BlobStore blobStore,
+            ImageVariantService imageVariantService
+    ) {
         this.imageRepository = imageRepository;
         this.productRepository = productRepository;
+        this.blobStore = blobStore;
+        this.imageVariantService = imageVariantService;
     }
 
+    /**
+     * Streams the upload into the blob store and keeps only its metadata in the database.
+     */
     @Transactional
     public Image uploadImage(Long productId, MultipartFile file) {
         Product product = productRepository.findById(productId)
@@ -40,21 +54,33 @@ public class ImageService {
         if (file.getSize() > MAX_IMAGE_BYTES) {
             throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image exceeds 5 MB limit");
         }
+        try (InputStream content = file.getInputStream()) {
+            if (imageVariantService.exceedsPixelLimit(content)) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image dimensions exceed the pixel limit");
+            }
+        } catch (IOException ex) {
+            log.error("Failed to read image content: {}", ex.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read image content");
+        }
+
+        BlobStore.StoredBlob blob;
+        try (InputStream content = file.getInputStream()) {
+            blob = blobStore.put(content);
+        } catch (IOException ex) {
+            log.error("Failed to store image content: {}", ex.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to store image content");
+        }
 
         Image image = new Image();
         image.setFileName(file.getOriginalFilename());
         image.setFileType(file.getContentType());
+        image.setContentHash(blob.key());
+        image.setContentLength(blob.size());
         image.setProduct(product);
 
-        try {
-            image.setImage(new SerialBlob(file.getBytes()));
-        } catch (IOException | SQLException ex) {
-            log.error("Failed to read image content: {}", ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid image payload");
-        }
-
         Image saved = imageRepository.save(image);
         saved.setDownloadUrl("/api/images/" + saved.getId());
+        AfterCommit.run(() -> imageVariantService.generateAll(blob.key()));
         return imageRepository.save(saved);
     }
 
@@ -63,6 +89,29 @@ public class ImageService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found"));
     }
 
+    /**
+     * The original, or with {@code width} the resized variant nearest to it. Falls back to the
+     * original when no variant can be produced, e.g. for formats that cannot be decoded.
+     */
+    public ImageContent getContent(Image image, Integer width) {
+        if (image.getContentHash() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image content not available");
+        }
+        if (width != null) {
+            if (width <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "w must be positive");
+            }
+            Optional<ImageVariantService.Variant> variant = imageVariantService.find(image.getContentHash(), width);
+            if (variant.isPresent()) {
+                return new ImageContent(
+                        variant.get().resource(), variant.get().key(), ImageVariantService.VARIANT_CONTENT_TYPE);
+            }
+        }
+        Resource original = blobStore.get(image.getContentHash())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Image content not available"));
+        return new ImageContent(original, image.getContentHash(), image.getFileType());
+    }
+
     public List<Image> getImagesByProduct(Long productId) {
         if (!productRepository.existsById(productId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
@@ -70,9 +119,12 @@ public class ImageService {
         return imageRepository.findByProductId(productId);
     }
 
+    /**
+     * Deletes the image. Its stored file is left to {@link ImageBlobCollector}, which removes it
+     * once no image references it, without racing uploads of the same content.
+     */
     @Transactional
     public void deleteImage(Long imageId) {
-        Image image = getImage(imageId);
-        imageRepository.delete(image);
+        imageRepository.delete(getImage(imageId));
     }
 }
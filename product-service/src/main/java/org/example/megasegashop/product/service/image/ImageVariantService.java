@@ -0,0 +1,300 @@
+package org.example.megasegashop.product.service.image;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.product.config.ImageDeliveryProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resized JPEG variants of stored images. Variants are stored in the blob store as blobs derived
+ * from the original, named by their width, so they are found again without any metadata.
+ * All variants of one original are produced from a single decode, on a bounded pool, and at most
+ * one job per original runs at a time. Originals declaring more than
+ * {@code product.images.delivery.max-source-pixels} are never decoded.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+    public static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    private final BlobStore blobStore;
+    private final ImageDeliveryProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> undecodable = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    public ImageVariantService(BlobStore blobStore, ImageDeliveryProperties properties) {
+        this.blobStore = blobStore;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getVariantWorkers(),
+                properties.getVariantWorkers(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getVariantQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * Queues generation of every configured variant. A full queue is not an error: the variants are
+     * then generated when first requested.
+     */
+    public void generateAll(String sourceKey) {
+        try {
+            submit(sourceKey);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Variant queue full; variants of {} will be generated on demand", sourceKey);
+        }
+    }
+
+    /**
+     * The stored variant nearest to {@code requestedWidth}, generating the missing variants of the
+     * original first. Empty if the original cannot be decoded or the variant is not ready in time.
+     */
+    public Optional<Variant> find(String sourceKey, int requestedWidth) {
+        int width = nearestWidth(requestedWidth);
+        String key = variantKey(sourceKey, width);
+        Optional<Resource> existing = blobStore.getDerived(sourceKey, variantName(width));
+        if (existing.isPresent()) {
+            return Optional.of(new Variant(key, existing.get()));
+        }
+        if (undecodable.getIfPresent(sourceKey) != null) {
+            return Optional.empty();
+        }
+
+        try {
+            submit(sourceKey).get(properties.getVariantTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (RejectedExecutionException | TimeoutException | ExecutionException ex) {
+            log.debug("Variant {} of {} not available: {}", key, sourceKey, ex.toString());
+            return Optional.empty();
+        }
+        return blobStore.getDerived(sourceKey, variantName(width)).map(resource -> new Variant(key, resource));
+    }
+
+    /**
+     * Whether the image declares more pixels than {@code max-source-pixels}. Only the header is
+     * read, so a small file claiming huge dimensions is caught before any raster is allocated.
+     * Content that is not a readable image is not limited.
+     */
+    public boolean exceedsPixelLimit(InputStream content) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            ImageReader reader = openReader(input);
+            if (reader == null) {
+                return false;
+            }
+            try {
+                return pixelCount(reader) > properties.getMaxSourcePixels();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Smallest configured width at least {@code requested}, or the largest if none is that wide.
+     */
+    int nearestWidth(int requested) {
+        return properties.getVariantWidths().stream()
+                .filter(width -> width >= requested)
+                .min(Comparator.naturalOrder())
+                .orElseGet(() -> properties.getVariantWidths().stream().max(Comparator.naturalOrder()).orElseThrow());
+    }
+
+    /**
+     * Identifies the variant's bytes, e.g. as its ETag.
+     */
+    static String variantKey(String sourceKey, int width) {
+        return sourceKey + "-" + variantName(width);
+    }
+
+    private static String variantName(int width) {
+        return "w" + width;
+    }
+
+    /**
+     * Joins the running job for this original or starts one.
+     */
+    private CompletableFuture<Void> submit(String sourceKey) {
+        CompletableFuture<Void> job = inFlight.computeIfAbsent(sourceKey,
+                key -> CompletableFuture.runAsync(() -> writeMissingVariants(key), executor));
+        job.whenComplete((ignored, ex) -> inFlight.remove(sourceKey, job));
+        return job;
+    }
+
+    private void writeMissingVariants(String sourceKey) {
+        // Re-checked here so that a job started right after another one finished does no work.
+        List<Integer> missing = properties.getVariantWidths().stream()
+                .filter(width -> blobStore.getDerived(sourceKey, variantName(width)).isEmpty())
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        BufferedImage source = decode(sourceKey);
+        if (source == null) {
+            undecodable.put(sourceKey, Boolean.TRUE);
+            log.debug("Image {} cannot be decoded; serving originals only", sourceKey);
+            return;
+        }
+        for (int width : missing) {
+            byte[] encoded = encode(scale(source, width));
+            try {
+                blobStore.putDerived(sourceKey, variantName(width), new ByteArrayInputStream(encoded));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private BufferedImage decode(String sourceKey) {
+        Resource original = blobStore.get(sourceKey).orElse(null);
+        if (original == null) {
+            return null;
+        }
+        try (InputStream content = original.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            ImageReader reader = openReader(input);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                long pixels = pixelCount(reader);
+                if (pixels > properties.getMaxSourcePixels()) {
+                    log.warn("Image {} declares {} pixels, more than the limit of {}; not resizing it",
+                            sourceKey, pixels, properties.getMaxSourcePixels());
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static ImageReader openReader(ImageInputStream input) {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    /**
+     * Reads the dimensions from the header only. Unreadable headers count as no pixels.
+     */
+    private static long pixelCount(ImageReader reader) {
+        try {
+            return (long) reader.getWidth(0) * reader.getHeight(0);
+        } catch (IOException | RuntimeException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Downscales in halving steps, which keeps bilinear filtering sharp; never upscales. The result
+     * is opaque RGB with transparency flattened onto white, since JPEG has no alpha channel.
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth) {
+        int width = Math.min(targetWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        boolean last;
+        do {
+            last = currentWidth / 2 <= width;
+            currentWidth = last ? width : currentWidth / 2;
+            currentHeight = last ? height : currentHeight / 2;
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (!last);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getVariantQuality());
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record Variant(String key, Resource resource) {
+    }
+}
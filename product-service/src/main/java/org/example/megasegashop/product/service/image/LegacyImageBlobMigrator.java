@@ -0,0 +1,92 @@
+package org.example.megasegashop.product.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Moves image bytes written before the blob store existed out of {@code image.image}. Each row is
+ * migrated in its own transaction, so the job can be interrupted and resumed on the next start.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "product.images.storage", name = "migrate-legacy-blobs", havingValue = "true", matchIfMissing = true)
+public class LegacyImageBlobMigrator {
+    private static final String PENDING_SQL = """
+            SELECT id FROM image
+            WHERE content_hash IS NULL AND image IS NOT NULL AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+    private static final String LOCK_SQL = "SELECT image FROM image WHERE id = ? AND content_hash IS NULL FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE image SET content_hash = ?, content_length = ?, image = NULL WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobStore blobStore;
+    private final ImageStorageProperties properties;
+
+    public LegacyImageBlobMigrator(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            BlobStore blobStore,
+            ImageStorageProperties properties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blobStore = blobStore;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long lastId = 0;
+        int migrated = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(PENDING_SQL, Long.class, lastId, properties.getMigrationBatchSize());
+            for (Long id : ids) {
+                lastId = id;
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrateRow(id)))) {
+                        migrated++;
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to move content of image id={} to the blob store: {}", id, ex.getMessage());
+                }
+            }
+        } while (!ids.isEmpty());
+
+        if (migrated > 0) {
+            log.info("Moved content of {} images to the blob store", migrated);
+        }
+    }
+
+    private boolean migrateRow(Long id) {
+        BlobStore.StoredBlob blob = jdbcTemplate.query(LOCK_SQL, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            try (InputStream content = rs.getBinaryStream(1)) {
+                return content != null ? blobStore.put(content) : null;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, id);
+        if (blob == null) {
+            return false;
+        }
+        jdbcTemplate.update(UPDATE_SQL, blob.key(), blob.size(), id);
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.megasegashop.product.service.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.megasegashop.product.model.Product;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Cached catalog view. {@code version} grows with every in-place change; {@code loadedAt}
+ * is the time of the last full load from the database.
+ *
+ * <p>Deliberately a non-final class: the Redis serializer only writes type information
+ * for non-final types.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSnapshot {
+    private long version;
+    private Instant loadedAt;
+    private List<Product> products;
+}
@@ -0,0 +1,161 @@
+package org.example.megasegashop.product.service.product;
+
+import org.example.megasegashop.product.cache.CacheEntryUpdater;
+import org.example.megasegashop.product.config.ProductCatalogCacheProperties;
+import org.example.megasegashop.product.model.Product;
+import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.support.AfterCommit;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the cached "products" catalog up to date in place instead of evicting it on every
+ * admin write. A missing or aged snapshot is reloaded by a single thread per instance.
+ * <p>
+ * The snapshot is shared by all instances, so every write goes through {@link CacheEntryUpdater}:
+ * a change made by another instance between the read and the write is never overwritten, and a
+ * reload is only installed if the snapshot version has not moved since the load started.
+ */
+@Component
+public class ProductCatalogCache {
+    static final String CACHE_NAME = "products";
+    private static final String KEY = "catalog";
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    private final CacheManager cacheManager;
+    private final ProductRepository productRepository;
+    private final ProductCatalogCacheProperties properties;
+    private final CacheEntryUpdater cacheEntryUpdater;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public ProductCatalogCache(
+            CacheManager cacheManager,
+            ProductRepository productRepository,
+            ProductCatalogCacheProperties properties,
+            CacheEntryUpdater cacheEntryUpdater
+    ) {
+        this.cacheManager = cacheManager;
+        this.productRepository = productRepository;
+        this.properties = properties;
+        this.cacheEntryUpdater = cacheEntryUpdater;
+    }
+
+    public List<Product> getAll() {
+        CatalogSnapshot snapshot = read();
+        if (!isLoaded(snapshot)) {
+            loadLock.lock();
+        } else if (!isStale(snapshot) || !loadLock.tryLock()) {
+            // Only one request pays for a refresh; everyone else keeps reading the current snapshot.
+            return snapshot.getProducts();
+        }
+        try {
+            return loadIfStale().getProducts();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces the product in the cached catalog once the current transaction commits.
+     */
+    public void upsert(Product product) {
+        AfterCommit.run(() -> apply(products -> {
+            products.removeIf(existing -> existing.getId().equals(product.getId()));
+            products.add(product);
+            products.sort(BY_ID);
+            return products;
+        }));
+    }
+
+    /**
+     * Removes the product from the cached catalog once the current transaction commits.
+     */
+    public void remove(Long productId) {
+        AfterCommit.run(() -> apply(products -> {
+            products.removeIf(existing -> existing.getId().equals(productId));
+            return products;
+        }));
+    }
+
+    /**
+     * Must be called with {@link #loadLock} held.
+     */
+    private CatalogSnapshot loadIfStale() {
+        CatalogSnapshot current = read();
+        for (int attempt = 1; ; attempt++) {
+            if (isLoaded(current) && !isStale(current)) {
+                // Another thread or instance finished loading in the meantime.
+                return current;
+            }
+            Long observedVersion = current != null ? current.getVersion() : null;
+            List<Product> products = new ArrayList<>(productRepository.findAll());
+            products.sort(BY_ID);
+            Instant loadedAt = Instant.now();
+            // A write on any instance during findAll() changes the version and may be missing from
+            // the result, so the load is only installed over the entry it started from.
+            CatalogSnapshot loaded = cacheEntryUpdater.update(cache(), KEY, CatalogSnapshot.class,
+                    cached -> Objects.equals(observedVersion, cached != null ? cached.getVersion() : null)
+                            ? new CatalogSnapshot(nextVersion(cached), loadedAt, products)
+                            : null);
+            if (loaded != null) {
+                return loaded;
+            }
+            if (attempt == MAX_LOAD_ATTEMPTS) {
+                // Serve this load once but leave nothing cached that is known to be behind.
+                cache().evict(KEY);
+                return new CatalogSnapshot(0, loadedAt, products);
+            }
+            current = read();
+        }
+    }
+
+    /**
+     * A change with nothing loaded still bumps the version, leaving an empty marker, so that a
+     * load already in flight does not install a catalog read before the change.
+     */
+    private void apply(UnaryOperator<List<Product>> change) {
+        cacheEntryUpdater.update(cache(), KEY, CatalogSnapshot.class, current -> isLoaded(current)
+                ? new CatalogSnapshot(current.getVersion() + 1, current.getLoadedAt(),
+                        change.apply(new ArrayList<>(current.getProducts())))
+                : new CatalogSnapshot(nextVersion(current), null, null));
+    }
+
+    private CatalogSnapshot read() {
+        return cache().get(KEY, CatalogSnapshot.class);
+    }
+
+    private boolean isStale(CatalogSnapshot snapshot) {
+        return snapshot.getLoadedAt() == null
+                || !snapshot.getLoadedAt().plus(properties.getRefreshAfter()).isAfter(Instant.now());
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' is not configured");
+        }
+        return cache;
+    }
+
+    private static boolean isLoaded(CatalogSnapshot snapshot) {
+        return snapshot != null && snapshot.getProducts() != null;
+    }
+
+    /**
+     * A new entry starts from the clock so that an entry recreated after an eviction never
+     * repeats a version a loader may have observed before it.
+     */
+    private static long nextVersion(CatalogSnapshot current) {
+        return current != null ? current.getVersion() + 1 : System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.megasegashop.product.service.product;
+
+import org.example.megasegashop.product.dto.ProductSearchCriteria;
+import org.example.megasegashop.product.dto.ProductSort;
+import org.example.megasegashop.product.model.Product;
+import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.repository.ProductSpecifications;
+import org.example.megasegashop.product.service.search.ProductTextIndex;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Catalog search over any combination of filters. Paged results use keyset pagination: the
+ * cursor carries the sort value and id of the last row, so each page is a bounded index range
+ * scan no matter how deep the client pages.
+ */
+@Service
+public class ProductSearchService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String TEXT_CURSOR_PREFIX = "TEXT|";
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final ProductTextIndex productTextIndex;
+
+    public ProductSearchService(
+            ProductRepository productRepository,
+            ProductService productService,
+            ProductTextIndex productTextIndex
+    ) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.productTextIndex = productTextIndex;
+    }
+
+    /**
+     * Unpaged search kept for {@code GET /products}; without filters it serves the cached catalog.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> search(ProductSearchCriteria criteria) {
+        validate(criteria);
+        if (criteria.isEmpty()) {
+            return productService.getAllProducts();
+        }
+        return productRepository.findAll(ProductSpecifications.matching(criteria), Sort.by("id"));
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage searchPage(ProductSearchCriteria criteria, ProductSort sort, Integer limit, String cursor) {
+        validate(criteria);
+        ProductSort order = sort != null ? sort : ProductSort.ID;
+        int pageSize = pageSize(limit);
+
+        Specification<Product> spec = ProductSpecifications.matching(criteria);
+        Cursor position = cursor != null ? Cursor.decode(cursor, order) : null;
+        spec = spec.and(position != null
+                ? ProductSpecifications.after(order, position.sortValue(), position.id())
+                : ProductSpecifications.after(order, null, null));
+
+        List<Product> rows = productRepository.findBy(spec, query -> query
+                .sortBy(ProductSpecifications.sortOf(order))
+                .limit(pageSize + 1)
+                .all());
+
+        if (rows.size() <= pageSize) {
+            return new SearchPage(rows, null);
+        }
+        List<Product> page = rows.subList(0, pageSize);
+        return new SearchPage(page, Cursor.after(page.get(pageSize - 1), order).encode());
+    }
+
+    /**
+     * Free-text search answered from the in-memory index without touching the database. Hits are
+     * ordered by relevance and paged by offset, so a page may shift if the catalog changes while
+     * the client is paging.
+     */
+    public SearchPage searchText(String query, ProductSearchCriteria criteria, Integer limit, String cursor) {
+        validate(criteria);
+        int pageSize = pageSize(limit);
+        int offset = cursor != null ? decodeOffset(cursor) : 0;
+
+        Predicate<Product> filter = matches(criteria);
+        List<Product> matched = productTextIndex.search(query).stream()
+                .map(ProductTextIndex.Hit::product)
+                .filter(filter)
+                .toList();
+
+        int from = Math.min(offset, matched.size());
+        int to = Math.min(offset + pageSize, matched.size());
+        String nextCursor = to < matched.size() ? encodeOffset(to) : null;
+        return new SearchPage(matched.subList(from, to), nextCursor);
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * In-memory equivalent of {@link ProductSpecifications#matching}.
+     */
+    private static Predicate<Product> matches(ProductSearchCriteria criteria) {
+        String prefix = criteria.namePrefix() != null && !criteria.namePrefix().isBlank()
+                ? criteria.namePrefix().toLowerCase(Locale.ROOT)
+                : null;
+        return product -> (criteria.category() == null
+                        || product.getCategory() != null && criteria.category().equals(product.getCategory().getName()))
+                && (criteria.brand() == null || criteria.brand().equals(product.getBrand()))
+                && (criteria.name() == null || criteria.name().equals(product.getName()))
+                && (prefix == null
+                        || product.getName() != null && product.getName().toLowerCase(Locale.ROOT).startsWith(prefix))
+                && (criteria.price() == null || product.getPrice() != null && criteria.price().compareTo(product.getPrice()) == 0)
+                && (criteria.minPrice() == null || product.getPrice() != null && product.getPrice().compareTo(criteria.minPrice()) >= 0)
+                && (criteria.maxPrice() == null || product.getPrice() != null && product.getPrice().compareTo(criteria.maxPrice()) <= 0);
+    }
+
+    private static String encodeOffset(int offset) {
+        String raw = TEXT_CURSOR_PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(TEXT_CURSOR_PREFIX)) {
+                throw Cursor.invalidCursor();
+            }
+            int offset = Integer.parseInt(raw.substring(TEXT_CURSOR_PREFIX.length()));
+            if (offset < 0) {
+                throw Cursor.invalidCursor();
+            }
+            return offset;
+        } catch (IllegalArgumentException ex) {
+            throw Cursor.invalidCursor();
+        }
+    }
+
+    private void validate(ProductSearchCriteria criteria) {
+        if (criteria.minPrice() != null && criteria.maxPrice() != null
+                && criteria.minPrice().compareTo(criteria.maxPrice()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not exceed maxPrice");
+        }
+    }
+
+    public record SearchPage(List<Product> products, String nextCursor) {
+    }
+
+    /**
+     * Opaque position token: {@code SORT|id|value}, base64url-encoded. The sort is included so
+     * that a cursor cannot be replayed against a different ordering.
+     */
+    private record Cursor(ProductSort sort, Long id, Object sortValue) {
+
+        static Cursor after(Product product, ProductSort sort) {
+            Object value = switch (sort) {
+                case ID -> null;
+                case PRICE_ASC, PRICE_DESC -> product.getPrice();
+                case NAME_ASC -> product.getName();
+            };
+            return new Cursor(sort, product.getId(), value);
+        }
+
+        String encode() {
+            String raw = sort.name() + "|" + id + "|" + (sortValue != null ? sortValue : "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token, ProductSort expectedSort) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                ProductSort sort = ProductSort.valueOf(parts[0]);
+                if (sort != expectedSort) {
+                    throw invalidCursor();
+                }
+                Long id = Long.valueOf(parts[1]);
+                Object value = switch (sort) {
+                    case ID -> null;
+                    case PRICE_ASC, PRICE_DESC -> new BigDecimal(parts[2]);
+                    case NAME_ASC -> parts[2];
+                };
+                return new Cursor(sort, id, value);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                throw invalidCursor();
+            }
+        }
+
+        private static ResponseStatusException invalidCursor() {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
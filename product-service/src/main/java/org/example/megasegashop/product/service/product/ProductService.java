@@ -9,17 +9,20 @@ import org.example.megasegashop.product.exceptions.ProductNotFoundException;
 import org.example.megasegashop.product.model.Category;
 import org.example.megasegashop.product.model.Product;
 import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.service.search.ProductSearchIndexer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -30,14 +33,17 @@ public class ProductService {
     private static final String PRODUCT_DELETED_TOPIC = "product.deleted";
 
     private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchIndexer productSearchIndexer;
     private final KafkaTemplate<String, ProductCreatedEvent> productCreatedKafkaTemplate;
     private final KafkaTemplate<String, ProductUpdatedEvent> productUpdatedKafkaTemplate;
     private final KafkaTemplate<String, ProductDeletedEvent> productDeletedKafkaTemplate;
 
     @Transactional
-    @CacheEvict(cacheNames = "products", allEntries = true)
     public Product addProduct(Product product, int initialQuantity) {
         Product saved = productRepository.save(product);
+        productCatalogCache.upsert(saved);
+        productSearchIndexer.index(saved);
         
         ProductCreatedEvent event = new ProductCreatedEvent(
                 saved.getId(),
@@ -49,9 +55,8 @@ public class ProductService {
         return saved;
     }
 
-    @Cacheable(cacheNames = "products")
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productCatalogCache.getAll();
     }
 
     @Cacheable(cacheNames = "product-by-id", key = "#id")
@@ -60,16 +65,29 @@ public class ProductService {
                 .orElseThrow(() -> new ProductNotFoundException("Product not found..."));
     }
 
+    /**
+     * The existing products among {@code ids}, in the order they were requested. Unknown ids are
+     * skipped and repeated ids are returned once.
+     */
+    public List<Product> getProductsByIds(List<Long> ids) {
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, Product> found = productRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return requested.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(cacheNames = "products", allEntries = true),
-            @CacheEvict(cacheNames = "product-by-id", key = "#id")
-    })
+    @CacheEvict(cacheNames = "product-by-id", key = "#id")
     public void deleteProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found..."));
 
         productRepository.delete(product);
+        productCatalogCache.remove(product.getId());
+        productSearchIndexer.remove(product.getId());
 
         ProductDeletedEvent event = new ProductDeletedEvent(product.getId(), product.getName());
         productDeletedKafkaTemplate.send(PRODUCT_DELETED_TOPIC, event);
@@ -77,10 +95,7 @@ public class ProductService {
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(cacheNames = "products", allEntries = true),
-            @CacheEvict(cacheNames = "product-by-id", key = "#id")
-    })
+    @CacheEvict(cacheNames = "product-by-id", key = "#id")
     public Product updateProduct(Long id, ProductUpdateRequest request, Category category) {
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found..."));
@@ -115,6 +130,8 @@ public class ProductService {
         Product saved = existing;
         if (changed) {
             saved = productRepository.save(existing);
+            productCatalogCache.upsert(saved);
+            productSearchIndexer.index(saved);
         }
 
         if (changed || inventoryDelta != 0) {
@@ -128,40 +145,4 @@ public class ProductService {
 
         return saved;
     }
-
-    public List<Product> getProductsByPriceRange(BigDecimal min, BigDecimal max) {
-        return productRepository.findByPriceBetween(min, max);
-    }
-
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategoryName(category);
-    }
-
-    public List<Product> getProductsByName(String name) {
-        return productRepository.findByName(name);
-    }
-
-    public List<Product> getProductsByPrice(BigDecimal price) {
-        return productRepository.findByPrice(price);
-    }
-
-    public List<Product> getProductsByBrand(String brand) {
-        return productRepository.findByBrand(brand);
-    }
-
-    public List<Product> getProductsByCategoryAndPrice(String category, BigDecimal price) {
-        return productRepository.findByCategoryNameAndPrice(category, price);
-    }
-
-    public List<Product> getProductsByCategoryAndBrand(String category, String brand) {
-        return productRepository.findByCategoryNameAndBrand(category, brand);
-    }
-
-    public List<Product> getProductsByCategoryAndPriceAndName(String category, BigDecimal price, String name) {
-        return productRepository.findByCategoryNameAndPriceAndName(category, price, name);
-    }
-
-    public List<Product> getProductsByBrandAndName(String brand, String name) {
-        return productRepository.findByBrandAndName(brand, name);
-    }
 }
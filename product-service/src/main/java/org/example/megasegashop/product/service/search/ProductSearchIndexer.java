@@ -0,0 +1,75 @@
+package org.example.megasegashop.product.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.megasegashop.product.model.Product;
+import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.support.AfterCommit;
+import org.example.megasegashop.product.support.WriteTrackingLoader;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link ProductTextIndex}: a full build at startup and on a fixed interval, this
+ * instance's own writes once they commit, and other instances' writes via {@link #refresh}.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndexer {
+    private static final int MAX_BUILD_ATTEMPTS = 3;
+
+    private final ProductTextIndex productTextIndex;
+    private final ProductRepository productRepository;
+    // A write applied during a rebuild's findAll() may be missing from it; the rebuild is repeated rather than lose it.
+    private final WriteTrackingLoader writeTracking = new WriteTrackingLoader(MAX_BUILD_ATTEMPTS);
+
+    public ProductSearchIndexer(ProductTextIndex productTextIndex, ProductRepository productRepository) {
+        this.productTextIndex = productTextIndex;
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${product.search.index.rebuild-interval:PT10M}",
+            fixedDelayString = "${product.search.index.rebuild-interval:PT10M}"
+    )
+    public void rebuild() {
+        try {
+            writeTracking.load(productRepository::findAll, products -> {
+                productTextIndex.replaceAll(products);
+                log.debug("Rebuilt product search index with {} products", products.size());
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Failed to rebuild product search index: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Indexes the product once the current transaction commits.
+     */
+    public void index(Product product) {
+        AfterCommit.run(() -> writeTracking.write(() -> productTextIndex.upsert(product)));
+    }
+
+    /**
+     * Drops the product from the index once the current transaction commits.
+     */
+    public void remove(Long productId) {
+        AfterCommit.run(() -> writeTracking.write(() -> productTextIndex.remove(productId)));
+    }
+
+    /**
+     * Re-reads the product and indexes its current state, or drops it if it no longer exists.
+     */
+    public void refresh(Long productId) {
+        productRepository.findById(productId).ifPresentOrElse(
+                product -> writeTracking.write(() -> productTextIndex.upsert(product)),
+                () -> writeTracking.write(() -> productTextIndex.remove(productId))
+        );
+    }
+}
@@ -0,0 +1,326 @@
+package org.example.megasegashop.product.service.search;
+
+import org.example.megasegashop.product.config.ProductSearchIndexProperties;
+import org.example.megasegashop.product.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, brand, category and description, ranked with BM25.
+ * Matches in the name weigh more than matches in the description. Every query term also matches
+ * as a prefix, and longer terms tolerate one typo through a table of single-character deletions,
+ * so no lookup scans the whole vocabulary.
+ */
+@Component
+public class ProductTextIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float BRAND_WEIGHT = 2f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final double EXACT_BOOST = 1.0;
+    private static final double PREFIX_BOOST = 0.6;
+    private static final double FUZZY_BOOST = 0.4;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Comparator<Hit> BY_RELEVANCE = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(hit -> hit.product().getId());
+
+    private final ProductSearchIndexProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+
+    public ProductTextIndex(ProductSearchIndexProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Ranked products matching any term of the query, best first.
+     */
+    public List<Hit> search(String query) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (postings.documents.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                expand(term).forEach((indexed, boost) -> score(indexed, boost, scores));
+            }
+            return scores.entrySet().stream()
+                    .map(entry -> new Hit(postings.documents.get(entry.getKey()).product(), entry.getValue()))
+                    .sorted(BY_RELEVANCE)
+                    .limit(properties.getMaxResults())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        Document document = Document.of(product);
+        lock.writeLock().lock();
+        try {
+            postings.remove(product.getId());
+            postings.add(document, properties.getFuzzyMinTermLength());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            postings.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index. The new index is built before the write lock is taken, so
+     * searches keep running against the old one in the meantime.
+     */
+    public void replaceAll(Collection<Product> products) {
+        Postings rebuilt = new Postings();
+        for (Product product : products) {
+            if (product.getId() != null) {
+                rebuilt.add(Document.of(product), properties.getFuzzyMinTermLength());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cased, accent-free alphanumeric tokens.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indexed terms the query term matches, with the boost of the best way it matched.
+     * Must be called with the read lock held.
+     */
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> expanded = new LinkedHashMap<>();
+        if (postings.terms.containsKey(term)) {
+            expanded.put(term, EXACT_BOOST);
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            int added = 0;
+            for (String indexed : postings.terms.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                if (added++ >= properties.getMaxPrefixExpansions()) {
+                    break;
+                }
+                expanded.putIfAbsent(indexed, PREFIX_BOOST);
+            }
+        }
+        if (term.length() >= properties.getFuzzyMinTermLength()) {
+            for (String variant : variants(term)) {
+                for (String indexed : postings.deletions.getOrDefault(variant, Set.of())) {
+                    if (withinOneEdit(term, indexed)) {
+                        expanded.putIfAbsent(indexed, FUZZY_BOOST);
+                    }
+                }
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Adds the BM25 contribution of one indexed term to every document containing it.
+     */
+    private void score(String term, double boost, Map<Long, Double> scores) {
+        Map<Long, Float> matches = postings.terms.get(term);
+        int documentCount = postings.documents.size();
+        double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+        double averageLength = postings.totalLength / documentCount;
+        double k1 = properties.getK1();
+        double b = properties.getB();
+
+        matches.forEach((productId, frequency) -> {
+            double length = postings.documents.get(productId).length();
+            double saturation = frequency * (k1 + 1) / (frequency + k1 * (1 - b + b * length / averageLength));
+            scores.merge(productId, boost * idf * saturation, Double::sum);
+        });
+    }
+
+    /**
+     * The term itself plus every string obtained by deleting one character from it.
+     */
+    private static Set<String> variants(String term) {
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(term);
+        if (term.length() > 1) {
+            for (int i = 0; i < term.length(); i++) {
+                variants.add(term.substring(0, i) + term.substring(i + 1));
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Optimal string alignment distance of at most one: one insertion, deletion, substitution
+     * or transposition of adjacent characters.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        if (lengthDifference != 0) {
+            String longer = lengthDifference > 0 ? a : b;
+            String shorter = lengthDifference > 0 ? b : a;
+            int i = 0;
+            while (i < shorter.length() && shorter.charAt(i) == longer.charAt(i)) {
+                i++;
+            }
+            return shorter.regionMatches(i, longer, i + 1, shorter.length() - i);
+        }
+        int first = -1;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                if (first < 0) {
+                    first = i;
+                } else {
+                    return i == first + 1
+                            && a.charAt(first) == b.charAt(i)
+                            && a.charAt(i) == b.charAt(first)
+                            && a.regionMatches(i + 1, b, i + 1, a.length() - i - 1);
+                }
+            }
+        }
+        return true;
+    }
+
+    public record Hit(Product product, double score) {
+    }
+
+    private record Document(Product product, Map<String, Float> frequencies, float length) {
+
+        static Document of(Product product) {
+            Map<String, Float> frequencies = new HashMap<>();
+            addField(frequencies, product.getName(), NAME_WEIGHT);
+            addField(frequencies, product.getBrand(), BRAND_WEIGHT);
+            addField(frequencies, product.getCategory() != null ? product.getCategory().getName() : null, CATEGORY_WEIGHT);
+            addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+            float length = 0;
+            for (float frequency : frequencies.values()) {
+                length += frequency;
+            }
+            return new Document(product, frequencies, length);
+        }
+
+        private static void addField(Map<String, Float> frequencies, String text, float weight) {
+            for (String token : tokenize(text)) {
+                frequencies.merge(token, weight, Float::sum);
+            }
+        }
+    }
+
+    /**
+     * Mutable index state; guarded by the enclosing index's lock once published.
+     */
+    private static final class Postings {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Map<Long, Float>> terms = new TreeMap<>();
+        private final Map<String, Set<String>> deletions = new HashMap<>();
+        private double totalLength;
+
+        void add(Document document, int fuzzyMinTermLength) {
+            Long productId = document.product().getId();
+            documents.put(productId, document);
+            totalLength += document.length();
+            document.frequencies().forEach((term, frequency) -> {
+                Map<Long, Float> matches = terms.get(term);
+                if (matches == null) {
+                    matches = new HashMap<>();
+                    terms.put(term, matches);
+                    // A query term one edit away is at most one character longer.
+                    if (term.length() >= fuzzyMinTermLength - 1) {
+                        for (String variant : variants(term)) {
+                            deletions.computeIfAbsent(variant, key -> new HashSet<>()).add(term);
+                        }
+                    }
+                }
+                matches.put(productId, frequency);
+            });
+        }
+
+        void remove(Long productId) {
+            Document document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length();
+            for (String term : document.frequencies().keySet()) {
+                Map<Long, Float> matches = terms.get(term);
+                matches.remove(productId);
+                if (matches.isEmpty()) {
+                    terms.remove(term);
+                    for (String variant : variants(term)) {
+                        Set<String> indexed = deletions.get(variant);
+                        if (indexed != null && indexed.remove(term) && indexed.isEmpty()) {
+                            deletions.remove(variant);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
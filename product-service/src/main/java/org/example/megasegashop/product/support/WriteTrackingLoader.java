@@ -0,0 +1,48 @@
+package org.example.megasegashop.product.support;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Guards an in-memory view that is both rebuilt from a full load and changed in place by
+ * individual writes. A load that overlapped a write may be missing it, so it is repeated
+ * instead of installed; the last of {@code maxAttempts} loads is installed regardless.
+ */
+public class WriteTrackingLoader {
+    private final int maxAttempts;
+    private final Object monitor = new Object();
+    private long writes;
+
+    public WriteTrackingLoader(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Applies a change to the view, serialized with the installation of loads.
+     */
+    public void write(Runnable change) {
+        synchronized (monitor) {
+            writes++;
+            change.run();
+        }
+    }
+
+    /**
+     * Loads outside the lock and installs the result only if no write was applied meanwhile.
+     */
+    public <T> void load(Supplier<T> loader, Consumer<T> install) {
+        for (int attempt = 1; ; attempt++) {
+            long writesBefore;
+            synchronized (monitor) {
+                writesBefore = writes;
+            }
+            T loaded = loader.get();
+            synchronized (monitor) {
+                if (writes == writesBefore || attempt == maxAttempts) {
+                    install.accept(loaded);
+                    return;
+                }
+            }
+        }
+    }
+}
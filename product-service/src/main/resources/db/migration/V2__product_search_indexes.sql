@@ -0,0 +1,10 @@
+-- Composite indexes for catalog search. Each ends with id so keyset pagination
+-- ("(sort value, id) > cursor ORDER BY sort value, id") is a single range scan.
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON product(price, id);
+CREATE INDEX IF NOT EXISTS idx_product_category_id ON product(category_id, id);
+CREATE INDEX IF NOT EXISTS idx_product_category_price ON product(category_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_product_brand_id ON product(brand, id);
+CREATE INDEX IF NOT EXISTS idx_product_brand_price ON product(brand, price, id);
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON product(name, id);
+-- Case-insensitive prefix search: lower(name) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_product_lower_name_prefix ON product(lower(name) text_pattern_ops);
@@ -0,0 +1,7 @@
+ALTER TABLE image ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE image ADD COLUMN content_length BIGINT;
+
+CREATE INDEX idx_image_content_hash ON image(content_hash);
+
+-- image.image is emptied row by row by LegacyImageBlobMigrator and can be dropped
+-- once no row has content_hash IS NULL.
@@ -0,0 +1,77 @@
+package org.example.megasegashop.product.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.megasegashop.product.config.CacheCodecProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of one cache entry per codec: a single product ({@code entries=1},
+ * the "product-by-id" cache) and a catalog list ({@code entries=500}, the "products" cache).
+ * The entry size in bytes is printed once per trial.
+ * Run with {@code ./mvnw -pl product-service test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=org.example.megasegashop.product.cache.CacheCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({"json", "smile", "smile-lz4"})
+    public String codec;
+
+    @Param({"1", "500"})
+    public int entries;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CacheCodecProperties properties = new CacheCodecProperties();
+        properties.setType(codec.startsWith("smile") ? CacheCodec.SMILE : CacheCodec.JSON);
+        properties.setCompressionEnabled(codec.endsWith("lz4"));
+        serializer = CacheSerializers.create(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        value = entries == 1 ? CacheSerializersTest.product(1L) : CacheSerializersTest.catalog(entries);
+        encoded = serializer.serialize(value);
+        System.out.printf("%n[codec=%s, entries=%d] %d bytes per entry%n", codec, entries, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
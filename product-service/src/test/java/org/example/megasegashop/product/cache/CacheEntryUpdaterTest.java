@@ -0,0 +1,78 @@
+package org.example.megasegashop.product.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheEntryUpdaterTest {
+
+    private static final byte[] KEY = "products::catalog".getBytes(StandardCharsets.UTF_8);
+    private static final JdkSerializationRedisSerializer SERIALIZER = new JdkSerializationRedisSerializer();
+
+    private RedisConnection connection;
+    private Cache cache;
+    private CacheEntryUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        connection = mock(RedisConnection.class, RETURNS_DEEP_STUBS);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        cache = spy(RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().computePrefixWith(name -> name + "::"))
+                .build()
+                .getCache("products"));
+        updater = new CacheEntryUpdater(connectionFactory);
+    }
+
+    @Test
+    void update_reappliesChangeWhenAnotherWriterWins() {
+        when(connection.stringCommands().get(KEY))
+                .thenReturn(SERIALIZER.serialize("v1"))
+                .thenReturn(SERIALIZER.serialize("v2"));
+        when(connection.exec()).thenReturn(List.of()).thenReturn(List.of(true));
+
+        String written = updater.update(cache, "catalog", String.class, current -> current + "+change");
+
+        assertEquals("v2+change", written);
+        verify(connection, times(2)).watch(KEY);
+        verify(connection.stringCommands()).set(eq(KEY), eq(SERIALIZER.serialize("v2+change")),
+                any(Expiration.class), any(RedisStringCommands.SetOption.class));
+    }
+
+    @Test
+    void update_withoutCurrentValue_writesNothingWhenChangeDeclines() {
+        when(connection.stringCommands().get(KEY)).thenReturn(null);
+
+        assertNull(updater.update(cache, "catalog", String.class, current -> current == null ? null : "changed"));
+
+        verify(connection).unwatch();
+        verify(connection, never()).multi();
+    }
+
+    @Test
+    void update_evictsEntryAfterRepeatedConflicts() {
+        when(connection.stringCommands().get(KEY)).thenReturn(SERIALIZER.serialize("v1"));
+        when(connection.exec()).thenReturn(List.of());
+
+        assertNull(updater.update(cache, "catalog", String.class, current -> current + "+change"));
+
+        verify(connection, times(CacheEntryUpdater.MAX_ATTEMPTS)).exec();
+        verify(cache).evict("catalog");
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.megasegashop.product.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.megasegashop.product.config.CacheCodecProperties;
+import org.example.megasegashop.product.model.Category;
+import org.example.megasegashop.product.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSerializersTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void everyCodec_roundTripsCatalog() {
+        for (CacheCodec codec : CacheCodec.values()) {
+            for (boolean compression : new boolean[]{false, true}) {
+                RedisSerializer<Object> serializer = CacheSerializers.create(properties(codec, compression), OBJECT_MAPPER);
+
+                Object restored = serializer.deserialize(serializer.serialize(catalog(50)));
+
+                List<?> products = assertInstanceOf(List.class, restored, codec + "/" + compression);
+                assertEquals(50, products.size());
+                Product first = assertInstanceOf(Product.class, products.get(0));
+                assertEquals("Product 0", first.getName());
+                assertEquals(0, new BigDecimal("10.99").compareTo(first.getPrice()));
+                assertEquals("Games", first.getCategory().getName());
+            }
+        }
+    }
+
+    @Test
+    void smileWithCompression_isSmallerThanJson() {
+        List<Product> catalog = catalog(200);
+        int json = CacheSerializers.create(properties(CacheCodec.JSON, false), OBJECT_MAPPER).serialize(catalog).length;
+        int compact = CacheSerializers.create(properties(CacheCodec.SMILE, true), OBJECT_MAPPER).serialize(catalog).length;
+
+        assertTrue(compact < json / 2, () -> "smile+lz4=" + compact + " bytes, json=" + json + " bytes");
+    }
+
+    @Test
+    void compressingSerializer_readsEntriesWrittenWithoutFraming() {
+        RedisSerializer<Object> json = CacheSerializers.codec(CacheCodec.JSON, OBJECT_MAPPER);
+        RedisSerializer<Object> compressing = CacheSerializers.create(properties(CacheCodec.JSON, true), OBJECT_MAPPER);
+
+        Object restored = compressing.deserialize(json.serialize(product(1L)));
+
+        assertEquals(1L, assertInstanceOf(Product.class, restored).getId());
+    }
+
+    private static CacheCodecProperties properties(CacheCodec codec, boolean compression) {
+        CacheCodecProperties properties = new CacheCodecProperties();
+        properties.setType(codec);
+        properties.setCompressionEnabled(compression);
+        return properties;
+    }
+
+    static List<Product> catalog(int size) {
+        List<Product> products = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setBrand("Brand " + (id % 5));
+        product.setDescription("A reasonably long description of product " + id + " for the catalog page");
+        product.setPrice(new BigDecimal("10.99"));
+        product.setCategory(new Category(1L, "Games", null));
+        return product;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.megasegashop.product.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.megasegashop.product.config.NearCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheManagerTest {
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        redisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, redisTemplate, new NearCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void get_fillsLocalTierFromRemoteAndServesLaterHitsLocally() {
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("product-by-id");
+        cache.put(1L, "phone");
+        assertNull(cache.getLocalCache().asMap().get("1"));
+
+        assertEquals("phone", cache.get(1L).get());
+        assertEquals("phone", cache.getLocalCache().asMap().get("1"));
+
+        // A change that bypasses this instance is invisible until the local entry is invalidated.
+        remoteCacheManager.getCache("product-by-id").put(1L, "tablet");
+        assertEquals("phone", cache.get(1L).get());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "product-by-id", "tier", "l1", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evict_publishesInvalidationAndClearsBothTiers() {
+        Cache cache = cacheManager.getCache("products");
+        cache.put("all", "list");
+        cache.get("all");
+        clearInvocations(redisTemplate);
+
+        cache.evict("all");
+
+        assertNull(cache.get("all"));
+        verify(redisTemplate).convertAndSend(eq("product-cache-invalidation"), contains("|E|products|all"));
+    }
+
+    @Test
+    void onMessage_fromOtherInstance_dropsLocalEntryOnly() {
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("product-by-id");
+        cache.put(7L, "console");
+        cache.get(7L);
+
+        cacheManager.onMessage(message("other-node|E|product-by-id|7"), null);
+
+        assertNull(cache.getLocalCache().asMap().get("7"));
+        assertNotNull(cache.getRemoteCache().get(7L));
+
+        cache.get(7L);
+        cacheManager.onMessage(message("other-node|C|product-by-id"), null);
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+                "product-cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.megasegashop.product.controller;
+
+import org.example.megasegashop.product.event.ProductCreatedEvent;
+import org.example.megasegashop.product.event.ProductDeletedEvent;
+import org.example.megasegashop.product.event.ProductUpdatedEvent;
+import org.example.megasegashop.product.model.Image;
+import org.example.megasegashop.product.model.Product;
+import org.example.megasegashop.product.repository.ImageRepository;
+import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.service.image.ImageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.cache.type=none",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+@AutoConfigureMockMvc
+class ImageControllerTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockBean
+    private KafkaTemplate<String, ProductCreatedEvent> productCreatedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, ProductUpdatedEvent> productUpdatedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, ProductDeletedEvent> productDeletedKafkaTemplate;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        product = productRepository.save(new Product(null, "Camera", "TestBrand", "Description",
+                new BigDecimal("10.00"), null, new ArrayList<>()));
+    }
+
+    @Test
+    void download_servesContentWithStrongEtagAndCacheControl() throws Exception {
+        Image image = upload("notes.txt", "text/plain", CONTENT);
+
+        mockMvc.perform(get("/images/{id}", image.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + image.getContentHash() + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("public")))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void download_matchingIfNoneMatch_answersNotModified() throws Exception {
+        Image image = upload("notes.txt", "text/plain", CONTENT);
+
+        mockMvc.perform(get("/images/{id}", image.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + image.getContentHash() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + image.getContentHash() + "\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void download_rangeRequest_answersPartialContent() throws Exception {
+        Image image = upload("notes.txt", "text/plain", CONTENT);
+
+        mockMvc.perform(get("/images/{id}", image.getId()).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void download_withWidth_servesVariantUnderItsOwnEtag() throws Exception {
+        Image image = upload("photo.png", "image/png", png(800, 600));
+
+        mockMvc.perform(get("/images/{id}", image.getId()).param("w", "100"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + image.getContentHash() + "-w128\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"photo.jpg\""));
+    }
+
+    private Image upload(String fileName, String contentType, byte[] bytes) {
+        return imageService.uploadImage(product.getId(), new MockMultipartFile("file", fileName, contentType, bytes));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.megasegashop.product.service;
+
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.example.megasegashop.product.service.image.BlobStore;
+import org.example.megasegashop.product.service.image.FileSystemBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        ImageStorageProperties properties = new ImageStorageProperties();
+        properties.setRoot(root);
+        blobStore = new FileSystemBlobStore(properties);
+    }
+
+    @Test
+    void put_keysContentBySha256AndStoresDuplicatesOnce() throws IOException {
+        BlobStore.StoredBlob first = blobStore.put(stream("hello"));
+        BlobStore.StoredBlob second = blobStore.put(stream("hello"));
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", first.key());
+        assertEquals(first, second);
+        assertEquals(5, first.size());
+        assertEquals(1, countFiles());
+
+        try (InputStream content = blobStore.get(first.key()).orElseThrow().getInputStream()) {
+            assertEquals("hello", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void delete_removesContent() throws IOException {
+        BlobStore.StoredBlob blob = blobStore.put(stream("bytes"));
+
+        blobStore.delete(blob.key());
+
+        assertTrue(blobStore.get(blob.key()).isEmpty());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void deleteDerived_removesEveryDerivedBlobOfTheSource() throws IOException {
+        BlobStore.StoredBlob blob = blobStore.put(stream("original"));
+        blobStore.putDerived(blob.key(), "w128", stream("small"));
+        blobStore.putDerived(blob.key(), "w512", stream("large"));
+
+        try (InputStream content = blobStore.getDerived(blob.key(), "w128").orElseThrow().getInputStream()) {
+            assertEquals("small", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        blobStore.deleteDerived(blob.key());
+
+        assertTrue(blobStore.getDerived(blob.key(), "w512").isEmpty());
+        assertTrue(blobStore.get(blob.key()).isPresent());
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void keys_listsOriginalsOnly() throws IOException {
+        BlobStore.StoredBlob first = blobStore.put(stream("first"));
+        BlobStore.StoredBlob second = blobStore.put(stream("second"));
+        blobStore.putDerived(first.key(), "w128", stream("small"));
+
+        try (Stream<String> keys = blobStore.keys()) {
+            assertEquals(Set.of(first.key(), second.key()), keys.collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void deleteIfUnchangedSince_keepsContentStoredAgainAfterCutoff() throws IOException {
+        BlobStore.StoredBlob blob = blobStore.put(stream("shared"));
+        blobStore.putDerived(blob.key(), "w128", stream("small"));
+        age(blob.key(), Duration.ofHours(2));
+        Instant cutoff = Instant.now().minus(Duration.ofHours(1));
+
+        blobStore.put(stream("shared"));
+        assertFalse(blobStore.deleteIfUnchangedSince(blob.key(), cutoff));
+        assertTrue(blobStore.get(blob.key()).isPresent());
+
+        age(blob.key(), Duration.ofHours(2));
+        assertTrue(blobStore.deleteIfUnchangedSince(blob.key(), cutoff));
+        assertTrue(blobStore.get(blob.key()).isEmpty());
+        assertTrue(blobStore.getDerived(blob.key(), "w128").isEmpty());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void get_rejectsKeysThatAreNotHashes() {
+        assertThrows(IllegalArgumentException.class, () -> blobStore.get("../../etc/passwd"));
+    }
+
+    private void age(String key, Duration age) throws IOException {
+        Path path = Path.of(blobStore.get(key).orElseThrow().getURI());
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.megasegashop.product.service;
+
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.example.megasegashop.product.repository.ImageRepository;
+import org.example.megasegashop.product.service.image.BlobStore;
+import org.example.megasegashop.product.service.image.FileSystemBlobStore;
+import org.example.megasegashop.product.service.image.ImageBlobCollector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageBlobCollectorTest {
+
+    @TempDir
+    Path root;
+
+    private BlobStore blobStore;
+    private ImageRepository imageRepository;
+    private ImageBlobCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        ImageStorageProperties properties = new ImageStorageProperties();
+        properties.setRoot(root);
+        properties.setOrphanGracePeriod(Duration.ofHours(1));
+        blobStore = new FileSystemBlobStore(properties);
+        imageRepository = mock(ImageRepository.class);
+        collector = new ImageBlobCollector(blobStore, imageRepository, properties);
+    }
+
+    @Test
+    void collect_deletesOnlyUnreferencedContentOlderThanGracePeriod() throws IOException {
+        String referenced = blobStore.put(stream("referenced")).key();
+        String orphan = blobStore.put(stream("orphan")).key();
+        String recent = blobStore.put(stream("recent upload")).key();
+        blobStore.putDerived(orphan, "w128", stream("variant"));
+        age(referenced);
+        age(orphan);
+        when(imageRepository.existsByContentHash(referenced)).thenReturn(true);
+
+        collector.collect();
+
+        assertTrue(blobStore.get(referenced).isPresent());
+        assertTrue(blobStore.get(recent).isPresent());
+        assertTrue(blobStore.get(orphan).isEmpty());
+        assertTrue(blobStore.getDerived(orphan, "w128").isEmpty());
+    }
+
+    private void age(String key) throws IOException {
+        Path path = Path.of(blobStore.get(key).orElseThrow().getURI());
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
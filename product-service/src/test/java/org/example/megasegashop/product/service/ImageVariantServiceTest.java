@@ -0,0 +1,118 @@
+package org.example.megasegashop.product.service;
+
+import org.example.megasegashop.product.config.ImageDeliveryProperties;
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.example.megasegashop.product.service.image.BlobStore;
+import org.example.megasegashop.product.service.image.FileSystemBlobStore;
+import org.example.megasegashop.product.service.image.ImageVariantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path root;
+
+    private BlobStore blobStore;
+    private ImageVariantService variantService;
+
+    @BeforeEach
+    void setUp() {
+        ImageStorageProperties storageProperties = new ImageStorageProperties();
+        storageProperties.setRoot(root);
+        blobStore = spy(new FileSystemBlobStore(storageProperties));
+        variantService = new ImageVariantService(blobStore, new ImageDeliveryProperties());
+    }
+
+    @Test
+    void find_servesNearestVariantWithoutUpscaling() throws IOException {
+        String source = blobStore.put(png(2000, 1000)).key();
+
+        BufferedImage medium = read(variantService.find(source, 300).orElseThrow());
+        assertEquals(512, medium.getWidth());
+        assertEquals(256, medium.getHeight());
+
+        BufferedImage largest = read(variantService.find(source, 5000).orElseThrow());
+        assertEquals(1024, largest.getWidth());
+    }
+
+    @Test
+    void concurrentRequests_generateEachVariantOnce() throws Exception {
+        String source = blobStore.put(png(800, 600)).key();
+        clearInvocations(blobStore);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Optional<ImageVariantService.Variant>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> variantService.find(source, 128)));
+        }
+        for (Future<Optional<ImageVariantService.Variant>> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS).isPresent());
+        }
+        executor.shutdown();
+
+        // One write per configured width, no matter how many requests raced.
+        verify(blobStore, times(3)).putDerived(anyString(), anyString(), any(InputStream.class));
+        assertEquals(4, countFiles());
+    }
+
+    @Test
+    void find_returnsEmptyForContentThatIsNotAnImage() throws IOException {
+        String source = blobStore.put(new ByteArrayInputStream("not an image".getBytes())).key();
+
+        assertTrue(variantService.find(source, 128).isEmpty());
+    }
+
+    @Test
+    void find_doesNotDecodeImagesAbovePixelLimit() throws IOException {
+        ImageDeliveryProperties properties = new ImageDeliveryProperties();
+        properties.setMaxSourcePixels(1000 * 1000);
+        variantService = new ImageVariantService(blobStore, properties);
+        String source = blobStore.put(png(2000, 1000)).key();
+
+        assertTrue(variantService.exceedsPixelLimit(png(2000, 1000)));
+        assertFalse(variantService.exceedsPixelLimit(png(1000, 1000)));
+        assertFalse(variantService.exceedsPixelLimit(new ByteArrayInputStream("not an image".getBytes())));
+        assertTrue(variantService.find(source, 128).isEmpty());
+        verify(blobStore, never()).putDerived(anyString(), anyString(), any(InputStream.class));
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static BufferedImage read(ImageVariantService.Variant variant) throws IOException {
+        try (InputStream content = variant.resource().getInputStream()) {
+            return ImageIO.read(content);
+        }
+    }
+
+    private static InputStream png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.megasegashop.product.service;
+
+import org.example.megasegashop.product.config.ImageStorageProperties;
+import org.example.megasegashop.product.event.ProductCreatedEvent;
+import org.example.megasegashop.product.event.ProductDeletedEvent;
+import org.example.megasegashop.product.event.ProductUpdatedEvent;
+import org.example.megasegashop.product.service.image.BlobStore;
+import org.example.megasegashop.product.service.image.LegacyImageBlobMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a schema with the pre-blob-store {@code image.image} column, which the entity no
+ * longer maps.
+ */
+@SpringBootTest(properties = {
+        "spring.cache.type=none",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:product_migration_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "product.images.storage.migration-batch-size=1"
+})
+class LegacyImageBlobMigratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ImageStorageProperties properties;
+
+    @MockBean
+    private KafkaTemplate<String, ProductCreatedEvent> productCreatedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, ProductUpdatedEvent> productUpdatedKafkaTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, ProductDeletedEvent> productDeletedKafkaTemplate;
+
+    private LegacyImageBlobMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE image ADD COLUMN IF NOT EXISTS image BLOB");
+        jdbcTemplate.update("DELETE FROM image");
+        migrator = new LegacyImageBlobMigrator(jdbcTemplate, transactionTemplate, blobStore, properties);
+    }
+
+    @Test
+    void migrate_movesBytesToBlobStoreAndClearsColumn() throws IOException {
+        byte[] bytes = "legacy image".getBytes(StandardCharsets.UTF_8);
+        Long first = insertLegacyImage(bytes);
+        Long second = insertLegacyImage(bytes);
+
+        migrator.migrate();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT content_hash, content_length, image FROM image WHERE id = ?", first);
+        String contentHash = (String) row.get("content_hash");
+        assertNotNull(contentHash);
+        assertEquals((long) bytes.length, ((Number) row.get("content_length")).longValue());
+        assertNull(row.get("image"));
+        assertEquals(contentHash, jdbcTemplate.queryForObject(
+                "SELECT content_hash FROM image WHERE id = ?", String.class, second));
+        try (InputStream content = blobStore.get(contentHash).orElseThrow().getInputStream()) {
+            assertArrayEquals(bytes, content.readAllBytes());
+        }
+    }
+
+    @Test
+    void migrate_skipsRowsAlreadyMigratedOrWithoutBytes() {
+        Long empty = insertLegacyImage(null);
+        insertLegacyImage("once".getBytes(StandardCharsets.UTF_8));
+        migrator.migrate();
+
+        migrator.migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM image WHERE content_hash IS NULL AND image IS NOT NULL", Integer.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT content_hash FROM image WHERE id = ?", String.class, empty));
+    }
+
+    private Long insertLegacyImage(byte[] bytes) {
+        jdbcTemplate.update("INSERT INTO image (file_name, file_type, image) VALUES (?, ?, ?)",
+                "legacy.png", "image/png", bytes);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM image", Long.class);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.megasegashop.product.service;
+
+import org.example.megasegashop.product.cache.CacheEntryUpdater;
+import org.example.megasegashop.product.config.ProductCatalogCacheProperties;
+import org.example.megasegashop.product.model.Product;
+import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.service.product.ProductCatalogCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCatalogCacheTest {
+
+    private ProductRepository productRepository;
+    private ProductCatalogCacheProperties properties;
+    private ProductCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        properties = new ProductCatalogCacheProperties();
+        catalogCache = new ProductCatalogCache(new ConcurrentMapCacheManager(), productRepository, properties,
+                new CacheEntryUpdater(null));
+    }
+
+    @Test
+    void writes_updateCachedCatalogWithoutReloading() {
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, "Phone"), product(3L, "Console")));
+        assertEquals(2, catalogCache.getAll().size());
+
+        catalogCache.upsert(product(2L, "Tablet"));
+        catalogCache.upsert(product(1L, "Phone Pro"));
+        catalogCache.remove(3L);
+
+        List<Product> products = catalogCache.getAll();
+        assertEquals(List.of(1L, 2L), products.stream().map(Product::getId).toList());
+        assertEquals("Phone Pro", products.get(0).getName());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void concurrentColdReads_loadCatalogOnce() throws Exception {
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return List.of(product(1L, "Phone"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Product>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(catalogCache::getAll));
+        }
+        for (Future<List<Product>> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+        }
+        executor.shutdown();
+
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void staleSnapshot_isReloaded() {
+        properties.setRefreshAfter(Duration.ZERO);
+        when(productRepository.findAll())
+                .thenReturn(List.of(product(1L, "Phone")))
+                .thenReturn(List.of(product(1L, "Phone"), product(2L, "Tablet")));
+
+        assertEquals(1, catalogCache.getAll().size());
+        assertEquals(2, catalogCache.getAll().size());
+    }
+
+    @Test
+    void writeDuringLoad_isNotLostToTheLoadedCatalog() {
+        when(productRepository.findAll())
+                .thenAnswer(invocation -> {
+                    // Committed by another request after this query read its rows.
+                    catalogCache.upsert(product(2L, "Tablet"));
+                    return List.of(product(1L, "Phone"));
+                })
+                .thenReturn(List.of(product(1L, "Phone"), product(2L, "Tablet")));
+
+        assertEquals(List.of(1L, 2L), catalogCache.getAll().stream().map(Product::getId).toList());
+        verify(productRepository, times(2)).findAll();
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        return product;
+    }
+}
@@ -8,6 +8,9 @@ import org.example.megasegashop.product.model.Category;
 import org.example.megasegashop.product.model.Product;
 import org.example.megasegashop.product.repository.CategoryRepository;
 import org.example.megasegashop.product.repository.ProductRepository;
+import org.example.megasegashop.product.dto.ProductSearchCriteria;
+import org.example.megasegashop.product.dto.ProductSort;
+import org.example.megasegashop.product.service.product.ProductSearchService;
 import org.example.megasegashop.product.service.product.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +21,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +38,9 @@ class ProductServiceTest {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -98,4 +105,61 @@ class ProductServiceTest {
         // Then
         assertEquals(2, products.size());
     }
+
+    @Test
+    void getProductsByIds_keepsRequestOrderAndSkipsUnknownIds() {
+        Category category = categoryRepository.save(new Category(null, "Batch", null));
+        Product first = productRepository.save(new Product(null, "First", "Brand", "Desc", new BigDecimal("10"), category, new ArrayList<>()));
+        Product second = productRepository.save(new Product(null, "Second", "Brand", "Desc", new BigDecimal("20"), category, new ArrayList<>()));
+
+        List<Product> products = productService.getProductsByIds(
+                List.of(second.getId(), -1L, first.getId(), second.getId()));
+
+        assertEquals(List.of("Second", "First"), products.stream().map(Product::getName).toList());
+        assertEquals("Batch", products.get(0).getCategory().getName());
+    }
+
+    @Test
+    void search_combinesAnyFilters() {
+        Category games = categoryRepository.save(new Category(null, "Games", null));
+        Category consoles = categoryRepository.save(new Category(null, "Consoles", null));
+        productRepository.save(new Product(null, "Halo", "Xbox", "Desc", new BigDecimal("60"), games, new ArrayList<>()));
+        productRepository.save(new Product(null, "Halo Wars", "Xbox", "Desc", new BigDecimal("30"), games, new ArrayList<>()));
+        productRepository.save(new Product(null, "Xbox Series X", "Xbox", "Desc", new BigDecimal("500"), consoles, new ArrayList<>()));
+
+        // brand + name prefix + price range was rejected by the old fixed query list
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                "Games", "Xbox", null, "halo", null, new BigDecimal("10"), new BigDecimal("50"));
+        ProductSearchService.SearchPage page = productSearchService.searchPage(criteria, ProductSort.ID, 10, null);
+
+        assertEquals(List.of("Halo Wars"), page.products().stream().map(Product::getName).toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void searchPage_walksAllPagesWithKeysetCursor() {
+        Category category = categoryRepository.save(new Category(null, "Paged", null));
+        for (int i = 0; i < 7; i++) {
+            // Duplicate prices force the id tie-breaker in the cursor
+            productRepository.save(new Product(null, "P" + i, "Brand", "Desc",
+                    new BigDecimal(10 * (i / 2 + 1)), category, new ArrayList<>()));
+        }
+        ProductSearchCriteria all = new ProductSearchCriteria(null, null, null, null, null, null, null);
+
+        List<BigDecimal> prices = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ProductSearchService.SearchPage page = productSearchService.searchPage(all, ProductSort.PRICE_DESC, 3, cursor);
+            page.products().forEach(product -> prices.add(product.getPrice()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, prices.size());
+        for (int i = 1; i < prices.size(); i++) {
+            assertTrue(prices.get(i - 1).compareTo(prices.get(i)) >= 0);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package org.example.megasegashop.product.service;
+
+import org.example.megasegashop.product.config.ProductSearchIndexProperties;
+import org.example.megasegashop.product.model.Category;
+import org.example.megasegashop.product.model.Product;
+import org.example.megasegashop.product.service.search.ProductTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTextIndexTest {
+
+    private ProductTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductTextIndex(new ProductSearchIndexProperties());
+        index.replaceAll(List.of(
+                product(1L, "PlayStation 5", "Sony", "Next-gen console with ultra-fast SSD", "Consoles"),
+                product(2L, "DualSense Controller", "Sony", "Wireless controller for PlayStation", "Accessories"),
+                product(3L, "Xbox Series X", "Microsoft", "The fastest, most powerful Xbox", "Consoles"),
+                product(4L, "Pokémon Scarlet", "Nintendo", "Open-world adventure", "Games")
+        ));
+    }
+
+    @Test
+    void search_ranksNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L), ids(index.search("playstation")));
+    }
+
+    @Test
+    void search_matchesPrefixesTyposAndAccents() {
+        assertEquals(List.of(2L), ids(index.search("contr")));
+        assertEquals(List.of(3L), ids(index.search("microsfot")));
+        assertEquals(List.of(4L), ids(index.search("POKEMON")));
+    }
+
+    @Test
+    void search_scoresDocumentsMatchingMoreTermsHigher() {
+        List<Long> ids = ids(index.search("sony console"));
+        assertEquals(1L, ids.get(0));
+        assertTrue(ids.containsAll(List.of(2L, 3L)));
+    }
+
+    @Test
+    void upsertAndRemove_updateIndexInPlace() {
+        index.upsert(product(2L, "DualSense Edge", "Sony", "Pro controller", "Accessories"));
+        index.remove(3L);
+
+        assertTrue(index.search("wireless").isEmpty());
+        assertEquals(List.of(2L), ids(index.search("edge")));
+        assertTrue(index.search("xbox").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_withoutTerms_returnsNothing() {
+        assertTrue(index.search(" -- ").isEmpty());
+        assertTrue(index.search("zzzz").isEmpty());
+    }
+
+    private static List<Long> ids(List<ProductTextIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.product().getId()).toList();
+    }
+
+    private static Product product(Long id, String name, String brand, String description, String category) {
+        return new Product(id, name, brand, description, new BigDecimal("100"),
+                new Category(1L, category, null), new ArrayList<>());
+    }
+}